@@ -0,0 +1,42 @@
+package com.metalac.scanner.app.data.source.db;
+
+import static org.junit.Assert.assertEquals;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Checks that {@link CodePrefixIndex} matches typed prefixes without regard to case and returns the codes
+ * as they are in the catalog.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CodePrefixIndexTest {
+
+    @Test
+    public void matchesPrefixInAnyCase() {
+        CodePrefixIndex index = CodePrefixIndex.of(Arrays.asList("AB100", "ab200", "Ab300", "AC100", "1000"));
+
+        assertEquals(Arrays.asList("AB100", "ab200", "Ab300"), index.findByPrefix("ab", 10));
+        assertEquals(Arrays.asList("AB100", "ab200", "Ab300"), index.findByPrefix("aB", 10));
+        assertEquals(Collections.singletonList("AC100"), index.findByPrefix("ac1", 10));
+    }
+
+    @Test
+    public void keepsCodesThatDifferOnlyInCase() {
+        CodePrefixIndex index = CodePrefixIndex.of(Arrays.asList("x1", "X1", "x1", ""));
+
+        assertEquals(Arrays.asList("X1", "x1"), index.findByPrefix("X", 10));
+    }
+
+    @Test
+    public void stopsAtLimit() {
+        CodePrefixIndex index = CodePrefixIndex.of(Arrays.asList("a1", "A2", "a3"));
+
+        assertEquals(Arrays.asList("a1", "A2"), index.findByPrefix("A", 2));
+    }
+}
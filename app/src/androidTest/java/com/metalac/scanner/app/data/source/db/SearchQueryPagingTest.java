@@ -0,0 +1,103 @@
+package com.metalac.scanner.app.data.source.db;
+
+import static org.junit.Assert.assertEquals;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.metalac.scanner.app.models.MasterItem;
+import com.metalac.scanner.app.models.QueryMasterItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Checks that the pages of the queries built by {@link SearchQueryBuilder} neither overlap nor skip results
+ * when many results are ranked equally, so Paging shows every result once.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SearchQueryPagingTest {
+    private static final int PAGE_SIZE = 20;
+    private static final int ITEM_COUNT = PAGE_SIZE * 2 + 5;
+
+    private ScannerDatabase mDatabase;
+
+    @Before
+    public void createDatabase() {
+        mDatabase = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), ScannerDatabase.class).build();
+    }
+
+    @After
+    public void closeDatabase() {
+        mDatabase.close();
+    }
+
+    @Test
+    public void nameSearchPagesArticlesWithTheSameNameInIdentOrder() {
+        List<String> idents = new ArrayList<>();
+        List<MasterItem> masterItems = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            String ident = String.format(Locale.ROOT, "A%03d", i);
+            idents.add(ident);
+            masterItems.add(createMasterItem(ident, "Čokolada mlečna"));
+        }
+        // Inserted out of order, so the rowid order doesn't happen to match the ident order
+        Collections.shuffle(masterItems, new Random(42));
+        mDatabase.masterItemDao().importMasterItems(masterItems);
+
+        SearchQueryBuilder query = SearchQueryBuilder.masterItemKeys(new QueryMasterItem.QueryMasterBuilder()
+                .setIdent("")
+                .setName("čoko")
+                .setUnitOfMeasure("")
+                .setPrice(0.0)
+                .setAltCode1("")
+                .setAltCode2("")
+                .setBarcode("")
+                .setSalesProgram("")
+                .setPurchaseProgram("")
+                .setActive(1)
+                .setAccounting(1)
+                .setFilterText("")
+                .build());
+
+        List<String> pagedIdents = new ArrayList<>();
+        for (int offset = 0; offset < ITEM_COUNT; offset += PAGE_SIZE) {
+            pagedIdents.addAll(loadPage(query, offset));
+        }
+
+        assertEquals(idents, pagedIdents);
+    }
+
+    @NonNull
+    private static MasterItem createMasterItem(@NonNull String ident, @NonNull String name) {
+        MasterItem masterItem = new MasterItem();
+        masterItem.setIdent(ident);
+        masterItem.setName(name);
+        masterItem.setActive(1);
+        masterItem.setAccounting(1);
+        return masterItem;
+    }
+
+    @NonNull
+    private List<String> loadPage(@NonNull SearchQueryBuilder query, int offset) {
+        List<String> page = new ArrayList<>();
+        try (Cursor cursor = mDatabase.query(query.buildPage(PAGE_SIZE, offset))) {
+            while (cursor.moveToNext()) {
+                page.add(cursor.getString(0));
+            }
+        }
+        return page;
+    }
+}
@@ -0,0 +1,179 @@
+package com.metalac.scanner.app.data.source.db;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteProgram;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.metalac.scanner.app.models.QueryMasterItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Checks the query plans of the queries built by {@link SearchQueryBuilder}, so a schema or query change that
+ * makes a search fall back to scanning the catalog or an inventory list fails here instead of on the device.
+ * <p>
+ * The plans are read with {@code EXPLAIN QUERY PLAN} from an empty database with the current schema.
+ * Older SQLite versions write {@code SCAN TABLE x} where newer ones write {@code SCAN x}, so both are matched.
+ * </p>
+ */
+@RunWith(AndroidJUnit4.class)
+public class SearchQueryPlanTest {
+    private static final Pattern FULL_SCAN = Pattern.compile("^SCAN (TABLE )?(master_items|inventory_items|i|m)( |$)");
+    private static final int INVENTORY_LIST_ID = 1;
+    private static final int PAGE_SIZE = 50;
+
+    private ScannerDatabase mDatabase;
+
+    @Before
+    public void createDatabase() {
+        mDatabase = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), ScannerDatabase.class).build();
+    }
+
+    @After
+    public void closeDatabase() {
+        mDatabase.close();
+    }
+
+    @Test
+    public void nameSearchUsesFullTextIndex() {
+        List<String> plan = explain(SearchQueryBuilder.masterItemKeys(emptyQuery().setName("čoko").build())
+                .buildPage(PAGE_SIZE, 0));
+
+        assertUses(plan, "master_items_fts VIRTUAL TABLE INDEX");
+        assertUses(plan, "master_items USING INTEGER PRIMARY KEY");
+        assertNoFullScan(plan);
+    }
+
+    @Test
+    public void codeFragmentSearchUsesTrigramIndex() {
+        List<String> plan = explain(SearchQueryBuilder.masterItemKeys(emptyQuery().setIdent("1234").build())
+                .buildPage(PAGE_SIZE, 0));
+
+        assertUses(plan, "USING COVERING INDEX sqlite_autoindex_master_item_trigrams_1");
+        assertNoFullScan(plan);
+    }
+
+    @Test
+    public void exactFilterUsesColumnIndex() {
+        List<String> plan = explain(SearchQueryBuilder.masterItemKeys(emptyQuery().setAltCode2("A100").build())
+                .buildPage(PAGE_SIZE, 0));
+
+        assertUses(plan, "USING INDEX index_master_items_alt_code_2");
+        assertNoFullScan(plan);
+    }
+
+    @Test
+    public void inventoryListIsReadFromCoveringIndexInListOrder() {
+        List<String> plan = explain(SearchQueryBuilder.inventoryItemKeys(emptyQuery().build(), INVENTORY_LIST_ID)
+                .buildPage(PAGE_SIZE, 0));
+
+        assertUses(plan, "USING COVERING INDEX index_inventory_items_inventory_list_id_index_in_list_id_ident_quantity_status_has_extra_info");
+        assertNoFullScan(plan);
+        for (String step : plan) {
+            assertFalse("Sorts the list instead of reading it in index order: " + plan, step.contains("TEMP B-TREE FOR ORDER BY"));
+        }
+    }
+
+    @Test
+    public void inventoryListNameSearchUsesListIndexAndFullTextIndex() {
+        List<String> plan = explain(SearchQueryBuilder.inventoryItemKeys(emptyQuery().setName("čoko").build(), INVENTORY_LIST_ID)
+                .buildPage(PAGE_SIZE, 0));
+
+        assertUses(plan, "(inventory_list_id=?)");
+        assertUses(plan, "master_items_fts VIRTUAL TABLE INDEX");
+        assertNoFullScan(plan);
+    }
+
+    @Test
+    public void facetCountsWithoutFiltersUseSummaryTable() {
+        List<String> plan = explain(SearchQueryBuilder.facetCounts(emptyQuery().build()));
+
+        assertUses(plan, "master_item_facets");
+        for (String step : plan) {
+            assertFalse("Counts the catalog instead of reading the summary: " + plan, step.contains("master_items"));
+        }
+    }
+
+    /**
+     * Returns a query of the search form with every field left empty and the default flags checked.
+     */
+    @NonNull
+    private static QueryMasterItem.QueryMasterBuilder emptyQuery() {
+        return new QueryMasterItem.QueryMasterBuilder()
+                .setIdent("")
+                .setName("")
+                .setUnitOfMeasure("")
+                .setPrice(0.0)
+                .setAltCode1("")
+                .setAltCode2("")
+                .setBarcode("")
+                .setSalesProgram("")
+                .setPurchaseProgram("")
+                .setActive(1)
+                .setAccounting(1)
+                .setFilterText("");
+    }
+
+    /**
+     * Returns the details of the query plan steps of {@code query}, bound to its arguments.
+     */
+    @NonNull
+    private List<String> explain(@NonNull SupportSQLiteQuery query) {
+        SupportSQLiteQuery explainQuery = new SupportSQLiteQuery() {
+            @NonNull
+            @Override
+            public String getSql() {
+                return "EXPLAIN QUERY PLAN " + query.getSql();
+            }
+
+            @Override
+            public void bindTo(@NonNull SupportSQLiteProgram statement) {
+                query.bindTo(statement);
+            }
+
+            @Override
+            public int getArgCount() {
+                return query.getArgCount();
+            }
+        };
+
+        List<String> plan = new ArrayList<>();
+        try (Cursor cursor = mDatabase.query(explainQuery)) {
+            int detailIndex = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.add(cursor.getString(detailIndex));
+            }
+        }
+        return plan;
+    }
+
+    private static void assertUses(@NonNull List<String> plan, @NonNull String expectedStep) {
+        for (String step : plan) {
+            if (step.contains(expectedStep)) {
+                return;
+            }
+        }
+        fail("Expected a step with \"" + expectedStep + "\" in " + plan);
+    }
+
+    private static void assertNoFullScan(@NonNull List<String> plan) {
+        for (String step : plan) {
+            assertFalse("Full scan in " + plan, FULL_SCAN.matcher(step).find());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.metalac.scanner.app.data.source.export;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.metalac.scanner.app.models.InventoryExportItem;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Checks that {@link FixedWidthExportSink} writes every column at its byte position and fails instead of
+ * cutting or replacing a value, so two different articles never end up as the same record.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FixedWidthExportSinkTest {
+    private static final int RECORD_LENGTH = 5 + 12 + 6 + 6 + 20 + 14 + 10 + 10 + 10 + 30 + 60 + 2;
+
+    @Test
+    public void writesSerbianLatinCharactersAsSingleBytes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FixedWidthExportSink sink = new FixedWidthExportSink(out);
+        sink.begin();
+        sink.write(createItem("10001", "Đak čaša šećer žito"));
+        sink.finish();
+
+        byte[] record = out.toByteArray();
+        assertEquals(RECORD_LENGTH, record.length);
+        String text = new String(record, Charset.forName("windows-1250"));
+        assertEquals("10001               ", text.substring(29, 49));
+        assertEquals("Đak čaša šećer žito", text.substring(RECORD_LENGTH - 62, RECORD_LENGTH - 2).trim());
+        assertTrue(text.endsWith("\r\n"));
+    }
+
+    @Test
+    public void failsOnIdentLongerThanItsColumn() {
+        FixedWidthExportSink sink = new FixedWidthExportSink(new ByteArrayOutputStream());
+
+        IOException e = assertThrows(IOException.class, () -> sink.write(createItem("123456789012345678901", "")));
+        assertTrue(e.getMessage(), e.getMessage().contains("ident"));
+    }
+
+    @Test
+    public void failsOnCharacterWithoutWindows1250Encoding() {
+        FixedWidthExportSink sink = new FixedWidthExportSink(new ByteArrayOutputStream());
+
+        IOException e = assertThrows(IOException.class, () -> sink.write(createItem("10001", "Жито")));
+        assertTrue(e.getMessage(), e.getMessage().contains("note"));
+    }
+
+    @NonNull
+    private static InventoryExportItem createItem(@NonNull String ident, @NonNull String note) {
+        return new InventoryExportItem("1", ident, 1, 1, 1500, "STORE1", "LIST1", "ACTIVE", "", "", "", note);
+    }
+}
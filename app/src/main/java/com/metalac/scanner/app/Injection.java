@@ -23,7 +23,8 @@ public class Injection {
         return MasterItemRepository.getInstance(
                 MasterItemLocalDataSource.getInstance(
                         new AppExecutors(),
-                        ScannerDatabase.getInstance(context).masterItemDao()
+                        ScannerDatabase.getInstance(context).masterItemDao(),
+                        ScannerDatabase.getInstance(context)
                 )
         );
     }
@@ -33,7 +34,8 @@ public class Injection {
         return InventoryItemRepository.getInstance(
                 InventoryItemLocalDataSource.getInstance(
                         new AppExecutors(),
-                        ScannerDatabase.getInstance(context).inventoryItemDao()
+                        ScannerDatabase.getInstance(context).inventoryItemDao(),
+                        ScannerDatabase.getInstance(context)
                 )
         );
     }
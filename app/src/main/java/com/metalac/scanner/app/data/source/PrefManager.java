@@ -4,8 +4,13 @@ import android.content.Context;
 import android.content.SharedPreferences;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.metalac.scanner.app.ScannerReaderApplication;
+import com.metalac.scanner.app.data.source.export.ExportFormat;
+import com.metalac.scanner.app.data.source.export.PendingExport;
 
 /**
  * {@code PrefManager} is a centralized utility class responsible for managing
@@ -35,6 +40,12 @@ public class PrefManager {
     private static final String HAS_MASTER_DATA = "has_master_data";
     private static final String LAST_MASTER_DATA_SYNC = "last_master_data_sync";
     private static final String LAST_DATA_EXPORT = "last_data_export";
+    private static final String LAST_EXPORT_CHANGE_SEQ = "last_export_change_seq";
+    private static final String COMPRESS_EXPORT = "compress_export";
+    private static final String SCHEDULED_EXPORT = "scheduled_export";
+    private static final String EXPORT_FORMAT = "export_format";
+    private static final String PENDING_EXPORT = "pending_export";
+    private static final String EXPORT_SNAPSHOT_GENERATION = "export_snapshot_generation";
 
     private static SharedPreferences getSharedPreferences() {
         Context context = ScannerReaderApplication.getAppContext();
@@ -107,4 +118,92 @@ public class PrefManager {
     public static String getLastDataExportDate() {
         return getSharedPreferences().getString(LAST_DATA_EXPORT, "");
     }
+
+    /**
+     * Stores the change sequence covered by the last successful export. Written with {@code commit()},
+     * so the watermark is on disk before the export is reported as finished.
+     */
+    public static void setLastExportChangeSeq(long changeSeq) {
+        getSharedPreferences()
+                .edit()
+                .putLong(LAST_EXPORT_CHANGE_SEQ, changeSeq)
+                .commit();
+    }
+
+    public static long getLastExportChangeSeq() {
+        return getSharedPreferences().getLong(LAST_EXPORT_CHANGE_SEQ, 0);
+    }
+
+    public static void setExportCompressionEnabled(boolean compressExport) {
+        getSharedPreferences()
+                .edit()
+                .putBoolean(COMPRESS_EXPORT, compressExport)
+                .apply();
+    }
+
+    public static boolean isExportCompressionEnabled() {
+        return getSharedPreferences().getBoolean(COMPRESS_EXPORT, false);
+    }
+
+    public static void setScheduledExportEnabled(boolean scheduledExport) {
+        getSharedPreferences()
+                .edit()
+                .putBoolean(SCHEDULED_EXPORT, scheduledExport)
+                .apply();
+    }
+
+    public static boolean isScheduledExportEnabled() {
+        return getSharedPreferences().getBoolean(SCHEDULED_EXPORT, false);
+    }
+
+    public static void setExportFormat(@NonNull ExportFormat exportFormat) {
+        getSharedPreferences()
+                .edit()
+                .putString(EXPORT_FORMAT, exportFormat.name())
+                .apply();
+    }
+
+    @NonNull
+    public static ExportFormat getExportFormat() {
+        return ExportFormat.fromName(getSharedPreferences().getString(EXPORT_FORMAT, null));
+    }
+
+    /**
+     * Saves the state of an unpublished export, or clears it when {@code null}.
+     * Written with {@code commit()}, so after a crash the saved state matches the file it describes.
+     */
+    public static void setPendingExport(@Nullable PendingExport pendingExport) {
+        getSharedPreferences()
+                .edit()
+                .putString(PENDING_EXPORT, pendingExport == null ? null : new Gson().toJson(pendingExport))
+                .commit();
+    }
+
+    @Nullable
+    public static PendingExport getPendingExport() {
+        String pendingExport = getSharedPreferences().getString(PENDING_EXPORT, null);
+        if (pendingExport == null) {
+            return null;
+        }
+        try {
+            return new Gson().fromJson(pendingExport, PendingExport.class);
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the snapshot generation of the last published netted or differential export.
+     * Written with {@code commit()}, like the change sequence watermark it is published with.
+     */
+    public static void setExportSnapshotGeneration(long generation) {
+        getSharedPreferences()
+                .edit()
+                .putLong(EXPORT_SNAPSHOT_GENERATION, generation)
+                .commit();
+    }
+
+    public static long getExportSnapshotGeneration() {
+        return getSharedPreferences().getLong(EXPORT_SNAPSHOT_GENERATION, 0);
+    }
 }
@@ -0,0 +1,128 @@
+package com.metalac.scanner.app.data.source.db;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sorted, immutable set of article codes that returns the codes starting with a typed prefix.
+ * <p>
+ * The codes are kept in one string with the start offset of each code, a few bytes per code instead of
+ * an object per code, and a prefix is found by binary search, so a lookup takes microseconds even for
+ * the whole catalog. The codes starting with a prefix are adjacent in sorted order.
+ * </p>
+ * <p>
+ * Codes are typed and scanned without regard to case, so the index holds the codes upper-cased with
+ * {@link Locale#ROOT} and matches the upper-cased prefix. The few codes that change when upper-cased
+ * are kept as they are in the catalog as well, so the suggestions match the catalog exactly.
+ * </p>
+ */
+final class CodePrefixIndex {
+    private final String mKeys;
+    private final int[] mStarts;
+    /**
+     * Catalog codes that differ from their key, at the position of their key, or {@code null} if no code does.
+     */
+    @Nullable
+    private final String[] mCodes;
+
+    private CodePrefixIndex(@NonNull String keys, @NonNull int[] starts, @Nullable String[] codes) {
+        this.mKeys = keys;
+        this.mStarts = starts;
+        this.mCodes = codes;
+    }
+
+    /**
+     * Builds the index of the given codes, skipping empty and duplicate codes.
+     */
+    @NonNull
+    static CodePrefixIndex of(@NonNull List<String> codes) {
+        List<String[]> sortedCodes = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            if (code != null && !code.isEmpty()) {
+                sortedCodes.add(new String[]{toKey(code), code});
+            }
+        }
+        sortedCodes.sort(Comparator.<String[], String>comparing(keyAndCode -> keyAndCode[0])
+                .thenComparing(keyAndCode -> keyAndCode[1]));
+
+        StringBuilder builder = new StringBuilder();
+        int[] starts = new int[sortedCodes.size() + 1];
+        String[] originalCodes = null;
+        int size = 0;
+        String previous = null;
+        for (String[] keyAndCode : sortedCodes) {
+            String key = keyAndCode[0];
+            String code = keyAndCode[1];
+            if (!code.equals(previous)) {
+                if (!key.equals(code)) {
+                    if (originalCodes == null) {
+                        originalCodes = new String[sortedCodes.size()];
+                    }
+                    originalCodes[size] = code;
+                }
+                starts[size++] = builder.length();
+                builder.append(key);
+                previous = code;
+            }
+        }
+        int[] compactStarts = new int[size + 1];
+        System.arraycopy(starts, 0, compactStarts, 0, size);
+        compactStarts[size] = builder.length();
+        String[] compactCodes = null;
+        if (originalCodes != null) {
+            compactCodes = new String[size];
+            System.arraycopy(originalCodes, 0, compactCodes, 0, size);
+        }
+        return new CodePrefixIndex(builder.toString(), compactStarts, compactCodes);
+    }
+
+    /**
+     * Returns up to {@code limit} codes starting with {@code prefix} in any case, in ascending order.
+     */
+    @NonNull
+    List<String> findByPrefix(@NonNull String prefix, int limit) {
+        String keyPrefix = toKey(prefix);
+        List<String> matches = new ArrayList<>(limit);
+        int size = mStarts.length - 1;
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareToPrefix(middle, keyPrefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (int i = low; i < size && matches.size() < limit && compareToPrefix(i, keyPrefix) == 0; i++) {
+            String code = mCodes != null ? mCodes[i] : null;
+            matches.add(code != null ? code : mKeys.substring(mStarts[i], mStarts[i + 1]));
+        }
+        return matches;
+    }
+
+    @NonNull
+    private static String toKey(@NonNull String code) {
+        return code.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Compares the key at {@code index}, cut to the length of {@code prefix}, with {@code prefix}.
+     */
+    private int compareToPrefix(int index, @NonNull String prefix) {
+        int start = mStarts[index];
+        int length = Math.min(mStarts[index + 1] - start, prefix.length());
+        for (int i = 0; i < length; i++) {
+            int difference = mKeys.charAt(start + i) - prefix.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length < prefix.length() ? -1 : 0;
+    }
+}
@@ -0,0 +1,64 @@
+package com.metalac.scanner.app.data.source.db;
+
+import androidx.annotation.NonNull;
+import androidx.paging.ListenableFuturePagingSource;
+import androidx.room.InvalidationTracker;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import kotlin.Unit;
+
+/**
+ * Base of the paging sources that query the database themselves instead of through Room's generated sources.
+ * <p>
+ * Pages are loaded on the given executor and the source is invalidated when one of the observed tables changes.
+ * </p>
+ */
+abstract class DatabasePagingSource<K, V> extends ListenableFuturePagingSource<K, V> {
+    private final Executor mExecutor;
+    private final InvalidationTracker mInvalidationTracker;
+    private final InvalidationTracker.Observer mObserver;
+    private final AtomicBoolean mObserverRegistered = new AtomicBoolean();
+
+    DatabasePagingSource(@NonNull Executor executor, @NonNull InvalidationTracker invalidationTracker,
+                         @NonNull String table, @NonNull String... otherTables) {
+        this.mExecutor = executor;
+        this.mInvalidationTracker = invalidationTracker;
+        this.mObserver = new InvalidationTracker.Observer(table, otherTables) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidate();
+            }
+        };
+        registerInvalidatedCallback(() -> {
+            if (mObserverRegistered.get()) {
+                mInvalidationTracker.removeObserver(mObserver);
+            }
+            return Unit.INSTANCE;
+        });
+    }
+
+    /**
+     * Runs {@code load} on the executor of the source.
+     */
+    @NonNull
+    ListenableFuture<LoadResult<K, V>> submit(@NonNull Callable<LoadResult<K, V>> load) {
+        return Futures.submit(() -> {
+            // Registered on the first load, so the tracker never syncs its triggers on the main thread
+            if (mObserverRegistered.compareAndSet(false, true)) {
+                mInvalidationTracker.addObserver(mObserver);
+                // The invalidated callback may have run before the observer was added and skipped removing it
+                if (getInvalid()) {
+                    mInvalidationTracker.removeObserver(mObserver);
+                }
+            }
+            return load.call();
+        }, mExecutor);
+    }
+}
@@ -1,54 +1,154 @@
 package com.metalac.scanner.app.data.source.db;
 
+import android.content.ContentProviderOperation;
 import android.content.ContentResolver;
+import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.Context;
+import android.content.OperationApplicationException;
+import android.database.Cursor;
 import android.net.Uri;
+import android.os.Bundle;
 import android.os.Environment;
+import android.os.ParcelFileDescriptor;
+import android.os.RemoteException;
+import android.os.SystemClock;
 import android.provider.MediaStore;
+import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
 import androidx.paging.PagingSource;
 
 import com.google.android.gms.common.util.CollectionUtils;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import com.metalac.scanner.app.executors.AppExecutors;
+import com.metalac.scanner.app.helpers.DateHelper;
 import com.metalac.scanner.app.R;
 import com.metalac.scanner.app.ScannerReaderApplication;
+import com.metalac.scanner.app.data.source.PrefManager;
+import com.metalac.scanner.app.data.source.export.ExportFileOutputStream;
+import com.metalac.scanner.app.data.source.export.ExportFormat;
+import com.metalac.scanner.app.data.source.export.ExportPausedException;
+import com.metalac.scanner.app.data.source.export.ExportSink;
+import com.metalac.scanner.app.data.source.export.PendingExport;
+import com.metalac.scanner.app.models.ArticleListTotal;
+import com.metalac.scanner.app.models.ConsolidatedTotal;
+import com.metalac.scanner.app.models.ConsolidationItem;
+import com.metalac.scanner.app.models.ExportManifest;
+import com.metalac.scanner.app.models.ExportSnapshotItem;
 import com.metalac.scanner.app.models.InventoryExportItem;
 import com.metalac.scanner.app.utils.Utils;
 import com.metalac.scanner.app.data.source.db.dao.InventoryItemDao;
 import com.metalac.scanner.app.data.source.interfaces.InventoryItemDataSource;
 import com.metalac.scanner.app.models.InventoryItem;
 import com.metalac.scanner.app.models.InventoryItemWithDamageDesc;
+import com.metalac.scanner.app.models.InventoryList;
 import com.metalac.scanner.app.models.ProductPreviewItem;
 import com.metalac.scanner.app.models.QueryMasterItem;
 import com.metalac.scanner.app.view.ScannerReaderError;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
 
 public class InventoryItemLocalDataSource implements InventoryItemDataSource {
 
     private static volatile InventoryItemLocalDataSource INSTANCE;
 
+    private static final String EXPORT_RELATIVE_PATH = Environment.DIRECTORY_DOWNLOADS + "/POPIS";
+    private static final String JSON_MIME_TYPE = "application/json";
+    private static final String GZIP_MIME_TYPE = "application/gzip";
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    /**
+     * Number of export pages between two checkpoints of a resumable export. Every checkpoint syncs
+     * the file to storage, so they are spread out to keep the export fast.
+     */
+    private static final int CHECKPOINT_INTERVAL_PAGES = 10;
+    private static final int CONSOLIDATION_BATCH_SIZE = 1000;
+    /**
+     * Number of voided rows in the live table from which {@link #compactVoidedItems} archives them.
+     * Fewer rows barely slow down the inventory screens and aren't worth a write transaction.
+     */
+    private static final int COMPACTION_THRESHOLD = 500;
+    /**
+     * A background export pauses while at least {@link #SCAN_LOAD_THRESHOLD} scans were saved
+     * within the last {@link #SCAN_LOAD_WINDOW_MS}.
+     */
+    private static final long SCAN_LOAD_WINDOW_MS = 60_000;
+    private static final int SCAN_LOAD_THRESHOLD = 10;
+    private static final String DIFF_STATUS_ADDED = "ADDED";
+    private static final String DIFF_STATUS_CHANGED = "CHANGED";
+    private static final String DIFF_STATUS_REMOVED = "REMOVED";
+
     private final InventoryItemDao mInventoryItemDao;
     private final AppExecutors mAppExecutors;
+    private final ScannerDatabase mDatabase;
+    /**
+     * Held while any export or consolidation runs, so no export writes the pending export of another one
+     * or deletes the files another one just published.
+     */
+    private final ReentrantLock mExportLock = new ReentrantLock();
+    /**
+     * Exports started by the user that are queued on the background IO thread, behind a running background export.
+     */
+    private final AtomicInteger mQueuedBackgroundTasks = new AtomicInteger();
+    /**
+     * Set while a background export that stops at its checkpoints holds the export lock.
+     */
+    private volatile boolean mPausableExportRunning;
+    private final Queue<Long> mRecentScanTimes = new ConcurrentLinkedQueue<>();
+    private volatile boolean mBackgroundExportPauseRequested;
 
-    private InventoryItemLocalDataSource(@NonNull AppExecutors appExecutors, @NonNull InventoryItemDao inventoryItemDao) {
+    private InventoryItemLocalDataSource(@NonNull AppExecutors appExecutors, @NonNull InventoryItemDao inventoryItemDao,
+                                         @NonNull ScannerDatabase database) {
         this.mAppExecutors = appExecutors;
         this.mInventoryItemDao = inventoryItemDao;
+        this.mDatabase = database;
     }
 
-    public static InventoryItemLocalDataSource getInstance(@NonNull AppExecutors appExecutors, @NonNull InventoryItemDao inventoryItemDao) {
+    public static InventoryItemLocalDataSource getInstance(@NonNull AppExecutors appExecutors, @NonNull InventoryItemDao inventoryItemDao,
+                                                           @NonNull ScannerDatabase database) {
         if (INSTANCE == null) {
             synchronized (InventoryItemLocalDataSource.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = new InventoryItemLocalDataSource(appExecutors, inventoryItemDao);
+                    INSTANCE = new InventoryItemLocalDataSource(appExecutors, inventoryItemDao, database);
                 }
             }
         }
@@ -80,6 +180,7 @@ public class InventoryItemLocalDataSource implements InventoryItemDataSource {
             inventoryItem.setId(0);
             int inventoryItemId = (int) mInventoryItemDao.insertInventoryItem(inventoryItem);
             if (inventoryItemId > -1) {
+                recordScan();
                 ProductPreviewItem productPreviewItem = mInventoryItemDao.getProductPreviewByInventoryItemId(inventoryItemId);
                 mAppExecutors.mainThread().execute(() -> {
                     if (productPreviewItem == null) {
@@ -195,6 +296,31 @@ public class InventoryItemLocalDataSource implements InventoryItemDataSource {
         });
     }
 
+    /**
+     * Voids all inventory items with the given IDs in a single database transaction.
+     * <p>
+     * The items are validated, new indexes are allocated and all negated rows are written
+     * atomically, so either every item is voided or none is. The result is reported through
+     * {@link IVoidItemCallback} on the main thread.
+     *
+     * @param ids               The IDs of the inventory items to void.
+     * @param iVoidItemCallback Callback to receive success or failure notifications.
+     */
+    @Override
+    public void voidInventoryItems(@NonNull Set<Long> ids, @NonNull IVoidItemCallback iVoidItemCallback) {
+        mAppExecutors.diskIO().execute(() -> {
+            try {
+                mInventoryItemDao.voidItems(new ArrayList<>(ids));
+                mAppExecutors.mainThread().execute(iVoidItemCallback::onItemVoided);
+            } catch (ScannerReaderError error) {
+                postVoidItemFailure(iVoidItemCallback, error);
+            } catch (Exception e) {
+                postVoidItemFailure(iVoidItemCallback, new ScannerReaderError(
+                        ScannerReaderApplication.getAppContext().getString(R.string.void_failed_error), e.getMessage()));
+            }
+        });
+    }
+
     /**
      * Posts an error to the main thread callback.
      */
@@ -204,28 +330,73 @@ public class InventoryItemLocalDataSource implements InventoryItemDataSource {
 
 
     /**
-     * Returns a {@link PagingSource} for loading {@link ProductPreviewItem} objects associated with a specific inventory list.
-     * <p>
-     * If no filters are applied (as determined by {@link QueryMasterItem#isNoFilterApplied()}),
-     * all items in the inventory list are returned. Otherwise, a filtered query is executed using
-     * the criteria provided in the {@link QueryMasterItem}.
-     * </p>
+     * Returns a {@link PagingSource} for loading all {@link ProductPreviewItem} objects of a specific inventory list,
+     * newest first. Every page is sought from the last loaded row (see {@link KeysetPagingSource}), so a page at the
+     * end of a long list costs the same as the first one.
+     *
+     * @param inventoryListId The ID of the inventory list to query.
+     * @return A {@link PagingSource} for paginated loading of {@link ProductPreviewItem} objects.
+     */
+    public PagingSource<ProductPreviewItem, ProductPreviewItem> getAllInventoryData(int inventoryListId) {
+        return new KeysetPagingSource<ProductPreviewItem>(mAppExecutors.localExecution(), mDatabase.getInvalidationTracker(),
+                "inventory_items", "master_items") {
+            @NonNull
+            @Override
+            List<ProductPreviewItem> loadFrom(@Nullable ProductPreviewItem item, int limit) {
+                if (item == null) {
+                    return mInventoryItemDao.getInventoryItemsPage(inventoryListId, limit);
+                }
+                return mInventoryItemDao.getInventoryItemsPageFrom(inventoryListId, item.getIndexInInventoryList(),
+                        item.getInventoryId(), limit);
+            }
+
+            @NonNull
+            @Override
+            List<ProductPreviewItem> loadAfter(@NonNull ProductPreviewItem item, int limit) {
+                return mInventoryItemDao.getInventoryItemsPageAfter(inventoryListId, item.getIndexInInventoryList(),
+                        item.getInventoryId(), limit);
+            }
+
+            @NonNull
+            @Override
+            List<ProductPreviewItem> loadBefore(@NonNull ProductPreviewItem item, int limit) {
+                return mInventoryItemDao.getInventoryItemsPageBefore(inventoryListId, item.getIndexInInventoryList(),
+                        item.getInventoryId(), limit);
+            }
+        };
+    }
+
+    /**
+     * Returns a {@link PagingSource} for loading the {@link ProductPreviewItem} objects of a specific inventory list
+     * whose articles match the criteria provided in the {@link QueryMasterItem}. A running search query is
+     * interrupted when its load is cancelled, see {@link SearchPagingSource}.
      *
      * @param inventoryListId The ID of the inventory list to query.
      * @param queryMasterItem Object containing filter parameters for the query.
      * @return A {@link PagingSource} for paginated loading of {@link ProductPreviewItem} objects.
      */
-    public PagingSource<Integer, ProductPreviewItem> getInventoryData(int inventoryListId, @NonNull QueryMasterItem queryMasterItem) {
-        if (queryMasterItem.isNoFilterApplied()) {
-            return mInventoryItemDao.getAllInventoryItemsPaged(inventoryListId);
-        } else {
-            return mInventoryItemDao.getFilteredInventoryItems(queryMasterItem.getIdent(),
-                    queryMasterItem.getBarcode(), queryMasterItem.getAltCode1(),
-                    queryMasterItem.getAltCode2(), queryMasterItem.getSalesProgram(),
-                    queryMasterItem.getPurchaseProgram(), queryMasterItem.getUnitOfMeasure(),
-                    queryMasterItem.getName(), queryMasterItem.getActive(), queryMasterItem.getAccounting(),
-                    queryMasterItem.getPrice(), queryMasterItem.getFilterText(), inventoryListId);
-        }
+    public SearchPagingSource<Long, ProductPreviewItem> getFilteredInventoryData(int inventoryListId, @NonNull QueryMasterItem queryMasterItem) {
+        return new SearchPagingSource<Long, ProductPreviewItem>(mAppExecutors.localExecution(), mDatabase,
+                SearchQueryBuilder.inventoryItemKeys(queryMasterItem, inventoryListId),
+                "inventory_items", "master_items") {
+            @NonNull
+            @Override
+            Long readKey(@NonNull Cursor cursor) {
+                return cursor.getLong(0);
+            }
+
+            @NonNull
+            @Override
+            List<ProductPreviewItem> loadRows(@NonNull List<Long> keys) {
+                return mInventoryItemDao.getInventoryItemsByIds(inventoryListId, keys);
+            }
+
+            @NonNull
+            @Override
+            Long getKey(@NonNull ProductPreviewItem row) {
+                return row.getInventoryId();
+            }
+        };
     }
 
     /**
@@ -259,62 +430,567 @@ public class InventoryItemLocalDataSource implements InventoryItemDataSource {
         mAppExecutors.diskIO().execute(updateTask);
     }
 
+    /**
+     * Applies the same additional data (expiration date, damage code and note) to all inventory
+     * items with the given IDs in a single database transaction.
+     * <p>
+     * If any of the items is missing or voided, or the items belong to different lists, nothing is
+     * updated and {@code onFailure()} is called with the corresponding {@link ScannerReaderError}.
+     * </p>
+     *
+     * @param ids              The IDs of the inventory items to update.
+     * @param expDate          The expiration date to set, or {@code null} to keep or clear it.
+     * @param damageCode       The damage code to set, or {@code null} to keep or clear it.
+     * @param note             The note to set, or {@code null} to keep or clear it.
+     * @param clearEmptyFields {@code true} to clear the fields passed as {@code null}, otherwise they are kept.
+     * @param callback         The callback used to report success or failure of the update operation.
+     */
+    @Override
+    public void updateInventoryItemsAdditionalData(@NonNull Set<Long> ids, @Nullable String expDate, @Nullable String damageCode,
+                                                   @Nullable String note, boolean clearEmptyFields,
+                                                   @NonNull IOnInventoryItemUpdatedCallback callback) {
+        mAppExecutors.diskIO().execute(() -> {
+            try {
+                mInventoryItemDao.updateItemsAdditionalData(new ArrayList<>(ids), expDate, damageCode, note, clearEmptyFields);
+                mAppExecutors.mainThread().execute(callback::onSuccess);
+            } catch (ScannerReaderError error) {
+                mAppExecutors.mainThread().execute(() -> callback.onFailure(error));
+            } catch (Exception e) {
+                ScannerReaderError error = new ScannerReaderError(ScannerReaderApplication.getAppContext().getString(R.string.database_error_title), e.getMessage());
+                mAppExecutors.mainThread().execute(() -> callback.onFailure(error));
+            }
+        });
+    }
+
     /**
      * Deletes all inventory data from the database and resets any related counters (e.g., auto-increment values),
      * executing the operation asynchronously on a background thread.
      * <p>
+     * Rows are deleted in chunks of {@link Utils#DELETE_CHUNK_SIZE}, each committed on its own, and
+     * {@code onDeleteProgress()} is called on the main thread after every chunk. The rows left after the
+     * last chunk are deleted together with the counter reset in one transaction.
      * If the operation completes successfully, {@code onInventoryDataDeleted()} is called on the main thread.
      * If an exception occurs during deletion, {@code onDeleteInventoryDataFailed()} is called with a
-     * {@link ScannerReaderError} containing the error details.
+     * {@link ScannerReaderError} containing the error details. Chunks deleted before the failure stay deleted.
      * </p>
      *
-     * @param callback Callback interface used to notify the result of the delete operation.
+     * @param callback Callback interface used to notify the progress and result of the delete operation.
      */
     @Override
     public void deleteInventoryData(@NonNull IOnInventoryDataDeletedCallback callback) {
         Runnable runnable = () -> {
             try {
+                int totalRows = mInventoryItemDao.getTotalItemCount();
+                int deletedRows = deleteInChunks(() -> mInventoryItemDao.deleteInventoryItemsChunk(Utils.DELETE_CHUNK_SIZE), 0, totalRows, callback);
+                deleteInChunks(() -> mInventoryItemDao.deleteInventoryHistoryChunk(Utils.DELETE_CHUNK_SIZE), deletedRows, totalRows, callback);
+                // Scans saved between the chunks are deleted in the same transaction that resets the counters
                 mInventoryItemDao.deleteAndRestartAllInventoryData();
                 mAppExecutors.mainThread().execute(callback::onInventoryDataDeleted);
             } catch (Exception e) {
-                mAppExecutors.mainThread().execute(() ->
-                        callback.onDeleteInventoryDataFailed(new ScannerReaderError(ScannerReaderApplication.getAppContext().getString(R.string.delete_data_fail_title), e.getMessage())));
+                postDeleteFailure(callback, e);
             }
         };
         mAppExecutors.diskIO().execute(runnable);
     }
 
     /**
-     * Exports all inventory data from the database asynchronously and serializes it to JSON.
+     * Deletes all inventory items of a single list in chunks of {@link Utils#DELETE_CHUNK_SIZE}, so scans
+     * and reads can run between them. The list itself is not deleted.
+     *
+     * @param inventoryListId The ID of the list whose items are deleted.
+     * @param callback        Callback interface used to notify the progress and result of the delete operation.
+     */
+    @Override
+    public void deleteInventoryListItems(int inventoryListId, @NonNull IOnInventoryDataDeletedCallback callback) {
+        Runnable runnable = () -> {
+            try {
+                int totalRows = mInventoryItemDao.getItemCountInList(inventoryListId);
+                int deletedRows = deleteInChunks(() -> mInventoryItemDao.deleteInventoryItemsChunkInList(inventoryListId, Utils.DELETE_CHUNK_SIZE), 0, totalRows, callback);
+                deleteInChunks(() -> mInventoryItemDao.deleteInventoryHistoryChunkInList(inventoryListId, Utils.DELETE_CHUNK_SIZE), deletedRows, totalRows, callback);
+                mAppExecutors.mainThread().execute(callback::onInventoryDataDeleted);
+            } catch (Exception e) {
+                postDeleteFailure(callback, e);
+            }
+        };
+        mAppExecutors.diskIO().execute(runnable);
+    }
+
+    /**
+     * Repeats the given chunk deletion until it deletes no more rows, reporting progress after every chunk.
+     *
+     * @return The total number of deleted rows, including {@code deletedRows} from earlier calls.
+     */
+    private int deleteInChunks(@NonNull IntSupplier deleteChunk, int deletedRows, int totalRows, @NonNull IOnInventoryDataDeletedCallback callback) {
+        int deletedInChunk;
+        while ((deletedInChunk = deleteChunk.getAsInt()) > 0) {
+            deletedRows += deletedInChunk;
+            int progress = deletedRows;
+            mAppExecutors.mainThread().execute(() -> callback.onDeleteProgress(progress, Math.max(progress, totalRows)));
+        }
+        return deletedRows;
+    }
+
+    private void postDeleteFailure(@NonNull IOnInventoryDataDeletedCallback callback, @NonNull Exception e) {
+        mAppExecutors.mainThread().execute(() ->
+                callback.onDeleteInventoryDataFailed(new ScannerReaderError(ScannerReaderApplication.getAppContext().getString(R.string.delete_data_fail_title), e.getMessage())));
+    }
+
+    /**
+     * Exports inventory data from the database asynchronously in the {@link ExportFormat} selected in settings.
+     * <p>
+     * The rows are read in pages of {@link Utils#EXPORT_PAGE_SIZE} and every record is passed to a
+     * streaming {@link ExportSink} that writes it directly into the export file, so memory use doesn't
+     * grow with the size of the inventory. If no data is found or an error occurs during the export process,
+     * {@code postDataLoadingFailure()} is invoked with an appropriate {@link ScannerReaderError}.
+     * </p>
+     * <p>
+     * An incremental export only writes rows inserted or edited after the watermark of the last
+     * successful full or incremental export. The current change sequence is read before the first page
+     * and stored as the new watermark once the file is written, so a failed export is simply repeated next time.
+     * A netted export writes the net quantity per list, article, expiration date and damage code.
+     * A differential export writes only the netted rows that differ from the snapshot of the last
+     * netted or differential export, and both of them store a new snapshot while they are written.
+     * </p>
      * <p>
-     * If inventory data exists, it is converted to a JSON string using {@link Gson} and passed to
-     * {@link #exportFile(IOnDataLoadedCallback, String)} for writing to disk. If no data is found or
-     * an error occurs during the export process, {@code postDataLoadingFailure()} is invoked with an
-     * appropriate {@link ScannerReaderError}.
+     * If an uncompressed export of the same kind and format was interrupted, it continues after the
+     * last row synced to its pending file, with the change sequence range of the original export.
+     * </p>
+     * <p>
+     * The export runs on the {@link AppExecutors#backgroundIO()} thread, so scans saved on the disk IO
+     * thread never wait for it. It fails right away if another export runs that doesn't stop for it,
+     * see {@link #executeLockedInBackground(Runnable, Runnable)}.
      * </p>
      *
-     * @param callback Callback used to notify success or failure of the data export operation.
+     * @param exportMode Which rows to export, see {@link ExportMode}.
+     * @param callback   Callback used to notify success or failure of the data export operation.
      */
     @Override
-    public void exportData(@NonNull IOnDataLoadedCallback callback) {
+    public void exportData(@NonNull ExportMode exportMode, @NonNull IOnDataLoadedCallback callback) {
+        executeLockedInBackground(() -> runExport(exportMode, callback, null), () -> postDataLoadingFailure(callback,
+                R.string.export_data_fail_title, ScannerReaderApplication.getAppContext().getString(R.string.export_busy_error)));
+    }
+
+    /**
+     * Runs an export like {@link #exportData(ExportMode, IOnDataLoadedCallback)} that the app started on its own,
+     * so it gives way to scans and to exports started by the user.
+     * <p>
+     * The rows are read from the change sequence range fixed when the export started, on a separate
+     * connection of the write-ahead logged database, so the export sees a consistent state while scans
+     * keep being saved. Rows edited in the meantime get a newer change sequence and go to the next export.
+     * </p>
+     * <p>
+     * The export doesn't start while scan traffic is high or another export runs. After every checkpoint
+     * it stops if scan traffic became high, the user started an export, list export or consolidation, or
+     * {@link #pauseBackgroundExport()} was called, and reports {@link IOnBackgroundExportCallback#onExportPaused()}.
+     * The pending export is saved in preferences, so the next run continues from the checkpoint, also after process death.
+     * Compressed exports have no checkpoints, so they only pause before they start.
+     * </p>
+     *
+     * @param exportMode Which rows to export, see {@link ExportMode}.
+     * @param callback   Callback used to notify success, failure or a pause of the export.
+     */
+    @Override
+    public void exportDataInBackground(@NonNull ExportMode exportMode, @NonNull IOnBackgroundExportCallback callback) {
+        mBackgroundExportPauseRequested = false;
         Runnable runnable = () -> {
+            if (shouldPauseBackgroundExport() || !mExportLock.tryLock()) {
+                mAppExecutors.mainThread().execute(callback::onExportPaused);
+                return;
+            }
+            // Compressed exports have no checkpoints to stop at
+            mPausableExportRunning = !PrefManager.isExportCompressionEnabled();
             try {
-                List<InventoryExportItem> inventoryExportItems = mInventoryItemDao.getAllInventoryData();
-                if (CollectionUtils.isEmpty(inventoryExportItems)) {
-                    postDataLoadingFailure(callback, R.string.no_products_error, "");
-                } else {
-                    Gson gson = new GsonBuilder()
-                            .excludeFieldsWithoutExposeAnnotation()
-                            .create();
+                runExport(exportMode, callback, this::shouldPauseBackgroundExport);
+            } finally {
+                mPausableExportRunning = false;
+                mExportLock.unlock();
+            }
+        };
+        mAppExecutors.backgroundIO().execute(runnable);
+    }
+
+    /**
+     * Asks a running background export to stop at its next checkpoint.
+     */
+    @Override
+    public void pauseBackgroundExport() {
+        mBackgroundExportPauseRequested = true;
+    }
+
+    private boolean shouldPauseBackgroundExport() {
+        return mBackgroundExportPauseRequested || mQueuedBackgroundTasks.get() > 0 || isScanLoadHigh();
+    }
+
+    /**
+     * Runs an export started by the user on the {@link AppExecutors#backgroundIO()} thread while holding
+     * the export lock. A background export running on the same thread sees the queued task and pauses at
+     * its next checkpoint, so the task doesn't wait for the whole background export.
+     * <p>
+     * If the lock is held by an export that doesn't pause, {@code onBusy} runs right away instead of
+     * queueing the task behind it, and also if the lock is still taken when the task gets its turn.
+     * </p>
+     */
+    private void executeLockedInBackground(@NonNull Runnable task, @NonNull Runnable onBusy) {
+        if (mExportLock.isLocked() && !mPausableExportRunning) {
+            onBusy.run();
+            return;
+        }
+        mQueuedBackgroundTasks.incrementAndGet();
+        mAppExecutors.backgroundIO().execute(() -> {
+            mQueuedBackgroundTasks.decrementAndGet();
+            if (!mExportLock.tryLock()) {
+                onBusy.run();
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                mExportLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Remembers the time of a saved scan for {@link #isScanLoadHigh()}.
+     */
+    private void recordScan() {
+        long now = SystemClock.elapsedRealtime();
+        mRecentScanTimes.add(now);
+        removeOldScanTimes(now);
+    }
 
-                    String exportJson = gson.toJson(inventoryExportItems);
-                    exportFile(callback, exportJson);
+    private boolean isScanLoadHigh() {
+        removeOldScanTimes(SystemClock.elapsedRealtime());
+        return mRecentScanTimes.size() >= SCAN_LOAD_THRESHOLD;
+    }
+
+    private void removeOldScanTimes(long now) {
+        Long oldest;
+        while ((oldest = mRecentScanTimes.peek()) != null && now - oldest > SCAN_LOAD_WINDOW_MS) {
+            mRecentScanTimes.poll();
+        }
+    }
+
+    /**
+     * Runs the export on the calling thread. Only an export with a pause condition can be paused.
+     *
+     * @param shouldPause Checked after every checkpoint, or {@code null} to never pause.
+     */
+    private void runExport(@NonNull ExportMode exportMode, @NonNull IOnDataLoadedCallback callback,
+                           @Nullable BooleanSupplier shouldPause) {
+        try {
+            ExportFormat format = PrefManager.getExportFormat();
+            boolean compress = PrefManager.isExportCompressionEnabled();
+            PendingExport interruptedExport = PrefManager.getPendingExport();
+            if (interruptedExport != null && !(interruptedExport.canResume(exportMode, format, compress)
+                    && Boolean.TRUE.equals(isPendingExportFile(Uri.parse(interruptedExport.getUri()))))) {
+                discardPendingExport(interruptedExport);
+                interruptedExport = null;
+            }
+
+            long maxSeq = interruptedExport != null ? interruptedExport.getMaxChangeSeq() : mInventoryItemDao.getCurrentChangeSeq();
+            long watermark = PrefManager.getLastExportChangeSeq();
+            // A watermark above the current sequence means the database was recreated since the last export
+            long afterSeq = watermark > maxSeq ? 0 : watermark;
+
+            boolean writesSnapshot = exportMode == ExportMode.NETTED || exportMode == ExportMode.DIFF;
+            long previousGeneration = PrefManager.getExportSnapshotGeneration();
+            long nextGeneration = !writesSnapshot ? 0
+                    : interruptedExport != null ? interruptedExport.getSnapshotGeneration() : previousGeneration + 1;
+            if (writesSnapshot && interruptedExport == null) {
+                // Left over from exports that were never published
+                mInventoryItemDao.deleteExportSnapshotsExcept(previousGeneration);
+            }
+
+            ExportPageLoader pageLoader;
+            switch (exportMode) {
+                case CHANGES:
+                    pageLoader = lastItem -> mInventoryItemDao.getInventoryChangesPage(
+                            lastItem == null ? afterSeq : lastItem.getChangeSeq(), maxSeq, Utils.EXPORT_PAGE_SIZE);
+                    break;
+                case NETTED:
+                    pageLoader = lastItem -> {
+                        List<InventoryExportItem> page = lastItem == null
+                                ? mInventoryItemDao.getNettedExportPage(0, "", null, null, Utils.EXPORT_PAGE_SIZE)
+                                : mInventoryItemDao.getNettedExportPage(lastItem.getInventoryListId(), lastItem.getIdent(),
+                                lastItem.getExpDate(), lastItem.getDamageCode(), Utils.EXPORT_PAGE_SIZE);
+                        List<ExportSnapshotItem> snapshotItems = new ArrayList<>();
+                        for (InventoryExportItem item : page) {
+                            snapshotItems.add(ExportSnapshotItem.fromExportItem(nextGeneration, item));
+                        }
+                        mInventoryItemDao.insertExportSnapshotItems(snapshotItems);
+                        return page;
+                    };
+                    break;
+                case DIFF:
+                    pageLoader = lastItem -> loadDiffPageAfter(lastItem, previousGeneration, nextGeneration);
+                    break;
+                default:
+                    pageLoader = lastItem -> mInventoryItemDao.getInventoryExportPage(
+                            lastItem == null ? 0 : lastItem.getId(), Utils.EXPORT_PAGE_SIZE);
+                    break;
+            }
+
+            if (interruptedExport != null) {
+                exportFile(callback, interruptedExport, true, pageLoader.loadPageAfter(interruptedExport.getLastItem()), pageLoader, shouldPause);
+                return;
+            }
+
+            List<InventoryExportItem> firstPage = pageLoader.loadPageAfter(null);
+            if (CollectionUtils.isEmpty(firstPage)) {
+                postDataLoadingFailure(callback, exportMode == ExportMode.CHANGES || exportMode == ExportMode.DIFF
+                        ? R.string.no_changes_to_export_error : R.string.no_products_error, "");
+                return;
+            }
+
+            Uri uri = createPendingExportFile(getStoredFileName(Utils.getExportFileName(exportMode, format.getExtension()), compress),
+                    compress ? GZIP_MIME_TYPE : format.getMimeType());
+            PendingExport pendingExport = new PendingExport(uri.toString(), exportMode, format, compress, maxSeq, nextGeneration);
+            PrefManager.setPendingExport(pendingExport);
+            exportFile(callback, pendingExport, false, firstPage, pageLoader, shouldPause);
+        } catch (IOException e) {
+            postDataLoadingFailure(callback, R.string.export_data_fail_title, e.getMessage());
+        } catch (Exception e) {
+            postDataLoadingFailure(callback, R.string.database_error_title, e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the next page of the differential export with a sorted merge of the current netted rows and
+     * the previous snapshot generation. Both sides are read in pages in the same key order, so memory
+     * use stays bounded by the page size. The merge never goes past the end of a full page, because
+     * the rows that follow it aren't loaded yet.
+     * Every current row is also stored in the next snapshot generation. Unchanged rows are skipped,
+     * so the next page is loaded until a row differs or both sides are exhausted.
+     *
+     * @param lastItem           Last exported row, or {@code null} for the first page.
+     * @param previousGeneration Snapshot generation to compare with.
+     * @param nextGeneration     Snapshot generation to write.
+     */
+    @NonNull
+    private List<InventoryExportItem> loadDiffPageAfter(@Nullable InventoryExportItem lastItem,
+                                                        long previousGeneration, long nextGeneration) {
+        ExportSnapshotItem afterKey = lastItem == null
+                ? new ExportSnapshotItem(nextGeneration, 0, "", "", "", 0, 0)
+                : ExportSnapshotItem.fromExportItem(nextGeneration, lastItem);
+        List<InventoryExportItem> diff = new ArrayList<>();
+        while (diff.isEmpty()) {
+            List<InventoryExportItem> current = mInventoryItemDao.getNettedExportPage(afterKey.getInventoryListId(),
+                    afterKey.getIdent(), afterKey.getExpDate(), afterKey.getDamageCode(), Utils.EXPORT_PAGE_SIZE);
+            List<ExportSnapshotItem> previous = mInventoryItemDao.getExportSnapshotPage(previousGeneration, afterKey.getInventoryListId(),
+                    afterKey.getIdent(), afterKey.getExpDate(), afterKey.getDamageCode(), Utils.EXPORT_PAGE_SIZE);
+            if (current.isEmpty() && previous.isEmpty()) {
+                break;
+            }
+
+            boolean currentComplete = current.size() < Utils.EXPORT_PAGE_SIZE;
+            boolean previousComplete = previous.size() < Utils.EXPORT_PAGE_SIZE;
+            List<ExportSnapshotItem> snapshotItems = new ArrayList<>();
+            int currentIndex = 0;
+            int previousIndex = 0;
+            while ((currentIndex < current.size() || currentComplete) && (previousIndex < previous.size() || previousComplete)
+                    && (currentIndex < current.size() || previousIndex < previous.size())) {
+                InventoryExportItem currentItem = currentIndex < current.size() ? current.get(currentIndex) : null;
+                ExportSnapshotItem currentKey = currentItem == null ? null : ExportSnapshotItem.fromExportItem(nextGeneration, currentItem);
+                ExportSnapshotItem previousKey = previousIndex < previous.size() ? previous.get(previousIndex) : null;
+
+                int comparison = currentKey == null ? 1 : previousKey == null ? -1 : currentKey.compareKeyTo(previousKey);
+                if (comparison > 0) {
+                    diff.add(createRemovedExportItem(previousKey));
+                    afterKey = previousKey;
+                    previousIndex++;
+                    continue;
                 }
+
+                if (comparison < 0) {
+                    currentItem.setStatus(DIFF_STATUS_ADDED);
+                    diff.add(currentItem);
+                } else {
+                    if (!currentKey.hasSameContent(previousKey)) {
+                        currentItem.setStatus(DIFF_STATUS_CHANGED);
+                        diff.add(currentItem);
+                    }
+                    previousIndex++;
+                }
+                snapshotItems.add(currentKey);
+                afterKey = currentKey;
+                currentIndex++;
+            }
+            mInventoryItemDao.insertExportSnapshotItems(snapshotItems);
+        }
+        return diff;
+    }
+
+    /**
+     * Creates the export row of an aggregate that is in the previous snapshot but not in the current data.
+     */
+    @NonNull
+    private static InventoryExportItem createRemovedExportItem(@NonNull ExportSnapshotItem snapshotItem) {
+        return new InventoryExportItem(PrefManager.getDeviceName(), snapshotItem.getIdent(), 0,
+                snapshotItem.getInventoryListId(), 0, PrefManager.getDeviceStoreCode(), null, DIFF_STATUS_REMOVED,
+                snapshotItem.getExpDate().isEmpty() ? null : snapshotItem.getExpDate(),
+                snapshotItem.getDamageCode().isEmpty() ? null : snapshotItem.getDamageCode(), null, null);
+    }
+
+    /**
+     * Exports every inventory list into its own file and writes a manifest next to them.
+     * <p>
+     * The export runs on the low priority {@link AppExecutors#backgroundIO()} thread under the export lock,
+     * so it never deletes files another export just published. The lists are written concurrently on the
+     * bounded {@link AppExecutors#exportIO()} pool, so neither scans on the disk IO thread nor paging loads
+     * on the local execution pool wait for it, and each list is paged through on its own database connection.
+     * Row counts, quantity totals and SHA-256 checksums are collected from the rows as they are written,
+     * so the manifest always matches the files.
+     * The manifest is written last, and if any list fails, all files of this export are removed again.
+     * The files stay pending until all of them are written and verified, then they are published
+     * together and only afterwards the files they replace are removed.
+     * </p>
+     * <p>
+     * Exporting a single list only replaces the previous export files of that list, so a re-counted
+     * list can be re-sent without touching the files of the other lists. Exporting all lists replaces
+     * the per-list files and manifests only, other export files are kept.
+     * </p>
+     *
+     * @param inventoryListId ID of the list to export, or {@code null} to export all lists.
+     * @param callback        Callback used to notify success or failure of the data export operation.
+     */
+    @Override
+    public void exportInventoryLists(@Nullable Integer inventoryListId, @NonNull IOnDataLoadedCallback callback) {
+        Runnable runnable = () -> {
+            List<InventoryList> inventoryLists;
+            try {
+                inventoryLists = inventoryListId == null
+                        ? mInventoryItemDao.getInventoryListsWithItems()
+                        : mInventoryItemDao.getInventoryListWithItems(inventoryListId);
             } catch (Exception e) {
                 postDataLoadingFailure(callback, R.string.database_error_title, e.getMessage());
+                return;
+            }
+
+            if (CollectionUtils.isEmpty(inventoryLists)) {
+                postDataLoadingFailure(callback, R.string.no_products_error, "");
+                return;
+            }
+
+            Queue<Uri> writtenFiles = new ConcurrentLinkedQueue<>();
+            try {
+                ExportFormat format = PrefManager.getExportFormat();
+                boolean compress = PrefManager.isExportCompressionEnabled();
+                List<CompletableFuture<ExportManifest.Entry>> listExports = new ArrayList<>();
+                for (InventoryList inventoryList : inventoryLists) {
+                    listExports.add(CompletableFuture.supplyAsync(
+                            () -> exportInventoryList(inventoryList, format, compress, writtenFiles), mAppExecutors.exportIO()));
+                }
+                // Wait for every list, also after a failure, so no file is still being written during the cleanup
+                CompletableFuture.allOf(listExports.toArray(new CompletableFuture[0]))
+                        .handle((result, throwable) -> null)
+                        .join();
+
+                List<ExportManifest.Entry> entries = new ArrayList<>();
+                for (CompletableFuture<ExportManifest.Entry> listExport : listExports) {
+                    entries.add(listExport.join());
+                }
+
+                ExportManifest manifest = new ExportManifest(PrefManager.getDeviceStoreCode(), PrefManager.getDeviceName(),
+                        DateHelper.formatDateToString(new Date()), entries);
+                // The manifest stays uncompressed, so the ERP can read it before unpacking the list files
+                writtenFiles.add(writeExportFile(Utils.getExportManifestFileName(inventoryListId), JSON_MIME_TYPE, false,
+                        (out, fileOut) -> writeManifestJson(out, manifest)));
+
+                publishExportFiles(writtenFiles);
+            } catch (IOException | RuntimeException e) {
+                // Files without a manifest can't be verified by the ERP, so don't leave them behind
+                for (Uri uri : writtenFiles) {
+                    deleteExportFile(uri);
+                }
+
+                Throwable cause = e;
+                while ((cause instanceof CompletionException || cause instanceof UncheckedIOException) && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                postDataLoadingFailure(callback, R.string.export_data_fail_title, cause.getMessage());
+                return;
             }
+
+            deleteExportFiles(inventoryListId == null ? Utils.getListExportsFilePrefix() : Utils.getListExportFilePrefix(inventoryListId),
+                    writtenFiles);
+            mAppExecutors.mainThread().execute(callback::onItemsLoaded);
         };
-        mAppExecutors.diskIO().execute(runnable);
+        executeLockedInBackground(runnable, () -> postDataLoadingFailure(callback, R.string.export_data_fail_title,
+                ScannerReaderApplication.getAppContext().getString(R.string.export_busy_error)));
+    }
+
+    /**
+     * Streams all rows of a single list into its own export file and returns its manifest entry.
+     * The checksum is calculated over the formatted content, before it is compressed.
+     */
+    @NonNull
+    private ExportManifest.Entry exportInventoryList(@NonNull InventoryList inventoryList, @NonNull ExportFormat format,
+                                                     boolean compress, @NonNull Queue<Uri> writtenFiles) {
+        int inventoryListId = inventoryList.getId();
+        String fileName = Utils.getListExportFileName(inventoryListId, format.getExtension());
+        ExportManifest.Entry entry = new ExportManifest.Entry(getStoredFileName(fileName, compress), inventoryListId, inventoryList.getName());
+        ExportPageLoader pageLoader = lastItem -> mInventoryItemDao.getInventoryListExportPage(
+                inventoryListId, lastItem == null ? 0 : lastItem.getId(), Utils.EXPORT_PAGE_SIZE);
+
+        try {
+            MessageDigest digest = createSha256Digest();
+            writtenFiles.add(writeExportFile(fileName, format.getMimeType(), compress, (out, fileOut) ->
+                    writeExportRows(format.createSink(new DigestOutputStream(out, digest)), false,
+                            pageLoader.loadPageAfter(null), pageLoader, entry, null)));
+            entry.setSha256(Utils.toHexString(digest.digest()));
+            return entry;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeManifestJson(@NonNull OutputStream out, @NonNull ExportManifest manifest) throws IOException {
+        Gson gson = new GsonBuilder()
+                .excludeFieldsWithoutExposeAnnotation()
+                .setPrettyPrinting()
+                .create();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        gson.toJson(manifest, writer);
+        writer.flush();
+    }
+
+    /**
+     * Passes all export rows to the sink, starting with the already loaded first page and
+     * then loading the following pages until an empty page is returned.
+     *
+     * @param resume     {@code true} if the file already contains rows and the first page follows them.
+     * @param entry      Manifest entry that counts the written rows and quantities, or {@code null}.
+     * @param checkpoint Saved every {@link #CHECKPOINT_INTERVAL_PAGES} pages, or {@code null}.
+     */
+    private void writeExportRows(@NonNull ExportSink sink, boolean resume, @NonNull List<InventoryExportItem> firstPage,
+                                 @NonNull ExportPageLoader pageLoader, @Nullable ExportManifest.Entry entry,
+                                 @Nullable ExportCheckpoint checkpoint) throws IOException {
+        if (resume) {
+            sink.resume();
+        } else {
+            sink.begin();
+        }
+
+        List<InventoryExportItem> page = firstPage;
+        int pageCount = 0;
+        while (!page.isEmpty()) {
+            for (InventoryExportItem inventoryExportItem : page) {
+                sink.write(inventoryExportItem);
+                if (entry != null) {
+                    entry.addRow(inventoryExportItem.getQuantity());
+                }
+            }
+
+            InventoryExportItem lastItem = page.get(page.size() - 1);
+            if (checkpoint != null && ++pageCount % CHECKPOINT_INTERVAL_PAGES == 0) {
+                sink.flush();
+                checkpoint.save(lastItem);
+            }
+            page = pageLoader.loadPageAfter(lastItem);
+        }
+        sink.finish();
     }
 
     /**
@@ -338,44 +1014,561 @@ public class InventoryItemLocalDataSource implements InventoryItemDataSource {
     }
 
     /**
-     * Exports JSON content to a file in the public Downloads/POPIS folder.
-     * Ensures only one file exists in that folder.
+     * Moves finished void pairs from the live inventory table into the history table once there are at
+     * least {@link #COMPACTION_THRESHOLD} of their rows. Executes asynchronously and reports the number of
+     * archived rows on the main thread, {@code 0} if there were too few to archive.
+     * <p>
+     * The voided rows are counted from the status index on the local execution pool, so a check that
+     * finds too few of them neither writes nor waits for scans on the disk IO thread.
+     * </p>
+     *
+     * @param callback Callback to return the result or error.
      */
-    private void exportFile(@NonNull IOnDataLoadedCallback callback, @NonNull String jsonContent) {
-        try {
-            Context context = ScannerReaderApplication.getAppContext();
-            ContentResolver resolver = context.getContentResolver();
+    @Override
+    public void compactVoidedItems(@NonNull IOnItemsCompactedCallback callback) {
+        Runnable compaction = () -> {
+            try {
+                int archivedRows = mInventoryItemDao.compactVoidedItems(System.currentTimeMillis());
+                mAppExecutors.mainThread().execute(() -> callback.onItemsCompacted(archivedRows));
+            } catch (Exception e) {
+                postCompactionFailure(callback, e);
+            }
+        };
+        mAppExecutors.localExecution().execute(() -> {
+            try {
+                if (mInventoryItemDao.getVoidedItemCount() < COMPACTION_THRESHOLD) {
+                    mAppExecutors.mainThread().execute(() -> callback.onItemsCompacted(0));
+                    return;
+                }
+                mAppExecutors.diskIO().execute(compaction);
+            } catch (Exception e) {
+                postCompactionFailure(callback, e);
+            }
+        });
+    }
 
-            final String folderName = "POPIS";
+    private void postCompactionFailure(@NonNull IOnItemsCompactedCallback callback, @NonNull Exception e) {
+        ScannerReaderError error = new ScannerReaderError(ScannerReaderApplication.getAppContext().getString(R.string.database_error_title), e.getMessage());
+        mAppExecutors.mainThread().execute(() -> callback.onFailToCompactItems(error));
+    }
 
-            ContentValues values = new ContentValues();
-            values.put(MediaStore.MediaColumns.DISPLAY_NAME, Utils.getExportFileName());
-            values.put(MediaStore.MediaColumns.MIME_TYPE, "application/json");
-            values.put(MediaStore.MediaColumns.RELATIVE_PATH, Environment.DIRECTORY_DOWNLOADS + "/" + folderName);
+    /**
+     * Loads the totals of an article in every inventory list it was scanned in.
+     * <p>
+     * The totals are aggregated from the covering article index of the scans, off the single disk thread
+     * so the lookup isn't queued behind saves and exports. The result is delivered on the main thread.
+     * </p>
+     *
+     * @param ident    Ident of the article.
+     * @param callback Callback to return the totals per list, or an error.
+     */
+    @Override
+    public void getArticleListTotals(@NonNull String ident, @NonNull ILoadArticleListTotalsCallback callback) {
+        mAppExecutors.localExecution().execute(() -> {
+            try {
+                List<ArticleListTotal> articleListTotals = mInventoryItemDao.getArticleListTotals(ident);
+                mAppExecutors.mainThread().execute(() -> callback.onArticleListTotalsLoaded(ident, articleListTotals));
+            } catch (Exception e) {
+                mAppExecutors.mainThread().execute(() -> callback.onFailure(new ScannerReaderError(
+                        ScannerReaderApplication.getAppContext().getString(R.string.article_list_totals_error))));
+            }
+        });
+    }
 
-            Uri collection = MediaStore.Downloads.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY);
+    /**
+     * Consolidates the export files of several devices into one combined export and per-article totals.
+     * <p>
+     * Every file is stream-parsed and staged in pages of {@link #CONSOLIDATION_BATCH_SIZE} rows, where
+     * the primary key {@code (device_number, inventory_list_id, index_in_list)} identifies a scan. A scan
+     * that is in several files is counted once, with its row from the file imported last, so a scan that
+     * was voided or edited after an earlier export keeps its latest state. The combined export and the totals with the variance against the ERP quantity
+     * are then written page by page from the staging table, so memory use doesn't grow with the
+     * number of rows. Both files are published together and replace the previous consolidation.
+     * </p>
+     * <p>
+     * The consolidation runs on the low priority {@link AppExecutors#backgroundIO()} thread under the export
+     * lock, so scans saved on the disk IO thread don't wait for the files to be parsed and no other export
+     * runs at the same time.
+     * </p>
+     *
+     * @param uris     JSON export files, optionally gzip compressed.
+     * @param callback Callback to return the number of imported and duplicate rows, or an error.
+     */
+    @Override
+    public void consolidateExports(@NonNull List<Uri> uris, @NonNull IOnExportsConsolidatedCallback callback) {
+        Runnable runnable = () -> {
+            Context context = ScannerReaderApplication.getAppContext();
+            int importedRows;
+            int parsedRows = 0;
+            try {
+                mInventoryItemDao.deleteConsolidationItems();
+                Gson gson = new Gson();
+                for (Uri uri : uris) {
+                    parsedRows += importExportFile(uri, gson);
+                }
+                importedRows = mInventoryItemDao.getConsolidationItemCount();
+            } catch (JsonParseException | IllegalStateException e) {
+                postConsolidationFailure(callback, context.getString(R.string.invalid_consolidation_file));
+                return;
+            } catch (Exception e) {
+                postConsolidationFailure(callback, e.getMessage());
+                return;
+            }
 
-            String selection = MediaStore.MediaColumns.RELATIVE_PATH + "=?";
-            String[] selectionArgs = {Environment.DIRECTORY_DOWNLOADS + "/" + folderName + "/"};
-            resolver.delete(collection, selection, selectionArgs);
+            if (importedRows == 0) {
+                postConsolidationFailure(callback, context.getString(R.string.no_products_error));
+                return;
+            }
 
-            Uri uri = resolver.insert(collection, values);
-            if (uri == null) {
-                throw new IOException(context.getString(R.string.export_file_create_failed));
+            List<Uri> writtenFiles = new ArrayList<>();
+            try {
+                ExportFormat format = PrefManager.getExportFormat();
+                ExportPageLoader pageLoader = lastItem -> lastItem == null
+                        ? mInventoryItemDao.getConsolidationExportPage("", 0, 0, Utils.EXPORT_PAGE_SIZE)
+                        : mInventoryItemDao.getConsolidationExportPage(lastItem.getDeviceNumber(), lastItem.getInventoryListId(),
+                        lastItem.getIndexInList(), Utils.EXPORT_PAGE_SIZE);
+                writtenFiles.add(writeExportFile(Utils.getConsolidatedExportFileName(format.getExtension()), format.getMimeType(),
+                        PrefManager.isExportCompressionEnabled(), (out, fileOut) ->
+                                writeExportRows(format.createSink(out), false, pageLoader.loadPageAfter(null), pageLoader, null, null)));
+                writtenFiles.add(writeExportFile(Utils.getConsolidatedTotalsFileName(), JSON_MIME_TYPE, false,
+                        (out, fileOut) -> writeConsolidatedTotals(out)));
+                publishExportFiles(writtenFiles);
+            } catch (IOException | RuntimeException e) {
+                for (Uri uri : writtenFiles) {
+                    deleteExportFile(uri);
+                }
+                postConsolidationFailure(callback, e.getMessage());
+                return;
             }
 
-            try (OutputStream out = resolver.openOutputStream(uri)) {
-                if (out == null) {
-                    throw new IOException(context.getString(R.string.export_file_open_failed));
+            deleteExportFiles(Utils.getConsolidatedExportFilePrefix(), writtenFiles);
+            mInventoryItemDao.deleteConsolidationItems();
+            int duplicateRows = parsedRows - importedRows;
+            mAppExecutors.mainThread().execute(() -> callback.onExportsConsolidated(importedRows, duplicateRows));
+        };
+        executeLockedInBackground(runnable, () -> postConsolidationFailure(callback,
+                ScannerReaderApplication.getAppContext().getString(R.string.export_busy_error)));
+    }
+
+    /**
+     * Stream-parses one export file into the staging table. Gzip compressed files are recognized by their header.
+     *
+     * @return The number of rows in the file, including rows that were already staged.
+     */
+    private int importExportFile(@NonNull Uri uri, @NonNull Gson gson) throws IOException {
+        Context context = ScannerReaderApplication.getAppContext();
+        String deviceStoreCode = PrefManager.getDeviceStoreCode();
+        // The content stream is a resource of its own, so it is closed also when unpacking it fails
+        try (InputStream in = openConsolidationFile(uri);
+             JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(openDecompressed(in), StandardCharsets.UTF_8)))) {
+            List<ConsolidationItem> batch = new ArrayList<>(CONSOLIDATION_BATCH_SIZE);
+            int rows = 0;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                InventoryExportItem item = gson.fromJson(reader, InventoryExportItem.class);
+                if (item == null || TextUtils.isEmpty(item.getDeviceNumber())) {
+                    throw new JsonParseException("Export row without device number");
+                }
+                if (!deviceStoreCode.isEmpty() && !deviceStoreCode.equals(item.getStoreCode())) {
+                    throw new IOException(context.getString(R.string.consolidation_store_code_mismatch, deviceStoreCode, item.getStoreCode()));
+                }
+
+                batch.add(ConsolidationItem.fromExportItem(item));
+                rows++;
+                if (batch.size() == CONSOLIDATION_BATCH_SIZE) {
+                    mInventoryItemDao.insertConsolidationItems(batch);
+                    batch.clear();
                 }
-                out.write(jsonContent.getBytes(StandardCharsets.UTF_8));
             }
+            reader.endArray();
 
-            mAppExecutors.mainThread().execute(callback::onItemsLoaded);
+            if (!batch.isEmpty()) {
+                mInventoryItemDao.insertConsolidationItems(batch);
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Opens the content of a file picked for consolidation.
+     */
+    @NonNull
+    private static InputStream openConsolidationFile(@NonNull Uri uri) throws IOException {
+        Context context = ScannerReaderApplication.getAppContext();
+        InputStream in = context.getContentResolver().openInputStream(uri);
+        if (in == null) {
+            throw new IOException(context.getString(R.string.invalid_consolidation_file));
+        }
+        return in;
+    }
+
+    /**
+     * Returns a stream of the uncompressed content, unpacking it if it starts with the gzip header.
+     */
+    @NonNull
+    private static InputStream openDecompressed(@NonNull InputStream in) throws IOException {
+        BufferedInputStream bufferedIn = new BufferedInputStream(in, READ_BUFFER_SIZE);
+        bufferedIn.mark(2);
+        int firstByte = bufferedIn.read();
+        int secondByte = bufferedIn.read();
+        bufferedIn.reset();
+
+        boolean compressed = firstByte == (GZIPInputStream.GZIP_MAGIC & 0xff) && secondByte == (GZIPInputStream.GZIP_MAGIC >> 8);
+        return compressed ? new GZIPInputStream(bufferedIn, GZIP_BUFFER_SIZE) : bufferedIn;
+    }
+
+    /**
+     * Writes the consolidated per-article totals of the staged rows as a JSON array, page by page.
+     */
+    private void writeConsolidatedTotals(@NonNull OutputStream out) throws IOException {
+        Gson gson = new GsonBuilder()
+                .excludeFieldsWithoutExposeAnnotation()
+                .create();
 
+        JsonWriter jsonWriter = gson.newJsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        jsonWriter.beginArray();
+        List<ConsolidatedTotal> page = mInventoryItemDao.getConsolidatedTotalsPage("", Utils.EXPORT_PAGE_SIZE);
+        while (!page.isEmpty()) {
+            for (ConsolidatedTotal total : page) {
+                gson.toJson(total, ConsolidatedTotal.class, jsonWriter);
+            }
+            page = mInventoryItemDao.getConsolidatedTotalsPage(page.get(page.size() - 1).getIdent(), Utils.EXPORT_PAGE_SIZE);
+        }
+        jsonWriter.endArray();
+        jsonWriter.flush();
+    }
+
+    private void postConsolidationFailure(@NonNull IOnExportsConsolidatedCallback callback, String description) {
+        mAppExecutors.mainThread().execute(() -> callback.onFailToConsolidateExports(
+                new ScannerReaderError(ScannerReaderApplication.getAppContext().getString(R.string.consolidation_fail_title), description)));
+    }
+
+    /**
+     * Writes the export into its pending file in the public Downloads/POPIS folder, publishes it
+     * once it is verified and only then removes the previous export files of the same kind, so there
+     * is always a complete export in the folder. Change and difference files are never removed, because
+     * the watermark or snapshot already moved past their rows and the next export won't contain them again.
+     * <p>
+     * An uncompressed export syncs the file and saves a checkpoint every {@link #CHECKPOINT_INTERVAL_PAGES}
+     * pages. If writing fails, the pending file is kept and the next export of the same kind continues
+     * from the last checkpoint.
+     * </p>
+     *
+     * @param pendingExport State of the export, saved in preferences together with its pending file.
+     * @param resume        {@code true} to continue the file after the last checkpoint.
+     * @param firstPage     Rows to write first, following the last checkpoint when resuming.
+     * @param shouldPause   Checked after every checkpoint of a background export, or {@code null}.
+     */
+    private void exportFile(@NonNull IOnDataLoadedCallback callback, @NonNull PendingExport pendingExport, boolean resume,
+                            @NonNull List<InventoryExportItem> firstPage, @NonNull ExportPageLoader pageLoader,
+                            @Nullable BooleanSupplier shouldPause) {
+        Uri uri = Uri.parse(pendingExport.getUri());
+        long resumedByteCount = resume ? pendingExport.getByteCount() : 0;
+        ExportFileOutputStream writtenFile;
+        try {
+            writtenFile = writePendingExportFile(uri, resume ? pendingExport.getByteCount() : 0, pendingExport.isCompressed(), (out, fileOut) -> {
+                ExportCheckpoint checkpoint = fileOut == null ? null : lastItem -> {
+                    fileOut.sync();
+                    pendingExport.setCheckpoint(fileOut.getByteCount(), lastItem);
+                    PrefManager.setPendingExport(pendingExport);
+                    if (shouldPause != null && shouldPause.getAsBoolean()) {
+                        throw new ExportPausedException();
+                    }
+                };
+                writeExportRows(pendingExport.getFormat().createSink(out), resume, firstPage, pageLoader, null, checkpoint);
+            });
+        } catch (ExportPausedException e) {
+            // Only background exports have a pause condition
+            mAppExecutors.mainThread().execute(((IOnBackgroundExportCallback) callback)::onExportPaused);
+            return;
+        } catch (IOException | RuntimeException e) {
+            if (resume && pendingExport.getByteCount() == resumedByteCount) {
+                // Resuming made no progress, so start over next time instead of failing the same way again
+                discardPendingExport(pendingExport);
+            }
+            postDataLoadingFailure(callback, R.string.export_data_fail_title, e.getMessage());
+            return;
+        }
+
+        try {
+            verifyExportFile(uri, writtenFile);
+            publishExportFiles(Collections.singletonList(uri));
         } catch (IOException e) {
+            discardPendingExport(pendingExport);
             postDataLoadingFailure(callback, R.string.export_data_fail_title, e.getMessage());
+            return;
+        }
+
+        completeExport(pendingExport);
+        deletePreviousExportFiles(pendingExport.getExportMode(), uri);
+        mAppExecutors.mainThread().execute(callback::onItemsLoaded);
+    }
+
+    /**
+     * Records a published export: the change sequence of a full or incremental export becomes the
+     * watermark and the snapshot it wrote becomes the one the next differential export compares with.
+     * Netted and differential exports don't contain the changed rows themselves, so they leave the
+     * watermark alone and the next incremental export still writes every change since the last one.
+     */
+    private void completeExport(@NonNull PendingExport pendingExport) {
+        ExportMode exportMode = pendingExport.getExportMode();
+        if (exportMode == ExportMode.FULL || exportMode == ExportMode.CHANGES) {
+            PrefManager.setLastExportChangeSeq(pendingExport.getMaxChangeSeq());
+        }
+        long snapshotGeneration = pendingExport.getSnapshotGeneration();
+        if (snapshotGeneration > 0) {
+            PrefManager.setExportSnapshotGeneration(snapshotGeneration);
+            mInventoryItemDao.deleteExportSnapshotsExcept(snapshotGeneration);
+        }
+        PrefManager.setPendingExport(null);
+    }
+
+    /**
+     * Cleans up after an export that can't be continued. A file that is still pending is deleted.
+     * A file that was already published only missed the bookkeeping that follows, so it is completed.
+     */
+    private void discardPendingExport(@NonNull PendingExport pendingExport) {
+        Uri uri = Uri.parse(pendingExport.getUri());
+        Boolean pending = isPendingExportFile(uri);
+        if (Boolean.TRUE.equals(pending)) {
+            deleteExportFile(uri);
+        } else if (Boolean.FALSE.equals(pending)) {
+            completeExport(pendingExport);
+            deletePreviousExportFiles(pendingExport.getExportMode(), uri);
+        }
+        PrefManager.setPendingExport(null);
+    }
+
+    /**
+     * Deletes the files of the previous export of the same kind, unless the kind only contains what changed
+     * since its previous export, see {@link ExportMode#replacesPreviousExport()}.
+     *
+     * @param uri File of the current export, which is never deleted.
+     */
+    private void deletePreviousExportFiles(@NonNull ExportMode exportMode, @NonNull Uri uri) {
+        if (exportMode.replacesPreviousExport()) {
+            deleteExportFiles(Utils.getExportFilePrefix(exportMode), Collections.singletonList(uri));
+        }
+    }
+
+    /**
+     * Deletes previous export files from the public Downloads/POPIS folder.
+     *
+     * @param fileNamePrefix Only files whose name starts with this prefix are deleted.
+     * @param keptFiles      Files of the current export, which are never deleted.
+     */
+    private void deleteExportFiles(@NonNull String fileNamePrefix, @NonNull Collection<Uri> keptFiles) {
+        ContentResolver resolver = ScannerReaderApplication.getAppContext().getContentResolver();
+
+        String escapedPrefix = fileNamePrefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        StringBuilder selection = new StringBuilder(MediaStore.MediaColumns.RELATIVE_PATH + "=? AND "
+                + MediaStore.MediaColumns.DISPLAY_NAME + " LIKE ? ESCAPE '\\'");
+        List<String> selectionArgs = new ArrayList<>();
+        selectionArgs.add(EXPORT_RELATIVE_PATH + "/");
+        selectionArgs.add(escapedPrefix + "%");
+        for (Uri keptFile : keptFiles) {
+            selection.append(" AND " + MediaStore.MediaColumns._ID + "!=?");
+            selectionArgs.add(String.valueOf(ContentUris.parseId(keptFile)));
         }
+        resolver.delete(MediaStore.Downloads.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY),
+                selection.toString(), selectionArgs.toArray(new String[0]));
+    }
+
+    /**
+     * Deletes a single export file, also while it is still pending.
+     */
+    private void deleteExportFile(@NonNull Uri uri) {
+        ContentResolver resolver = ScannerReaderApplication.getAppContext().getContentResolver();
+        Bundle queryArgs = new Bundle();
+        queryArgs.putInt(MediaStore.QUERY_ARG_MATCH_PENDING, MediaStore.MATCH_INCLUDE);
+        resolver.delete(uri, queryArgs);
+    }
+
+    /**
+     * @return {@code true} if the file is pending, {@code false} if it is published and
+     * {@code null} if it doesn't exist anymore, e.g. because the pending file expired.
+     */
+    @Nullable
+    private Boolean isPendingExportFile(@NonNull Uri uri) {
+        ContentResolver resolver = ScannerReaderApplication.getAppContext().getContentResolver();
+        Bundle queryArgs = new Bundle();
+        queryArgs.putInt(MediaStore.QUERY_ARG_MATCH_PENDING, MediaStore.MATCH_INCLUDE);
+        try (Cursor cursor = resolver.query(uri, new String[]{MediaStore.MediaColumns.IS_PENDING}, queryArgs, null)) {
+            if (cursor == null || !cursor.moveToFirst()) {
+                return null;
+            }
+            return cursor.getInt(0) == 1;
+        }
+    }
+
+    /**
+     * Creates a new file in the public Downloads/POPIS folder and streams its content into it.
+     * <p>
+     * The file stays pending, so it is invisible to other apps until it is published with
+     * {@link #publishExportFiles(Collection)}. It is verified after writing and deleted again
+     * if writing or verification fails.
+     * </p>
+     *
+     * @param fileName      Display name of the uncompressed file.
+     * @param mimeType      MIME type of the uncompressed content.
+     * @param compress      {@code true} to write the content gzip compressed.
+     * @param contentWriter Writes the content into the output stream of the new file.
+     * @return The URI of the written file.
+     */
+    @NonNull
+    private Uri writeExportFile(@NonNull String fileName, @NonNull String mimeType, boolean compress,
+                                @NonNull ExportContentWriter contentWriter) throws IOException {
+        Uri uri = createPendingExportFile(getStoredFileName(fileName, compress), compress ? GZIP_MIME_TYPE : mimeType);
+        try {
+            verifyExportFile(uri, writePendingExportFile(uri, 0, compress, contentWriter));
+        } catch (IOException | RuntimeException e) {
+            // The content is streamed, so don't leave a partially written file behind
+            deleteExportFile(uri);
+            throw e;
+        }
+        return uri;
+    }
+
+    /**
+     * Inserts a new pending file into the public Downloads/POPIS folder.
+     *
+     * @param displayName Name of the file as it is stored.
+     */
+    @NonNull
+    private Uri createPendingExportFile(@NonNull String displayName, @NonNull String mimeType) throws IOException {
+        Context context = ScannerReaderApplication.getAppContext();
+
+        ContentValues values = new ContentValues();
+        values.put(MediaStore.MediaColumns.DISPLAY_NAME, displayName);
+        values.put(MediaStore.MediaColumns.MIME_TYPE, mimeType);
+        values.put(MediaStore.MediaColumns.RELATIVE_PATH, EXPORT_RELATIVE_PATH);
+        values.put(MediaStore.MediaColumns.IS_PENDING, 1);
+
+        Uri uri = context.getContentResolver().insert(MediaStore.Downloads.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY), values);
+        if (uri == null) {
+            throw new IOException(context.getString(R.string.export_file_create_failed));
+        }
+        return uri;
+    }
+
+    /**
+     * Streams content into a pending file, replacing everything after the first {@code offset} bytes.
+     * <p>
+     * A compressed file gets the content gzip compressed while it is written, so the uncompressed
+     * content never exists as a whole. Only an uncompressed file gets its stream passed to the
+     * content writer, so it can be synced for a checkpoint.
+     * </p>
+     *
+     * @param offset Number of already written bytes to keep, {@code 0} to write the file from the start.
+     * @return The closed stream, which holds the size and checksum of the whole file.
+     */
+    @NonNull
+    private ExportFileOutputStream writePendingExportFile(@NonNull Uri uri, long offset, boolean compress,
+                                                          @NonNull ExportContentWriter contentWriter) throws IOException {
+        Context context = ScannerReaderApplication.getAppContext();
+        // The checksum covers the whole file, so the kept bytes are read into it first
+        MessageDigest digest = createSha256Digest();
+        if (readExportFile(uri, offset, digest) < offset) {
+            throw new IOException(context.getString(R.string.export_file_verification_failed));
+        }
+
+        ParcelFileDescriptor fileDescriptor = context.getContentResolver().openFileDescriptor(uri, "rw");
+        if (fileDescriptor == null) {
+            throw new IOException(context.getString(R.string.export_file_open_failed));
+        }
+
+        ExportFileOutputStream fileOut;
+        try (FileOutputStream out = new ParcelFileDescriptor.AutoCloseOutputStream(fileDescriptor)) {
+            FileChannel channel = out.getChannel();
+            channel.truncate(offset);
+            channel.position(offset);
+
+            fileOut = new ExportFileOutputStream(out, digest, offset);
+            if (compress) {
+                // Closing the gzip stream frees its native deflater, also when writing fails. It closes the
+                // file stream as well, which the outer block then closes again without effect.
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(fileOut, GZIP_BUFFER_SIZE)) {
+                    contentWriter.writeTo(gzipOut, null);
+                    gzipOut.finish();
+                    fileOut.sync();
+                }
+            } else {
+                contentWriter.writeTo(fileOut, fileOut);
+                fileOut.sync();
+            }
+        }
+        return fileOut;
+    }
+
+    /**
+     * Reads a written file back and checks that its size and SHA-256 match the bytes that were written into it.
+     */
+    private void verifyExportFile(@NonNull Uri uri, @NonNull ExportFileOutputStream writtenFile) throws IOException {
+        MessageDigest digest = createSha256Digest();
+        long size = readExportFile(uri, Long.MAX_VALUE, digest);
+        if (size != writtenFile.getByteCount() || !MessageDigest.isEqual(digest.digest(), writtenFile.getDigest())) {
+            throw new IOException(ScannerReaderApplication.getAppContext().getString(R.string.export_file_verification_failed));
+        }
+    }
+
+    /**
+     * Reads at most {@code limit} bytes from the start of an export file into the digest.
+     *
+     * @return The number of read bytes.
+     */
+    private long readExportFile(@NonNull Uri uri, long limit, @NonNull MessageDigest digest) throws IOException {
+        if (limit == 0) {
+            return 0;
+        }
+
+        Context context = ScannerReaderApplication.getAppContext();
+        try (InputStream in = context.getContentResolver().openInputStream(uri)) {
+            if (in == null) {
+                throw new IOException(context.getString(R.string.export_file_open_failed));
+            }
+
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            long total = 0;
+            int read;
+            while (total < limit && (read = in.read(buffer, 0, (int) Math.min(buffer.length, limit - total))) != -1) {
+                digest.update(buffer, 0, read);
+                total += read;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Makes the pending files visible in the Downloads folder. MediaStore applies the batch in a
+     * single transaction, so the files of one export appear together.
+     */
+    private void publishExportFiles(@NonNull Collection<Uri> uris) throws IOException {
+        ArrayList<ContentProviderOperation> operations = new ArrayList<>();
+        for (Uri uri : uris) {
+            operations.add(ContentProviderOperation.newUpdate(uri)
+                    .withValue(MediaStore.MediaColumns.IS_PENDING, 0)
+                    .build());
+        }
+
+        try {
+            ScannerReaderApplication.getAppContext().getContentResolver().applyBatch(MediaStore.AUTHORITY, operations);
+        } catch (OperationApplicationException | RemoteException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @NonNull
+    private static MessageDigest createSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @NonNull
+    private static String getStoredFileName(@NonNull String fileName, boolean compress) {
+        return compress ? fileName + GZIP_EXTENSION : fileName;
     }
 
 
@@ -399,4 +1592,31 @@ public class InventoryItemLocalDataSource implements InventoryItemDataSource {
                 )
         ));
     }
-}
\ No newline at end of file
+
+    /**
+     * Loads the export page following the given row, or the first page when it is {@code null}.
+     */
+    private interface ExportPageLoader {
+        @NonNull
+        List<InventoryExportItem> loadPageAfter(@Nullable InventoryExportItem lastItem);
+    }
+
+    /**
+     * Writes the content of an export file into the stream opened for it.
+     */
+    private interface ExportContentWriter {
+        /**
+         * @param out     Stream to write the content into.
+         * @param fileOut The same stream as {@code out} when the content is written uncompressed and can
+         *                be synced for a checkpoint, otherwise {@code null}.
+         */
+        void writeTo(@NonNull OutputStream out, @Nullable ExportFileOutputStream fileOut) throws IOException;
+    }
+
+    /**
+     * Saves a point to resume the export from, right after the given row.
+     */
+    private interface ExportCheckpoint {
+        void save(@NonNull InventoryExportItem lastItem) throws IOException;
+    }
+}
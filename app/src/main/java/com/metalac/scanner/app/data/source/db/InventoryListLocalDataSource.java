@@ -125,8 +125,8 @@ public class InventoryListLocalDataSource implements InventoryListDataSource {
     /**
      * Updates the selected state of inventory list items asynchronously.
      * <p>
-     * It first clears the current selected list (if any), then sets the provided
-     * {@link InventoryList} as selected. Calls back on success or failure on the main thread.
+     * It clears the current selected list (if any) and sets the provided {@link InventoryList} as selected
+     * in one transaction, writing only the selection. Calls back on success or failure on the main thread.
      * </p>
      *
      * @param inventoryList The inventory list item to set as selected.
@@ -142,22 +142,11 @@ public class InventoryListLocalDataSource implements InventoryListDataSource {
             );
 
             try {
-                InventoryList currentList = mInventoryListDao.getCurrentList();
-
-                if (currentList != null) {
-                    currentList.setSelected(0);
-                    int rowsUpdated = mInventoryListDao.updateInventoryList(currentList);
-                    if (rowsUpdated == 0) {
-                        postFailure(callback, error);
-                        return;
-                    }
-                }
-
-                inventoryList.setSelected(1);
-                int rowsUpdated = mInventoryListDao.updateInventoryList(inventoryList);
+                int rowsUpdated = mInventoryListDao.selectInventoryList(inventoryList.getId());
                 if (rowsUpdated == 0) {
                     postFailure(callback, error);
                 } else {
+                    inventoryList.setSelected(1);
                     mAppExecutors.mainThread().execute(callback::onInventoryListUpdated);
                 }
 
@@ -197,6 +186,31 @@ public class InventoryListLocalDataSource implements InventoryListDataSource {
         mAppExecutors.diskIO().execute(runnable);
     }
 
+    /**
+     * Deletes a single inventory list asynchronously.
+     * <p>
+     * The items of the list should be deleted first with
+     * {@link InventoryItemLocalDataSource#deleteInventoryListItems}, otherwise they are removed
+     * by the cascading foreign key in one large transaction.
+     * </p>
+     *
+     * @param inventoryListId The ID of the list to delete.
+     * @param callback        Callback to notify the result of the deletion operation.
+     */
+    @Override
+    public void deleteInventoryList(int inventoryListId, @NonNull IOnInventoryListDataDeletedCallback callback) {
+        Runnable runnable = () -> {
+            try {
+                mInventoryListDao.deleteInventoryList(inventoryListId);
+                mAppExecutors.mainThread().execute(callback::onInventoryListDataDeleted);
+            } catch (Exception e) {
+                mAppExecutors.mainThread().execute(() ->
+                        callback.onDeleteInventoryListDataFailed(new ScannerReaderError(ScannerReaderApplication.getAppContext().getString(R.string.delete_data_fail_title), e.getMessage())));
+            }
+        };
+        mAppExecutors.diskIO().execute(runnable);
+    }
+
     @Override
     public void checkIfAnyInventoryListExists(@NonNull ICheckInventoryListExistsCallback callback) {
         Runnable runnable = () -> {
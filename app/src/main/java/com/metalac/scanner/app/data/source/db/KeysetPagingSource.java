@@ -0,0 +1,101 @@
+package com.metalac.scanner.app.data.source.db;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.PagingState;
+import androidx.room.InvalidationTracker;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link androidx.paging.PagingSource} that seeks each page from the last row of the previous one
+ * instead of skipping rows with {@code OFFSET}.
+ * <p>
+ * The key of a page is the boundary row itself, so a page is one index range scan of {@code loadSize} rows
+ * wherever it is in the list. Subclasses run the seek queries, which must use the same unique order.
+ * </p>
+ *
+ * @param <V> Type of the loaded rows, which are also the keys of the pages.
+ */
+abstract class KeysetPagingSource<V> extends DatabasePagingSource<V, V> {
+
+    KeysetPagingSource(@NonNull Executor executor, @NonNull InvalidationTracker invalidationTracker,
+                       @NonNull String table, @NonNull String... otherTables) {
+        super(executor, invalidationTracker, table, otherTables);
+    }
+
+    /**
+     * Loads up to {@code limit} rows starting with {@code item}, or from the start of the list when it is null.
+     */
+    @NonNull
+    abstract List<V> loadFrom(@Nullable V item, int limit);
+
+    /**
+     * Loads up to {@code limit} rows following {@code item}.
+     */
+    @NonNull
+    abstract List<V> loadAfter(@NonNull V item, int limit);
+
+    /**
+     * Loads up to {@code limit} rows preceding {@code item}, nearest first.
+     */
+    @NonNull
+    abstract List<V> loadBefore(@NonNull V item, int limit);
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<V, V>> loadFuture(@NonNull LoadParams<V> params) {
+        return submit(() -> load(params));
+    }
+
+    @NonNull
+    private LoadResult<V, V> load(@NonNull LoadParams<V> params) {
+        int loadSize = params.getLoadSize();
+        V key = params.getKey();
+        List<V> items;
+        V prevKey;
+        V nextKey;
+        if (params instanceof LoadParams.Prepend && key != null) {
+            items = new ArrayList<>(loadBefore(key, loadSize));
+            Collections.reverse(items);
+            prevKey = items.size() < loadSize ? null : items.get(0);
+            nextKey = key;
+        } else if (params instanceof LoadParams.Append && key != null) {
+            items = loadAfter(key, loadSize);
+            prevKey = key;
+            nextKey = items.size() < loadSize ? null : items.get(items.size() - 1);
+        } else {
+            items = loadFrom(key, loadSize);
+            if (items.isEmpty() && key != null) {
+                // Every row from the refresh key on was removed, start again from the top
+                key = null;
+                items = loadFrom(null, loadSize);
+            }
+            prevKey = key == null || items.isEmpty() ? null : items.get(0);
+            nextKey = items.size() < loadSize ? null : items.get(items.size() - 1);
+        }
+
+        if (getInvalid()) {
+            return new LoadResult.Invalid<>();
+        }
+        return new LoadResult.Page<>(items, prevKey, nextKey);
+    }
+
+    /**
+     * Refreshes from the row half an initial load before the anchor, so the visible rows stay loaded.
+     */
+    @Nullable
+    @Override
+    public V getRefreshKey(@NonNull PagingState<V, V> state) {
+        Integer anchorPosition = state.getAnchorPosition();
+        if (anchorPosition == null) {
+            return null;
+        }
+        return state.closestItemToPosition(Math.max(0, anchorPosition - state.getConfig().initialLoadSize / 2));
+    }
+}
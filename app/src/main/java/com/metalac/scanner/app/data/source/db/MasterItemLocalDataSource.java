@@ -21,6 +21,7 @@ import com.metalac.scanner.app.models.DamageInfo;
 import com.metalac.scanner.app.models.MasterItem;
 import com.metalac.scanner.app.models.ProductsInfoModel;
 import com.metalac.scanner.app.models.QueryMasterItem;
+import com.metalac.scanner.app.models.SearchFacets;
 import com.metalac.scanner.app.data.source.db.dao.MasterItemDao;
 import com.metalac.scanner.app.view.ScannerReaderError;
 import com.metalac.scanner.app.view.inventory.interfaces.ILoadDamageDescriptionCallback;
@@ -46,10 +47,15 @@ public class MasterItemLocalDataSource implements MasterItemDataSource {
 
     private final MasterItemDao mMasterItemDao;
     private final AppExecutors mAppExecutors;
+    private final ScannerDatabase mDatabase;
+    private volatile CodePrefixIndex mIdentIndex;
+    private volatile CodePrefixIndex mAltCodeIndex;
 
-    private MasterItemLocalDataSource(@NonNull AppExecutors appExecutors, @NonNull MasterItemDao masterItemDao) {
+    private MasterItemLocalDataSource(@NonNull AppExecutors appExecutors, @NonNull MasterItemDao masterItemDao,
+                                      @NonNull ScannerDatabase database) {
         this.mAppExecutors = appExecutors;
         this.mMasterItemDao = masterItemDao;
+        this.mDatabase = database;
     }
 
     /**
@@ -57,13 +63,15 @@ public class MasterItemLocalDataSource implements MasterItemDataSource {
      *
      * @param appExecutors  Executor utility
      * @param masterItemDao DAO for {@link MasterItem}
+     * @param database      Database the paged master data is loaded from
      * @return Singleton instance
      */
-    public static MasterItemLocalDataSource getInstance(@NonNull AppExecutors appExecutors, @NonNull MasterItemDao masterItemDao) {
+    public static MasterItemLocalDataSource getInstance(@NonNull AppExecutors appExecutors, @NonNull MasterItemDao masterItemDao,
+                                                        @NonNull ScannerDatabase database) {
         if (INSTANCE == null) {
             synchronized (MasterItemLocalDataSource.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = new MasterItemLocalDataSource(appExecutors, masterItemDao);
+                    INSTANCE = new MasterItemLocalDataSource(appExecutors, masterItemDao, database);
                 }
             }
         }
@@ -129,7 +137,8 @@ public class MasterItemLocalDataSource implements MasterItemDataSource {
 
                 // Insert or upsert new data
                 mMasterItemDao.upsertDamageInfo(damageInfo);
-                mMasterItemDao.upsertAll(model.getMasterItems());
+                mMasterItemDao.importMasterItems(model.getMasterItems());
+                buildCodeIndexes();
 
                 PrefManager.setHasMasterData(true);
 
@@ -345,17 +354,56 @@ public class MasterItemLocalDataSource implements MasterItemDataSource {
         return fileName.matches("^MAT\\d{9}.*\\.json$");
     }
 
-    public PagingSource<Integer, MasterItem> getMasterData(QueryMasterItem queryMasterItem) {
-        if (queryMasterItem.isNoFilterApplied()) {
-            return mMasterItemDao.getAllPaged();
-        } else {
-            return mMasterItemDao.getFilteredItems(queryMasterItem.getIdent(),
-                    queryMasterItem.getBarcode(), queryMasterItem.getAltCode1(),
-                    queryMasterItem.getAltCode2(), queryMasterItem.getSalesProgram(),
-                    queryMasterItem.getPurchaseProgram(), queryMasterItem.getUnitOfMeasure(),
-                    queryMasterItem.getName(), queryMasterItem.getActive(), queryMasterItem.getAccounting(),
-                    queryMasterItem.getPrice(), queryMasterItem.getFilterText());
-        }
+    /**
+     * Returns the whole master data ordered by ident, paged from the last loaded item (see {@link KeysetPagingSource}).
+     */
+    public PagingSource<MasterItem, MasterItem> getAllMasterData() {
+        return new KeysetPagingSource<MasterItem>(mAppExecutors.localExecution(), mDatabase.getInvalidationTracker(), "master_items") {
+            @NonNull
+            @Override
+            List<MasterItem> loadFrom(@Nullable MasterItem item, int limit) {
+                return mMasterItemDao.getItemsPageFrom(item == null ? "" : item.getIdent(), limit);
+            }
+
+            @NonNull
+            @Override
+            List<MasterItem> loadAfter(@NonNull MasterItem item, int limit) {
+                return mMasterItemDao.getItemsPageAfter(item.getIdent(), limit);
+            }
+
+            @NonNull
+            @Override
+            List<MasterItem> loadBefore(@NonNull MasterItem item, int limit) {
+                return mMasterItemDao.getItemsPageBefore(item.getIdent(), limit);
+            }
+        };
+    }
+
+    /**
+     * Returns the master items matching the filters of {@code queryMasterItem}. A running search query is
+     * interrupted when its load is cancelled, see {@link SearchPagingSource}.
+     */
+    public SearchPagingSource<String, MasterItem> getFilteredMasterData(@NonNull QueryMasterItem queryMasterItem) {
+        return new SearchPagingSource<String, MasterItem>(mAppExecutors.localExecution(), mDatabase,
+                SearchQueryBuilder.masterItemKeys(queryMasterItem), "master_items") {
+            @NonNull
+            @Override
+            String readKey(@NonNull Cursor cursor) {
+                return cursor.getString(0);
+            }
+
+            @NonNull
+            @Override
+            List<MasterItem> loadRows(@NonNull List<String> keys) {
+                return mMasterItemDao.getItemsByIdents(keys);
+            }
+
+            @NonNull
+            @Override
+            String getKey(@NonNull MasterItem row) {
+                return row.getIdent();
+            }
+        };
     }
 
     /**
@@ -383,6 +431,81 @@ public class MasterItemLocalDataSource implements MasterItemDataSource {
         mAppExecutors.diskIO().execute(runnable);
     }
 
+    /**
+     * Counts the articles per value of the facet filters of the search form for the given query.
+     * <p>
+     * Queries with only facet filters are summed from the facet summary of the catalog, others count
+     * the articles matching their other filters. The counts are returned on the main thread.
+     * </p>
+     *
+     * @param queryMasterItem Current filters of the search form.
+     * @param callback        the {@link ILoadSearchFacetsCallback} to receive the counts.
+     */
+    @Override
+    public void getSearchFacets(@NonNull QueryMasterItem queryMasterItem, @NonNull ILoadSearchFacetsCallback callback) {
+        mAppExecutors.localExecution().execute(() -> {
+            try {
+                SearchFacets searchFacets = SearchFacets.fromFacets(
+                        mMasterItemDao.getFacets(SearchQueryBuilder.facetCounts(queryMasterItem)), queryMasterItem);
+                mAppExecutors.mainThread().execute(() -> callback.onSearchFacetsLoaded(searchFacets));
+            } catch (Exception e) {
+                mAppExecutors.mainThread().execute(() -> callback.onFailed(new ScannerReaderError(e.getMessage())));
+            }
+        });
+    }
+
+    /**
+     * Returns the idents starting with the typed prefix, for type-ahead suggestions.
+     * <p>
+     * The idents are looked up in a sorted in-memory index built when the catalog is imported, or on the
+     * first lookup after the app starts. The suggestions are returned on the main thread with their prefix.
+     * </p>
+     *
+     * @param prefix   Typed part of the ident.
+     * @param callback the {@link ILoadCodeSuggestionsCallback} to receive the suggestions.
+     */
+    @Override
+    public void getIdentSuggestions(@NonNull String prefix, @NonNull ILoadCodeSuggestionsCallback callback) {
+        loadCodeSuggestions(prefix, () -> mIdentIndex, callback);
+    }
+
+    /**
+     * Returns the alternative codes 1 and 2 starting with the typed prefix, for type-ahead suggestions.
+     *
+     * @param prefix   Typed part of the alternative code.
+     * @param callback the {@link ILoadCodeSuggestionsCallback} to receive the suggestions.
+     * @see #getIdentSuggestions(String, ILoadCodeSuggestionsCallback)
+     */
+    @Override
+    public void getAltIdSuggestions(@NonNull String prefix, @NonNull ILoadCodeSuggestionsCallback callback) {
+        loadCodeSuggestions(prefix, () -> mAltCodeIndex, callback);
+    }
+
+    private void loadCodeSuggestions(@NonNull String prefix, @NonNull Supplier<CodePrefixIndex> index,
+                                     @NonNull ILoadCodeSuggestionsCallback callback) {
+        mAppExecutors.localExecution().execute(() -> {
+            List<String> codes;
+            try {
+                if (index.get() == null) {
+                    buildCodeIndexes();
+                }
+                codes = index.get().findByPrefix(prefix, Utils.CODE_SUGGESTIONS_LIMIT);
+            } catch (Exception e) {
+                codes = new ArrayList<>();
+            }
+            List<String> suggestions = codes;
+            mAppExecutors.mainThread().execute(() -> callback.onCodeSuggestionsLoaded(prefix, suggestions));
+        });
+    }
+
+    /**
+     * Builds the in-memory prefix indexes of the idents and alternative codes of the catalog.
+     */
+    private synchronized void buildCodeIndexes() {
+        mIdentIndex = CodePrefixIndex.of(mMasterItemDao.getAllIdents());
+        mAltCodeIndex = CodePrefixIndex.of(mMasterItemDao.getAllAltCodes());
+    }
+
     /**
      * Retrieves the list of {@link DamageInfo} items from the local database.
      * <p>
@@ -491,6 +614,10 @@ public class MasterItemLocalDataSource implements MasterItemDataSource {
         Runnable runnable = () -> {
             try {
                 mMasterItemDao.clearAllMasterItems();
+                mMasterItemDao.clearCodeTrigrams();
+                mMasterItemDao.clearFacets();
+                mIdentIndex = null;
+                mAltCodeIndex = null;
                 mMasterItemDao.clearAllDamageInfo();
 
                 mAppExecutors.mainThread().execute(storeCodeChangeCallback::onStoreCodeChanged);
@@ -1,29 +1,514 @@
 package com.metalac.scanner.app.data.source.db;
 
 import android.content.Context;
+import android.database.Cursor;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
 
 import com.metalac.scanner.app.data.source.db.dao.InventoryItemDao;
 import com.metalac.scanner.app.data.source.db.dao.InventoryListDao;
+import com.metalac.scanner.app.models.ChangeSequence;
+import com.metalac.scanner.app.models.ConsolidationItem;
 import com.metalac.scanner.app.models.DamageInfo;
+import com.metalac.scanner.app.models.ExportSnapshotItem;
 import com.metalac.scanner.app.models.InventoryItem;
+import com.metalac.scanner.app.models.InventoryItemHistory;
 import com.metalac.scanner.app.models.InventoryList;
 import com.metalac.scanner.app.models.MasterItem;
+import com.metalac.scanner.app.models.MasterItemFacet;
+import com.metalac.scanner.app.models.MasterItemFts;
+import com.metalac.scanner.app.models.MasterItemTrigram;
 import com.metalac.scanner.app.data.source.db.dao.MasterItemDao;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
 /**
  * Room database class for the scanner application.
  * Holds the database instance and provides access to DAO interfaces.
  */
-@Database(entities = {MasterItem.class, InventoryItem.class, DamageInfo.class, InventoryList.class}, version = 1)
+@Database(entities = {MasterItem.class, InventoryItem.class, DamageInfo.class, InventoryList.class, InventoryItemHistory.class, ChangeSequence.class,
+        ExportSnapshotItem.class, ConsolidationItem.class, MasterItemFts.class,
+        MasterItemTrigram.class, MasterItemFacet.class}, version = 16)
 public abstract class ScannerDatabase extends RoomDatabase {
 
     // Singleton instance of the database
     private static volatile ScannerDatabase INSTANCE;
 
+    /**
+     * Triggers that keep {@code item_count} and {@code net_quantity} on {@code inventory_lists}
+     * in sync with {@code inventory_items}, so the list picker doesn't have to aggregate all scans.
+     */
+    private static final String[] INVENTORY_ITEMS_COUNTER_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS inventory_items_after_insert AFTER INSERT ON inventory_items " +
+                    "BEGIN " +
+                    "UPDATE inventory_lists SET item_count = item_count + 1, net_quantity = net_quantity + NEW.quantity " +
+                    "WHERE id = NEW.inventory_list_id; " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS inventory_items_after_delete AFTER DELETE ON inventory_items " +
+                    "BEGIN " +
+                    "UPDATE inventory_lists SET item_count = item_count - 1, net_quantity = net_quantity - OLD.quantity " +
+                    "WHERE id = OLD.inventory_list_id; " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS inventory_items_after_update AFTER UPDATE OF quantity, inventory_list_id ON inventory_items " +
+                    "BEGIN " +
+                    "UPDATE inventory_lists SET item_count = item_count - 1, net_quantity = net_quantity - OLD.quantity " +
+                    "WHERE id = OLD.inventory_list_id; " +
+                    "UPDATE inventory_lists SET item_count = item_count + 1, net_quantity = net_quantity + NEW.quantity " +
+                    "WHERE id = NEW.inventory_list_id; " +
+                    "END"
+    };
+
+    /**
+     * Triggers that count archived rows in {@code inventory_items_history} towards the list counters,
+     * so moving a void pair out of the live table leaves {@code item_count} and {@code net_quantity} unchanged.
+     */
+    private static final String[] INVENTORY_HISTORY_COUNTER_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS inventory_items_history_after_insert AFTER INSERT ON inventory_items_history " +
+                    "BEGIN " +
+                    "UPDATE inventory_lists SET item_count = item_count + 1, net_quantity = net_quantity + NEW.quantity " +
+                    "WHERE id = NEW.inventory_list_id; " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS inventory_items_history_after_delete AFTER DELETE ON inventory_items_history " +
+                    "BEGIN " +
+                    "UPDATE inventory_lists SET item_count = item_count - 1, net_quantity = net_quantity - OLD.quantity " +
+                    "WHERE id = OLD.inventory_list_id; " +
+                    "END"
+    };
+
+    /**
+     * Triggers that stamp every inserted or edited {@code inventory_items} row with the next value of
+     * {@code change_sequence}, so the incremental export can find everything changed since its watermark.
+     * Only the trigger's own {@code change_seq} update is excluded, which keeps it from firing itself.
+     */
+    private static final String[] INVENTORY_ITEMS_CHANGE_SEQ_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS inventory_items_change_seq_after_insert AFTER INSERT ON inventory_items " +
+                    "BEGIN " +
+                    "UPDATE change_sequence SET value = value + 1 WHERE id = 0; " +
+                    "UPDATE inventory_items SET change_seq = (SELECT value FROM change_sequence WHERE id = 0) " +
+                    "WHERE id = NEW.id; " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS inventory_items_change_seq_after_update " +
+                    "AFTER UPDATE OF inventory_list_id, ident, quantity, exp_date, damage_code, note, status ON inventory_items " +
+                    "BEGIN " +
+                    "UPDATE change_sequence SET value = value + 1 WHERE id = 0; " +
+                    "UPDATE inventory_items SET change_seq = (SELECT value FROM change_sequence WHERE id = 0) " +
+                    "WHERE id = NEW.id; " +
+                    "END"
+    };
+
+    /**
+     * Whether an {@code inventory_items} row has an expiry date, damage code or note.
+     */
+    private static final String HAS_EXTRA_INFO_EXPRESSION = "(COALESCE(exp_date, '') != '' " +
+            "OR COALESCE(damage_code, '') != '' OR COALESCE(note, '') != '')";
+
+    /**
+     * Triggers that keep {@code has_extra_info} on {@code inventory_items} in sync with the extra info columns,
+     * also when a damage code is cleared because its damage info was deleted. An entity update writes all
+     * columns, so a stale flag written with it is recomputed as well.
+     */
+    private static final String[] INVENTORY_ITEMS_EXTRA_INFO_TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS inventory_items_extra_info_after_insert AFTER INSERT ON inventory_items " +
+                    "BEGIN " +
+                    "UPDATE inventory_items SET has_extra_info = " + HAS_EXTRA_INFO_EXPRESSION + " WHERE id = NEW.id; " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS inventory_items_extra_info_after_update " +
+                    "AFTER UPDATE OF exp_date, damage_code, note ON inventory_items " +
+                    "BEGIN " +
+                    "UPDATE inventory_items SET has_extra_info = " + HAS_EXTRA_INFO_EXPRESSION + " WHERE id = NEW.id; " +
+                    "END"
+    };
+
+    /**
+     * Adds the per-list counters, backfills them from the existing scans and installs the triggers.
+     */
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE inventory_lists ADD COLUMN item_count INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE inventory_lists ADD COLUMN net_quantity REAL NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE inventory_lists SET " +
+                    "item_count = (SELECT COUNT(*) FROM inventory_items WHERE inventory_list_id = inventory_lists.id), " +
+                    "net_quantity = (SELECT COALESCE(SUM(quantity), 0) FROM inventory_items WHERE inventory_list_id = inventory_lists.id)");
+            createTriggers(db, INVENTORY_ITEMS_COUNTER_TRIGGERS);
+        }
+    };
+
+    /**
+     * Adds the history table for compacted void pairs and its counter triggers.
+     */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS inventory_items_history (" +
+                    "id INTEGER NOT NULL, " +
+                    "device_number TEXT, " +
+                    "store_code TEXT, " +
+                    "inventory_list_id INTEGER NOT NULL, " +
+                    "ident TEXT, " +
+                    "quantity REAL NOT NULL, " +
+                    "exp_date TEXT, " +
+                    "damage_code TEXT, " +
+                    "note TEXT, " +
+                    "status INTEGER NOT NULL, " +
+                    "index_in_list INTEGER NOT NULL, " +
+                    "archived_at INTEGER NOT NULL, " +
+                    "PRIMARY KEY(id), " +
+                    "FOREIGN KEY(inventory_list_id) REFERENCES inventory_lists(id) ON UPDATE NO ACTION ON DELETE CASCADE)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_history_inventory_list_id " +
+                    "ON inventory_items_history (inventory_list_id)");
+            createTriggers(db, INVENTORY_HISTORY_COUNTER_TRIGGERS);
+        }
+    };
+
+    /**
+     * Stores all quantities as whole thousandths ({@link com.metalac.scanner.app.utils.Utils#QUANTITY_SCALE})
+     * instead of REAL values. SQLite can't change a column type, so the affected tables are rebuilt.
+     * The counter triggers are dropped first, because SQLite refuses to rename tables while a trigger
+     * refers to a dropped table, and are recreated at the end.
+     */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("DROP TRIGGER IF EXISTS inventory_items_after_insert");
+            db.execSQL("DROP TRIGGER IF EXISTS inventory_items_after_delete");
+            db.execSQL("DROP TRIGGER IF EXISTS inventory_items_after_update");
+            db.execSQL("DROP TRIGGER IF EXISTS inventory_items_history_after_insert");
+            db.execSQL("DROP TRIGGER IF EXISTS inventory_items_history_after_delete");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS master_items_new (" +
+                    "ident TEXT NOT NULL, store_code TEXT, import_date TEXT, barcode TEXT, alt_code_1 TEXT, alt_code_2 TEXT, " +
+                    "sales_program TEXT, purchase_program TEXT, unit_of_measure TEXT, decimal_places INTEGER NOT NULL, name TEXT, " +
+                    "max_count_qty INTEGER NOT NULL, active INTEGER NOT NULL, accounting INTEGER NOT NULL, price REAL NOT NULL, " +
+                    "quantity_erp INTEGER NOT NULL, PRIMARY KEY(ident))");
+            db.execSQL("INSERT INTO master_items_new SELECT " +
+                    "ident, store_code, import_date, barcode, alt_code_1, alt_code_2, sales_program, purchase_program, " +
+                    "unit_of_measure, decimal_places, name, max_count_qty, active, accounting, price, " +
+                    "CAST(ROUND(quantity_erp * 1000) AS INTEGER) FROM master_items");
+            db.execSQL("DROP TABLE master_items");
+            db.execSQL("ALTER TABLE master_items_new RENAME TO master_items");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS inventory_lists_new (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, name TEXT, selected INTEGER NOT NULL, " +
+                    "item_count INTEGER NOT NULL DEFAULT 0, net_quantity INTEGER NOT NULL DEFAULT 0)");
+            db.execSQL("INSERT INTO inventory_lists_new (id, name, selected, item_count, net_quantity) " +
+                    "SELECT id, name, selected, item_count, 0 FROM inventory_lists");
+            copySequence(db, "inventory_lists");
+            db.execSQL("DROP TABLE inventory_lists");
+            db.execSQL("ALTER TABLE inventory_lists_new RENAME TO inventory_lists");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS inventory_items_new (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, device_number TEXT, store_code TEXT, " +
+                    "inventory_list_id INTEGER NOT NULL, ident TEXT, quantity INTEGER NOT NULL, exp_date TEXT, damage_code TEXT, " +
+                    "note TEXT, status INTEGER NOT NULL, index_in_list INTEGER NOT NULL, " +
+                    "FOREIGN KEY(inventory_list_id) REFERENCES inventory_lists(id) ON UPDATE NO ACTION ON DELETE CASCADE, " +
+                    "FOREIGN KEY(ident) REFERENCES master_items(ident) ON UPDATE NO ACTION ON DELETE NO ACTION, " +
+                    "FOREIGN KEY(damage_code) REFERENCES damage_info(code) ON UPDATE NO ACTION ON DELETE SET NULL)");
+            db.execSQL("INSERT INTO inventory_items_new SELECT " +
+                    "id, device_number, store_code, inventory_list_id, ident, CAST(ROUND(quantity * 1000) AS INTEGER), " +
+                    "exp_date, damage_code, note, status, index_in_list FROM inventory_items");
+            copySequence(db, "inventory_items");
+            db.execSQL("DROP TABLE inventory_items");
+            db.execSQL("ALTER TABLE inventory_items_new RENAME TO inventory_items");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_inventory_list_id ON inventory_items (inventory_list_id)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_ident ON inventory_items (ident)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_damage_code ON inventory_items (damage_code)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_ident_inventory_list_id ON inventory_items (ident, inventory_list_id)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_status ON inventory_items (status)");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS inventory_items_history_new (" +
+                    "id INTEGER NOT NULL, device_number TEXT, store_code TEXT, inventory_list_id INTEGER NOT NULL, ident TEXT, " +
+                    "quantity INTEGER NOT NULL, exp_date TEXT, damage_code TEXT, note TEXT, status INTEGER NOT NULL, " +
+                    "index_in_list INTEGER NOT NULL, archived_at INTEGER NOT NULL, PRIMARY KEY(id), " +
+                    "FOREIGN KEY(inventory_list_id) REFERENCES inventory_lists(id) ON UPDATE NO ACTION ON DELETE CASCADE)");
+            db.execSQL("INSERT INTO inventory_items_history_new SELECT " +
+                    "id, device_number, store_code, inventory_list_id, ident, CAST(ROUND(quantity * 1000) AS INTEGER), " +
+                    "exp_date, damage_code, note, status, index_in_list, archived_at FROM inventory_items_history");
+            db.execSQL("DROP TABLE inventory_items_history");
+            db.execSQL("ALTER TABLE inventory_items_history_new RENAME TO inventory_items_history");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_history_inventory_list_id " +
+                    "ON inventory_items_history (inventory_list_id)");
+
+            // Recount the net quantities from the converted rows, so they are exact sums of integers
+            db.execSQL("UPDATE inventory_lists SET net_quantity = " +
+                    "(SELECT COALESCE(SUM(quantity), 0) FROM inventory_items WHERE inventory_list_id = inventory_lists.id) + " +
+                    "(SELECT COALESCE(SUM(quantity), 0) FROM inventory_items_history WHERE inventory_list_id = inventory_lists.id)");
+
+            createTriggers(db, INVENTORY_ITEMS_COUNTER_TRIGGERS);
+            createTriggers(db, INVENTORY_HISTORY_COUNTER_TRIGGERS);
+        }
+    };
+
+    /**
+     * Adds scan timestamps and the change sequence used by the incremental export. Existing rows get
+     * their ID as change sequence, which keeps the original scan order, and the counter continues after
+     * the highest of them. Their scan time is unknown and stays {@code 0}.
+     */
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS change_sequence (id INTEGER NOT NULL, value INTEGER NOT NULL, PRIMARY KEY(id))");
+
+            db.execSQL("ALTER TABLE inventory_items ADD COLUMN created_at INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE inventory_items ADD COLUMN change_seq INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE inventory_items SET change_seq = id");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_change_seq ON inventory_items (change_seq)");
+
+            db.execSQL("ALTER TABLE inventory_items_history ADD COLUMN created_at INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE inventory_items_history ADD COLUMN change_seq INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE inventory_items_history SET change_seq = id");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_history_change_seq ON inventory_items_history (change_seq)");
+
+            db.execSQL("INSERT OR REPLACE INTO change_sequence (id, value) VALUES (0, MAX(" +
+                    "(SELECT COALESCE(MAX(change_seq), 0) FROM inventory_items), " +
+                    "(SELECT COALESCE(MAX(change_seq), 0) FROM inventory_items_history)))");
+            createTriggers(db, INVENTORY_ITEMS_CHANGE_SEQ_TRIGGERS);
+        }
+    };
+
+    /**
+     * Adds the fingerprint snapshot of the last export, used by the differential export. The first
+     * differential export after the migration has no snapshot to compare with and exports everything as added.
+     */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS export_snapshot (generation INTEGER NOT NULL, " +
+                    "inventory_list_id INTEGER NOT NULL, ident TEXT NOT NULL, exp_date TEXT NOT NULL, damage_code TEXT NOT NULL, " +
+                    "quantity INTEGER NOT NULL, note_hash INTEGER NOT NULL, " +
+                    "PRIMARY KEY(generation, inventory_list_id, ident, exp_date, damage_code))");
+        }
+    };
+
+    /**
+     * Adds the staging table for consolidating the exports of several devices.
+     */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS consolidation_items (device_number TEXT NOT NULL, " +
+                    "inventory_list_id INTEGER NOT NULL, index_in_list INTEGER NOT NULL, store_code TEXT, ident TEXT, " +
+                    "quantity INTEGER NOT NULL, list_name TEXT, status TEXT, exp_date TEXT, damage_code TEXT, " +
+                    "damage_desc TEXT, note TEXT, PRIMARY KEY(device_number, inventory_list_id, index_in_list))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_consolidation_items_ident ON consolidation_items (ident)");
+        }
+    };
+
+    /**
+     * Adds the full-text search index of the master items and builds it from the existing catalog.
+     * Room recreates the triggers that keep it in sync after every migration.
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `master_items_fts` USING FTS4(`ident` TEXT, `name` TEXT, " +
+                    "`barcode` TEXT, `alt_code_1` TEXT, `sales_program` TEXT, tokenize=unicode61 `remove_diacritics=2`, " +
+                    "prefix=`2,3`, content=`master_items`)");
+            db.execSQL("INSERT INTO master_items_fts(master_items_fts) VALUES ('rebuild')");
+        }
+    };
+
+    /**
+     * Adds the trigram index of the master item codes and fills it from the existing catalog.
+     */
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS master_item_trigrams (trigram TEXT NOT NULL, ident TEXT NOT NULL, " +
+                    "PRIMARY KEY(trigram, ident))");
+            db.execSQL("WITH RECURSIVE codes(ident, code) AS (" +
+                    "SELECT ident, lower(ident) FROM master_items " +
+                    "UNION ALL SELECT ident, lower(barcode) FROM master_items WHERE barcode IS NOT NULL " +
+                    "UNION ALL SELECT ident, lower(alt_code_1) FROM master_items WHERE alt_code_1 IS NOT NULL " +
+                    "UNION ALL SELECT ident, lower(alt_code_2) FROM master_items WHERE alt_code_2 IS NOT NULL), " +
+                    "grams(ident, code, position) AS (" +
+                    "SELECT ident, code, 1 FROM codes WHERE length(code) >= 3 " +
+                    "UNION ALL SELECT ident, code, position + 1 FROM grams WHERE position + 3 <= length(code)) " +
+                    "INSERT OR IGNORE INTO master_item_trigrams (trigram, ident) " +
+                    "SELECT substr(code, position, 3), ident FROM grams");
+        }
+    };
+
+    /**
+     * Indexes the master item columns that are looked up by scans or filtered exactly in the search.
+     */
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_master_items_barcode ON master_items (barcode)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_master_items_alt_code_1 ON master_items (alt_code_1)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_master_items_alt_code_2 ON master_items (alt_code_2)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_master_items_unit_of_measure ON master_items (unit_of_measure)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_master_items_purchase_program ON master_items (purchase_program)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_master_items_price ON master_items (price)");
+        }
+    };
+
+    /**
+     * Replaces the index of the inventory list ID with one on the list and the index in list, which keyset
+     * pages of a list seek in the order of the list. It still serves lookups of a list by its ID.
+     */
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("DROP INDEX IF EXISTS index_inventory_items_inventory_list_id");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_inventory_list_id_index_in_list " +
+                    "ON inventory_items (inventory_list_id, index_in_list)");
+        }
+    };
+
+    /**
+     * Adds the search keys of the master item names, fills them from the existing catalog and
+     * re-creates the full-text index over them. The keys are written with one compiled statement
+     * and the normalization of this version, see {@link #toVersion12SearchKey(String)}.
+     */
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE master_items ADD COLUMN search_name TEXT");
+            try (Cursor cursor = db.query("SELECT ident, name FROM master_items WHERE name IS NOT NULL");
+                 SupportSQLiteStatement update = db.compileStatement("UPDATE master_items SET search_name = ? WHERE ident = ?")) {
+                while (cursor.moveToNext()) {
+                    update.bindString(1, toVersion12SearchKey(cursor.getString(1)));
+                    update.bindString(2, cursor.getString(0));
+                    update.executeUpdateDelete();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            db.execSQL("DROP TABLE IF EXISTS master_items_fts");
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `master_items_fts` USING FTS4(`ident` TEXT, `search_name` TEXT, " +
+                    "`barcode` TEXT, `alt_code_1` TEXT, `sales_program` TEXT, tokenize=unicode61 `remove_diacritics=2`, " +
+                    "prefix=`2,3`, content=`master_items`)");
+            db.execSQL("INSERT INTO master_items_fts(master_items_fts) VALUES ('rebuild')");
+        }
+    };
+
+    private static final Pattern VERSION_12_COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Search key of a master item name as {@link #MIGRATION_11_12} writes it. It is a frozen copy of the
+     * normalization of schema version 12, so later changes of
+     * {@link com.metalac.scanner.app.utils.Utils#toSearchKey(String)} don't change what this migration
+     * produces. The next catalog import writes the keys of the current version.
+     */
+    @NonNull
+    private static String toVersion12SearchKey(@NonNull String name) {
+        String folded = name.replace("đ", "dj").replace("Đ", "Dj");
+        folded = VERSION_12_COMBINING_MARKS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+        return folded.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds the facet summary of the master items and fills it from the existing catalog.
+     */
+    static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS master_item_facets (unit_of_measure TEXT NOT NULL, active INTEGER NOT NULL, " +
+                    "accounting INTEGER NOT NULL, price_band INTEGER NOT NULL, item_count INTEGER NOT NULL, " +
+                    "PRIMARY KEY(unit_of_measure, active, accounting, price_band))");
+            db.execSQL("INSERT INTO master_item_facets (unit_of_measure, active, accounting, price_band, item_count) " +
+                    "SELECT IFNULL(unit_of_measure, ''), active, accounting, " + MasterItemFacet.PRICE_BAND_EXPRESSION + " AS band, COUNT(*) " +
+                    "FROM master_items GROUP BY IFNULL(unit_of_measure, ''), active, accounting, band");
+        }
+    };
+
+    /**
+     * Stores whether each scan has extra info and replaces the list index by covering indexes of the list
+     * queries, one in list order and one in scan order, so the list pages are read from the index alone.
+     * The row ID follows the index in list explicitly, so the columns added after it keep the tie-break order.
+     */
+    static final Migration MIGRATION_13_14 = new Migration(13, 14) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE inventory_items ADD COLUMN has_extra_info INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE inventory_items SET has_extra_info = " + HAS_EXTRA_INFO_EXPRESSION);
+            createTriggers(db, INVENTORY_ITEMS_EXTRA_INFO_TRIGGERS);
+
+            db.execSQL("DROP INDEX IF EXISTS index_inventory_items_inventory_list_id_index_in_list");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_inventory_list_id_index_in_list_id_ident_quantity_status_has_extra_info " +
+                    "ON inventory_items (inventory_list_id, index_in_list, id, ident, quantity, status, has_extra_info)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_inventory_list_id_id_ident_quantity_status_index_in_list_has_extra_info " +
+                    "ON inventory_items (inventory_list_id, id, ident, quantity, status, index_in_list, has_extra_info)");
+        }
+    };
+
+    /**
+     * Extends the article index of the scans with their list, quantity and scan time, so the totals of an
+     * article across lists are read from the index alone.
+     */
+    static final Migration MIGRATION_14_15 = new Migration(14, 15) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("DROP INDEX IF EXISTS index_inventory_items_ident_inventory_list_id");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_ident_inventory_list_id_quantity_created_at " +
+                    "ON inventory_items (ident, inventory_list_id, quantity, created_at)");
+        }
+    };
+
+    /**
+     * Adds {@code status} to the covering index of the per-list totals of an article, which count only
+     * the scans that are not voided.
+     */
+    static final Migration MIGRATION_15_16 = new Migration(15, 16) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("DROP INDEX IF EXISTS index_inventory_items_ident_inventory_list_id_quantity_created_at");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_inventory_items_ident_inventory_list_id_quantity_created_at_status " +
+                    "ON inventory_items (ident, inventory_list_id, quantity, created_at, status)");
+        }
+    };
+
+    /**
+     * Carries the AUTOINCREMENT counter of {@code tableName} over to its rebuilt {@code tableName_new} copy,
+     * so IDs of deleted or archived rows are never handed out again.
+     */
+    private static void copySequence(@NonNull SupportSQLiteDatabase db, @NonNull String tableName) {
+        String newTableName = tableName + "_new";
+        db.execSQL("UPDATE sqlite_sequence SET seq = MAX(seq, " +
+                        "COALESCE((SELECT seq FROM sqlite_sequence WHERE name = ?), 0)) WHERE name = ?",
+                new Object[]{tableName, newTableName});
+        db.execSQL("INSERT INTO sqlite_sequence (name, seq) " +
+                        "SELECT ?, seq FROM sqlite_sequence WHERE name = ? " +
+                        "AND NOT EXISTS (SELECT 1 FROM sqlite_sequence WHERE name = ?)",
+                new Object[]{newTableName, tableName, newTableName});
+    }
+
+    /**
+     * Seeds the change sequence and installs the triggers every time the database is opened, after it was
+     * created, migrated or rebuilt by the destructive fallback. Room doesn't call {@code onCreate()} after a
+     * destructive migration, so a rebuilt database would otherwise have no triggers. All statements are
+     * idempotent and do nothing when the row and triggers exist already.
+     */
+    private static final Callback CREATE_TRIGGERS_CALLBACK = new Callback() {
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("INSERT OR IGNORE INTO change_sequence (id, value) VALUES (0, 0)");
+            createTriggers(db, INVENTORY_ITEMS_COUNTER_TRIGGERS);
+            createTriggers(db, INVENTORY_HISTORY_COUNTER_TRIGGERS);
+            createTriggers(db, INVENTORY_ITEMS_CHANGE_SEQ_TRIGGERS);
+            createTriggers(db, INVENTORY_ITEMS_EXTRA_INFO_TRIGGERS);
+        }
+    };
+
+    private static void createTriggers(@NonNull SupportSQLiteDatabase db, @NonNull String[] triggers) {
+        for (String trigger : triggers) {
+            db.execSQL(trigger);
+        }
+    }
+
     public abstract MasterItemDao masterItemDao();
 
     public abstract InventoryItemDao inventoryItemDao();
@@ -32,8 +517,12 @@ public abstract class ScannerDatabase extends RoomDatabase {
 
     /**
      * Returns the singleton instance of {@link ScannerDatabase}, creating it if necessary.
-     * Uses a destructive migration fallback strategy, which wipes and rebuilds the database
-     * if the schema changes.
+     * Known schema changes are migrated, any other version change falls back to a destructive
+     * migration, which wipes and rebuilds the database.
+     * <p>
+     * The database always uses write-ahead logging, also on low RAM devices where Room would pick a
+     * rollback journal, so background reads like the scheduled export never block scans from being saved.
+     * </p>
      *
      * @param context Application context
      * @return Singleton instance of {@link ScannerDatabase}
@@ -46,6 +535,9 @@ public abstract class ScannerDatabase extends RoomDatabase {
                 if (INSTANCE == null) {
                     INSTANCE = Room.databaseBuilder(context.getApplicationContext(),
                                     ScannerDatabase.class, databaseName)
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10, MIGRATION_10_11, MIGRATION_11_12, MIGRATION_12_13, MIGRATION_13_14, MIGRATION_14_15, MIGRATION_15_16)
+                            .addCallback(CREATE_TRIGGERS_CALLBACK)
+                            .setJournalMode(JournalMode.WRITE_AHEAD_LOGGING)
                             .fallbackToDestructiveMigration()
                             .build();
                 }
@@ -0,0 +1,136 @@
+package com.metalac.scanner.app.data.source.db;
+
+import android.database.Cursor;
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.PagingState;
+import androidx.room.RoomDatabase;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link androidx.paging.PagingSource} of the results of a search built by {@link SearchQueryBuilder}.
+ * <p>
+ * A page is loaded in two steps: the search query matches and orders the rows and returns only their keys,
+ * then the rows of the page are loaded by key. The search query runs with a {@link CancellationSignal},
+ * so when Paging cancels the load, because the source was invalidated by a newer query or the results are
+ * no longer collected, the running SQLite statement is interrupted instead of finishing in the background.
+ * </p>
+ * <p>
+ * A source invalidated by a change of its tables is refreshed around the position the user scrolled to.
+ * A source replaced by the search of another query is invalidated with {@link #invalidateForNewQuery()},
+ * so the results of the new query are loaded from the first row instead.
+ * </p>
+ *
+ * @param <T> Type of the row keys returned by the search query.
+ * @param <V> Type of the loaded rows.
+ */
+public abstract class SearchPagingSource<T, V> extends DatabasePagingSource<Integer, V> {
+    private final RoomDatabase mDatabase;
+    private final SearchQueryBuilder mSearchQuery;
+    private volatile boolean mReplacedByNewQuery;
+
+    SearchPagingSource(@NonNull Executor executor, @NonNull RoomDatabase database, @NonNull SearchQueryBuilder searchQuery,
+                       @NonNull String table, @NonNull String... otherTables) {
+        super(executor, database.getInvalidationTracker(), table, otherTables);
+        this.mDatabase = database;
+        this.mSearchQuery = searchQuery;
+    }
+
+    /**
+     * Reads the key of the current row of the search query.
+     */
+    @NonNull
+    abstract T readKey(@NonNull Cursor cursor);
+
+    /**
+     * Loads the rows with the given keys, in any order.
+     */
+    @NonNull
+    abstract List<V> loadRows(@NonNull List<T> keys);
+
+    @NonNull
+    abstract T getKey(@NonNull V row);
+
+    /**
+     * Invalidates the source because the search changed to another query. The scroll position in these
+     * results means nothing in the results of the new query, so no refresh key is passed on to its source.
+     */
+    public void invalidateForNewQuery() {
+        mReplacedByNewQuery = true;
+        invalidate();
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<Integer, V>> loadFuture(@NonNull LoadParams<Integer> params) {
+        CancellationSignal cancellationSignal = new CancellationSignal();
+        ListenableFuture<LoadResult<Integer, V>> future = submit(() -> load(params, cancellationSignal));
+        future.addListener(() -> {
+            if (future.isCancelled()) {
+                cancellationSignal.cancel();
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    @NonNull
+    private LoadResult<Integer, V> load(@NonNull LoadParams<Integer> params, @NonNull CancellationSignal cancellationSignal) {
+        Integer key = params.getKey();
+        int limit = params.getLoadSize();
+        int offset = key == null ? 0 : key;
+        if (params instanceof LoadParams.Prepend) {
+            limit = Math.min(limit, offset);
+            offset -= limit;
+        }
+
+        List<T> keys = new ArrayList<>();
+        try (Cursor cursor = mDatabase.query(mSearchQuery.buildPage(limit, offset), cancellationSignal)) {
+            while (cursor.moveToNext()) {
+                keys.add(readKey(cursor));
+            }
+        } catch (OperationCanceledException e) {
+            return new LoadResult.Invalid<>();
+        }
+
+        List<V> rows = new ArrayList<>(keys.size());
+        if (!keys.isEmpty()) {
+            Map<T, V> rowsByKey = new HashMap<>();
+            for (V row : loadRows(keys)) {
+                rowsByKey.put(getKey(row), row);
+            }
+            for (T rowKey : keys) {
+                // Rows deleted since the search ran are left out
+                V row = rowsByKey.get(rowKey);
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+        }
+
+        if (getInvalid()) {
+            return new LoadResult.Invalid<>();
+        }
+        return new LoadResult.Page<>(rows, offset > 0 ? offset : null, keys.size() < limit ? null : offset + keys.size());
+    }
+
+    @Nullable
+    @Override
+    public Integer getRefreshKey(@NonNull PagingState<Integer, V> state) {
+        Integer anchorPosition = state.getAnchorPosition();
+        if (mReplacedByNewQuery || anchorPosition == null) {
+            return null;
+        }
+        return Math.max(0, anchorPosition - state.getConfig().initialLoadSize / 2);
+    }
+}
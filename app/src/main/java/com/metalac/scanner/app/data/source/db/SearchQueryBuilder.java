@@ -0,0 +1,194 @@
+package com.metalac.scanner.app.data.source.db;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import com.metalac.scanner.app.models.MasterItem;
+import com.metalac.scanner.app.models.MasterItemFacet;
+import com.metalac.scanner.app.models.QueryMasterItem;
+import com.metalac.scanner.app.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the paged search queries of the master data and the inventory list from a {@link QueryMasterItem}.
+ * The queries return only the keys of the results, see {@link SearchPagingSource}.
+ * <p>
+ * Only the filters that are set become predicates, so SQLite can search the index of a filtered column
+ * instead of scanning the catalog: words go through {@code master_items_fts}, code fragments through
+ * {@code master_item_trigrams} and exact filters through the column indexes of {@link MasterItem}.
+ * </p>
+ */
+class SearchQueryBuilder {
+    private final String mMasterTable;
+    private final StringBuilder mSql = new StringBuilder();
+    private final List<Object> mArgs = new ArrayList<>();
+    private boolean mHasWhere;
+
+    private SearchQueryBuilder(@NonNull String masterTable) {
+        this.mMasterTable = masterTable;
+    }
+
+    /**
+     * Builds the query of the idents of the master items matching the filters. Results of a text search are
+     * ordered by relevance, see {@link #appendRelevanceOrder(String)}, then by name and ident, other results
+     * by ident. The ident makes the order unique, so pages of articles with the same name never overlap.
+     */
+    @NonNull
+    static SearchQueryBuilder masterItemKeys(@NonNull QueryMasterItem queryMasterItem) {
+        SearchQueryBuilder builder = new SearchQueryBuilder("master_items");
+        builder.mSql.append("SELECT master_items.ident FROM master_items");
+        builder.appendFilters(queryMasterItem);
+
+        String searchText = queryMasterItem.getSearchText();
+        if (searchText != null) {
+            builder.mSql.append(" ORDER BY ");
+            builder.appendRelevanceOrder(searchText);
+            builder.mSql.append(", master_items.name, master_items.ident");
+        } else {
+            // A stable order, so the pages of the results never overlap
+            builder.mSql.append(" ORDER BY master_items.ident");
+        }
+        return builder;
+    }
+
+    /**
+     * Builds the query of the IDs of the rows of an inventory list whose articles match the filters. Results of a
+     * text search are ordered by relevance first, then like the unfiltered list.
+     */
+    @NonNull
+    static SearchQueryBuilder inventoryItemKeys(@NonNull QueryMasterItem queryMasterItem, int inventoryListId) {
+        SearchQueryBuilder builder = new SearchQueryBuilder("m");
+        builder.mSql.append("SELECT i.id FROM inventory_items i JOIN master_items m ON i.ident = m.ident");
+        builder.appendPredicate("i.inventory_list_id = ?", inventoryListId);
+        builder.appendFilters(queryMasterItem);
+
+        builder.mSql.append(" ORDER BY ");
+        String searchText = queryMasterItem.getSearchText();
+        if (searchText != null) {
+            builder.appendRelevanceOrder(searchText);
+            builder.mSql.append(", ");
+        }
+        builder.mSql.append("i.index_in_list DESC, i.id DESC");
+        return builder;
+    }
+
+    /**
+     * Builds the query of the number of master items per facet combination, see {@link MasterItemFacet}, among
+     * the articles matching the filters other than the facet filters. Without such filters the counts are read
+     * from the summary table.
+     */
+    @NonNull
+    static SupportSQLiteQuery facetCounts(@NonNull QueryMasterItem queryMasterItem) {
+        SearchQueryBuilder builder = new SearchQueryBuilder("master_items");
+        builder.mSql.append("SELECT IFNULL(unit_of_measure, '') AS unit_of_measure, active, accounting, ")
+                .append(MasterItemFacet.PRICE_BAND_EXPRESSION).append(" AS price_band, COUNT(*) AS item_count ")
+                .append("FROM master_items");
+        builder.appendMatchFilters(queryMasterItem);
+        if (!builder.mHasWhere) {
+            return new SimpleSQLiteQuery("SELECT * FROM master_item_facets");
+        }
+        builder.mSql.append(" GROUP BY IFNULL(unit_of_measure, ''), active, accounting, price_band");
+        return builder.build();
+    }
+
+    private void appendFilters(@NonNull QueryMasterItem queryMasterItem) {
+        appendMatchFilters(queryMasterItem);
+        appendEquals("unit_of_measure", queryMasterItem.getUnitOfMeasure());
+        appendEquals("active", queryMasterItem.getActive());
+        appendEquals("accounting", queryMasterItem.getAccounting());
+    }
+
+    /**
+     * Appends the filters other than the facet filters (unit of measure, active and accounting flag).
+     */
+    private void appendMatchFilters(@NonNull QueryMasterItem queryMasterItem) {
+        appendContains("ident", queryMasterItem.getIdent());
+        appendContains("barcode", queryMasterItem.getBarcode());
+        appendContains("alt_code_1", queryMasterItem.getAltCode1());
+        appendContains("sales_program", queryMasterItem.getSalesProgram());
+        appendEquals("alt_code_2", queryMasterItem.getAltCode2());
+        appendEquals("purchase_program", queryMasterItem.getPurchaseProgram());
+        appendEquals("price", queryMasterItem.getPrice());
+
+        // The articles whose codes contain all trigrams of the code fragments, which LIKE then checks
+        List<String> codeTrigrams = Utils.getTrigrams(queryMasterItem.getIdent(), queryMasterItem.getBarcode(),
+                queryMasterItem.getAltCode1());
+        if (!codeTrigrams.isEmpty()) {
+            StringBuilder predicate = new StringBuilder(mMasterTable)
+                    .append(".ident IN (SELECT ident FROM master_item_trigrams WHERE trigram IN (");
+            for (int i = 0; i < codeTrigrams.size(); i++) {
+                predicate.append(i == 0 ? "?" : ", ?");
+            }
+            predicate.append(") GROUP BY ident HAVING COUNT(*) = ?)");
+            List<Object> args = new ArrayList<>(codeTrigrams);
+            args.add(codeTrigrams.size());
+            appendPredicate(predicate.toString(), args.toArray());
+        }
+
+        String matchQuery = Utils.joinFtsQueries(Utils.toFtsPrefixQuery(queryMasterItem.getName(), "search_name"),
+                Utils.toFtsPrefixQuery(queryMasterItem.getFilterText(), null));
+        if (matchQuery != null) {
+            appendPredicate(mMasterTable + ".rowid IN (SELECT rowid FROM master_items_fts WHERE master_items_fts MATCH ?)", matchQuery);
+        }
+    }
+
+    private void appendContains(@NonNull String column, @Nullable String value) {
+        if (value != null) {
+            appendPredicate(mMasterTable + "." + column + " LIKE ?", "%" + value + "%");
+        }
+    }
+
+    private void appendEquals(@NonNull String column, @Nullable Object value) {
+        if (value != null) {
+            appendPredicate(mMasterTable + "." + column + " = ?", value);
+        }
+    }
+
+    private void appendPredicate(@NonNull String predicate, @NonNull Object... args) {
+        mSql.append(mHasWhere ? " AND " : " WHERE ").append(predicate);
+        mHasWhere = true;
+        for (Object arg : args) {
+            mArgs.add(arg);
+        }
+    }
+
+    /**
+     * Orders exact matches of the name or a code first, then names and codes starting with the searched text,
+     * then the other matches. Names are compared by their search keys, see {@link Utils#toSearchKey(String)}.
+     */
+    private void appendRelevanceOrder(@NonNull String searchText) {
+        String table = mMasterTable;
+        mSql.append("CASE WHEN ").append(table).append(".search_name = ? OR ")
+                .append(table).append(".ident = ? OR ").append(table).append(".barcode = ? THEN 0 WHEN ")
+                .append(table).append(".search_name LIKE ? OR ").append(table).append(".ident LIKE ? OR ")
+                .append(table).append(".barcode LIKE ? THEN 1 ELSE 2 END");
+        String searchKey = Utils.toSearchKey(searchText);
+        String prefix = searchText + "%";
+        mArgs.add(searchKey);
+        mArgs.add(searchText);
+        mArgs.add(searchText);
+        mArgs.add(searchKey + "%");
+        mArgs.add(prefix);
+        mArgs.add(prefix);
+    }
+
+    @NonNull
+    private SupportSQLiteQuery build() {
+        return new SimpleSQLiteQuery(mSql.toString(), mArgs.toArray());
+    }
+
+    /**
+     * Builds the query of {@code limit} results from {@code offset} on.
+     */
+    @NonNull
+    SupportSQLiteQuery buildPage(int limit, int offset) {
+        List<Object> args = new ArrayList<>(mArgs);
+        args.add(limit);
+        args.add(offset);
+        return new SimpleSQLiteQuery(mSql + " LIMIT ? OFFSET ?", args.toArray());
+    }
+}
@@ -1,33 +1,36 @@
 package com.metalac.scanner.app.data.source.db.dao;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Transaction;
 import androidx.room.Update;
 
+import com.metalac.scanner.app.models.ArticleListTotal;
+import com.metalac.scanner.app.models.ConsolidatedTotal;
+import com.metalac.scanner.app.models.ConsolidationItem;
+import com.metalac.scanner.app.models.ExportSnapshotItem;
 import com.metalac.scanner.app.models.InventoryExportItem;
 import com.metalac.scanner.app.models.InventoryItem;
 import com.metalac.scanner.app.models.InventoryItemWithDamageDesc;
+import com.metalac.scanner.app.models.InventoryList;
 import com.metalac.scanner.app.models.ProductPreviewItem;
+import com.metalac.scanner.app.view.ScannerReaderError;
 
+import java.util.HashSet;
 import java.util.List;
 
 @Dao
 public interface InventoryItemDao {
-
-    @Insert
-    long insertInventoryItem(InventoryItem inventoryItem);
-
-    @Query("SELECT inventory_items.*, damage_info.description AS damage_desc " +
-            "FROM inventory_items " +
-            "LEFT JOIN damage_info ON inventory_items.damage_code = damage_info.code " +
-            "WHERE inventory_items.id = :id")
-    InventoryItemWithDamageDesc getItemById(long id);
-
-    @Query("SELECT m.name AS productName, " +
+    /**
+     * Rows of an inventory list as {@link ProductPreviewItem}, to be completed with a seek predicate and the order.
+     * The list index of every order used carries all read columns of {@code inventory_items}, so the rows are read
+     * from the index without a lookup of the table row or a sort; only the article is looked up by its key.
+     */
+    String LIST_ROWS_QUERY = "SELECT m.name AS productName, " +
             "m.price AS productPrice, " +
             "m.unit_of_measure AS measureUnit, " +
             "i.id AS inventoryId, " +
@@ -36,16 +39,26 @@ public interface InventoryItemDao {
             "i.quantity AS quantity, " +
             "i.status AS status, " +
             "i.index_in_list AS indexInInventoryList, " +
-            "CASE " +
-            "  WHEN i.exp_date IS NOT NULL AND i.exp_date != '' THEN 1 " +
-            "  WHEN i.note IS NOT NULL AND i.note != '' THEN 1 " +
-            "  WHEN i.damage_code IS NOT NULL AND i.damage_code != '' THEN 1 " +
-            "  ELSE 0 " +
-            "END AS hasExtraInfo " +
+            "i.has_extra_info AS hasExtraInfo " +
             "FROM inventory_items i " +
             "JOIN master_items m ON i.ident = m.ident " +
-            "WHERE i.inventory_list_id = :inventoryListId " +
-            "ORDER BY i.id DESC LIMIT 5")
+            "WHERE i.inventory_list_id = :inventoryListId ";
+
+
+    @Insert
+    long insertInventoryItem(InventoryItem inventoryItem);
+
+    @Query("SELECT inventory_items.*, damage_info.description AS damage_desc " +
+            "FROM inventory_items " +
+            "LEFT JOIN damage_info ON inventory_items.damage_code = damage_info.code " +
+            "WHERE inventory_items.id = :id")
+    InventoryItemWithDamageDesc getItemById(long id);
+
+    /**
+     * Returns the last five scans of an inventory list, a range scan of the covering
+     * {@code (inventory_list_id, id, ...)} index.
+     */
+    @Query(LIST_ROWS_QUERY + "ORDER BY i.id DESC LIMIT 5")
     List<ProductPreviewItem> getItemsForDisplay(int inventoryListId);
 
     @Query("SELECT m.name AS productName, " +
@@ -57,94 +70,53 @@ public interface InventoryItemDao {
             "i.quantity AS quantity, " +
             "i.status AS status, " +
             "i.index_in_list AS indexInInventoryList, " +
-            "CASE " +
-            "  WHEN i.exp_date IS NOT NULL AND i.exp_date != '' THEN 1 " +
-            "  WHEN i.note IS NOT NULL AND i.note != '' THEN 1 " +
-            "  WHEN i.damage_code IS NOT NULL AND i.damage_code != '' THEN 1 " +
-            "  ELSE 0 " +
-            "END AS hasExtraInfo " +
+            "i.has_extra_info AS hasExtraInfo " +
             "FROM inventory_items i " +
             "JOIN master_items m ON i.ident = m.ident " +
             "WHERE i.id = :inventoryItemId")
     ProductPreviewItem getProductPreviewByInventoryItemId(int inventoryItemId);
 
-    @Query("SELECT m.name AS productName, " +
-            "m.price AS productPrice, " +
-            "m.unit_of_measure AS measureUnit, " +
-            "i.id AS inventoryId, " +
-            "m.ident AS ident, " +
-            "m.barcode AS barcode, " +
-            "i.quantity AS quantity, " +
-            "i.status AS status, " +
-            "i.index_in_list AS indexInInventoryList, " +
-            "CASE " +
-            "   WHEN i.exp_date IS NOT NULL AND i.exp_date != '' THEN 1 " +
-            "   WHEN i.note IS NOT NULL AND i.note != '' THEN 1 " +
-            "   WHEN i.damage_code IS NOT NULL AND i.damage_code != '' THEN 1 " +
-            "   ELSE 0 " +
-            "END AS hasExtraInfo " +
-            "FROM master_items m " +
-            "JOIN inventory_items i ON m.ident = i.ident " +
-            "WHERE (:ident IS NULL OR m.ident LIKE '%' || :ident || '%') " +
-            "AND (:barcode IS NULL OR m.barcode LIKE '%' || :barcode || '%') " +
-            "AND (:active IS NULL OR m.active = :active) " +
-            "AND (:accounting IS NULL OR m.accounting = :accounting) " +
-            "AND (:unitOfMeasure IS NULL OR m.unit_of_measure = :unitOfMeasure) " +
-            "AND (:price IS NULL OR m.price = :price) " +
-            "AND (:altCode1 IS NULL OR m.alt_code_1 LIKE '%' || :altCode1 || '%') " +
-            "AND (:altCode2 IS NULL OR m.alt_code_2 = :altCode2) " +
-            "AND (:salesProgram IS NULL OR m.sales_program LIKE '%' || :salesProgram || '%') " +
-            "AND (:purchaseProgram IS NULL OR m.purchase_program = :purchaseProgram) " +
-            "AND (:name IS NULL OR m.name LIKE '%' || :name || '%') " +
-            "AND (:filterText IS NULL OR m.name LIKE '%' || :filterText || '%') " +
-            "AND (i.inventory_list_id = :inventoryListId) " +
-            "ORDER BY " +
-            "   CASE i.status " +
-            "       WHEN 'NON_VOIDED' THEN 0 " +
-            "       ELSE 1 " +
-            "   END ASC, " +
-            "   i.index_in_list DESC")
-    PagingSource<Integer, ProductPreviewItem> getFilteredInventoryItems(
-            @Nullable String ident,
-            @Nullable String barcode,
-            @Nullable String altCode1,
-            @Nullable String altCode2,
-            @Nullable String salesProgram,
-            @Nullable String purchaseProgram,
-            @Nullable String unitOfMeasure,
-            @Nullable String name,
-            @Nullable Integer active,
-            @Nullable Integer accounting,
-            @Nullable Double price,
-            @Nullable String filterText,
-            int inventoryListId
-    );
-
-    @Query("SELECT m.name AS productName, " +
-            "m.price AS productPrice, " +
-            "m.unit_of_measure AS measureUnit, " +
-            "i.id AS inventoryId, " +
-            "m.ident AS ident, " +
-            "m.barcode AS barcode, " +
-            "i.quantity AS quantity, " +
-            "i.status AS status, " +
-            "i.index_in_list AS indexInInventoryList, " +
-            "CASE " +
-            "  WHEN i.exp_date IS NOT NULL AND i.exp_date != '' THEN 1 " +
-            "  WHEN i.note IS NOT NULL AND i.note != '' THEN 1 " +
-            "  WHEN i.damage_code IS NOT NULL AND i.damage_code != '' THEN 1 " +
-            "  ELSE 0 " +
-            "END AS hasExtraInfo " +
+    /**
+     * Returns the totals of an article in every inventory list it was scanned in, the most recently scanned list
+     * first. Voided scans and their negations cancel out in the net quantity and are left out of the scan count.
+     * The scans of the article are read from the covering {@code (ident, inventory_list_id, ...)} index,
+     * already grouped by list.
+     */
+    @Query("SELECT i.inventory_list_id AS inventoryListId, " +
+            "l.name AS listName, " +
+            "SUM(i.quantity) AS netQuantity, " +
+            "SUM(CASE WHEN i.status = 2 THEN 1 ELSE 0 END) AS scanCount, " +
+            "MAX(i.created_at) AS lastScannedAt " +
             "FROM inventory_items i " +
-            "JOIN master_items m ON i.ident = m.ident " +
-            "WHERE i.inventory_list_id = :inventoryListId " +
-            "ORDER BY " +
-            "   CASE i.status " +
-            "       WHEN 'NON_VOIDED' THEN 0 " +
-            "       ELSE 1 " +
-            "   END ASC, " +
-            "   i.index_in_list DESC")
-    PagingSource<Integer, ProductPreviewItem> getAllInventoryItemsPaged(int inventoryListId);
+            "JOIN inventory_lists l ON l.id = i.inventory_list_id " +
+            "WHERE i.ident = :ident " +
+            "GROUP BY i.inventory_list_id " +
+            "ORDER BY lastScannedAt DESC, inventoryListId")
+    List<ArticleListTotal> getArticleListTotals(String ident);
+
+    @Query(LIST_ROWS_QUERY + "AND i.id IN (:inventoryItemIds)")
+    List<ProductPreviewItem> getInventoryItemsByIds(int inventoryListId, List<Long> inventoryItemIds);
+
+    /**
+     * Returns the first rows of an inventory list, newest first. The following pages are sought from the last
+     * loaded row by {@link #getInventoryItemsPageAfter} instead of an offset, so every page is a range scan of
+     * the covering {@code (inventory_list_id, index_in_list, ...)} index. The row ID breaks ties of the index in list; the
+     * redundant bound on the index in list keeps the seek a range of the index instead of a scan from the top.
+     */
+    @Query(LIST_ROWS_QUERY + "ORDER BY i.index_in_list DESC, i.id DESC LIMIT :limit")
+    List<ProductPreviewItem> getInventoryItemsPage(int inventoryListId, int limit);
+
+    @Query(LIST_ROWS_QUERY + "AND i.index_in_list <= :indexInList AND (i.index_in_list < :indexInList OR i.id <= :inventoryItemId) " +
+            "ORDER BY i.index_in_list DESC, i.id DESC LIMIT :limit")
+    List<ProductPreviewItem> getInventoryItemsPageFrom(int inventoryListId, int indexInList, long inventoryItemId, int limit);
+
+    @Query(LIST_ROWS_QUERY + "AND i.index_in_list <= :indexInList AND (i.index_in_list < :indexInList OR i.id < :inventoryItemId) " +
+            "ORDER BY i.index_in_list DESC, i.id DESC LIMIT :limit")
+    List<ProductPreviewItem> getInventoryItemsPageAfter(int inventoryListId, int indexInList, long inventoryItemId, int limit);
+
+    @Query(LIST_ROWS_QUERY + "AND i.index_in_list >= :indexInList AND (i.index_in_list > :indexInList OR i.id > :inventoryItemId) " +
+            "ORDER BY i.index_in_list ASC, i.id ASC LIMIT :limit")
+    List<ProductPreviewItem> getInventoryItemsPageBefore(int inventoryListId, int indexInList, long inventoryItemId, int limit);
 
     @Update
     int updateInventoryItem(InventoryItem inventoryItem);
@@ -152,16 +124,91 @@ public interface InventoryItemDao {
     @Query("DELETE FROM inventory_items")
     void deleteAllInventoryData();
 
+    @Query("DELETE FROM inventory_items_history")
+    void deleteAllInventoryHistoryData();
+
     @Query("DELETE FROM sqlite_sequence WHERE name = 'inventory_items'")
     void resetInventoryData();
 
     @Transaction
     default void deleteAndRestartAllInventoryData() {
         deleteAllInventoryData();
+        deleteAllInventoryHistoryData();
         resetInventoryData();
     }
 
+    @Query("SELECT COALESCE(SUM(item_count), 0) FROM inventory_lists")
+    int getTotalItemCount();
+
+    @Query("SELECT COALESCE(SUM(item_count), 0) FROM inventory_lists WHERE id = :inventoryListId")
+    int getItemCountInList(int inventoryListId);
+
+    /**
+     * Deletes at most {@code chunkSize} rows from the live table. Every call runs in its own
+     * transaction, so the write lock is released between chunks.
+     *
+     * @return The number of deleted rows, {@code 0} when the table is empty.
+     */
+    @Query("DELETE FROM inventory_items WHERE id IN (SELECT id FROM inventory_items LIMIT :chunkSize)")
+    int deleteInventoryItemsChunk(int chunkSize);
+
+    @Query("DELETE FROM inventory_items_history WHERE id IN (SELECT id FROM inventory_items_history LIMIT :chunkSize)")
+    int deleteInventoryHistoryChunk(int chunkSize);
+
+    @Query("DELETE FROM inventory_items WHERE id IN " +
+            "(SELECT id FROM inventory_items WHERE inventory_list_id = :inventoryListId LIMIT :chunkSize)")
+    int deleteInventoryItemsChunkInList(int inventoryListId, int chunkSize);
+
+    @Query("DELETE FROM inventory_items_history WHERE id IN " +
+            "(SELECT id FROM inventory_items_history WHERE inventory_list_id = :inventoryListId LIMIT :chunkSize)")
+    int deleteInventoryHistoryChunkInList(int inventoryListId, int chunkSize);
+
+    /**
+     * Returns the next page of export rows from both the live and the archived table, ordered by ID.
+     * Paging by ID instead of OFFSET keeps every page an index range scan, and rows moved to the
+     * history table while the export runs are neither skipped nor repeated, because they keep their ID.
+     *
+     * @param afterId ID of the last exported row, {@code 0} for the first page.
+     * @param limit   Maximum number of rows in the page.
+     */
+    @Query("SELECT " +
+            "i.id AS id, " +
+            "i.change_seq AS changeSeq, " +
+            "i.device_number AS deviceNumber, " +
+            "i.ident AS ident, " +
+            "i.index_in_list AS indexInList, " +
+            "i.inventory_list_id AS inventoryListId, " +
+            "i.quantity AS quantity, " +
+            "i.store_code AS storeCode, " +
+            "l.name AS listName, " +
+            "CASE i.status " +
+            "   WHEN 0 THEN 'VOID' " +
+            "   WHEN 1 THEN 'VOIDED' " +
+            "   WHEN 2 THEN 'NON_VOIDED' " +
+            "   ELSE 'UNKNOWN' END AS status, " +
+            "i.exp_date AS expDate, " +
+            "i.note AS note, " +
+            "i.damage_code AS damageCode, " +
+            "d.description AS damageDesc " +
+            "FROM (" +
+            "   SELECT id, change_seq, device_number, store_code, inventory_list_id, ident, quantity, exp_date, damage_code, note, status, index_in_list " +
+            "   FROM inventory_items WHERE id > :afterId " +
+            "   UNION ALL " +
+            "   SELECT id, change_seq, device_number, store_code, inventory_list_id, ident, quantity, exp_date, damage_code, note, status, index_in_list " +
+            "   FROM inventory_items_history WHERE id > :afterId" +
+            ") i " +
+            "LEFT JOIN inventory_lists l ON i.inventory_list_id = l.id " +
+            "LEFT JOIN damage_info d ON i.damage_code = d.code " +
+            "ORDER BY i.id " +
+            "LIMIT :limit")
+    List<InventoryExportItem> getInventoryExportPage(long afterId, int limit);
+
+    /**
+     * Same as {@link #getInventoryExportPage(long, int)}, limited to the rows of a single list.
+     */
     @Query("SELECT " +
+            "i.id AS id, " +
+            "i.change_seq AS changeSeq, " +
             "i.device_number AS deviceNumber, " +
             "i.ident AS ident, " +
             "i.index_in_list AS indexInList, " +
@@ -178,37 +225,350 @@ public interface InventoryItemDao {
             "i.note AS note, " +
             "i.damage_code AS damageCode, " +
             "d.description AS damageDesc " +
+            "FROM (" +
+            "   SELECT id, change_seq, device_number, store_code, inventory_list_id, ident, quantity, exp_date, damage_code, note, status, index_in_list " +
+            "   FROM inventory_items WHERE inventory_list_id = :inventoryListId AND id > :afterId " +
+            "   UNION ALL " +
+            "   SELECT id, change_seq, device_number, store_code, inventory_list_id, ident, quantity, exp_date, damage_code, note, status, index_in_list " +
+            "   FROM inventory_items_history WHERE inventory_list_id = :inventoryListId AND id > :afterId" +
+            ") i " +
+            "LEFT JOIN inventory_lists l ON i.inventory_list_id = l.id " +
+            "LEFT JOIN damage_info d ON i.damage_code = d.code " +
+            "ORDER BY i.id " +
+            "LIMIT :limit")
+    List<InventoryExportItem> getInventoryListExportPage(int inventoryListId, long afterId, int limit);
+
+    @Query("SELECT * FROM inventory_lists WHERE item_count > 0 ORDER BY id")
+    List<InventoryList> getInventoryListsWithItems();
+
+    @Query("SELECT * FROM inventory_lists WHERE id = :inventoryListId AND item_count > 0")
+    List<InventoryList> getInventoryListWithItems(int inventoryListId);
+
+    /**
+     * Returns the next page of the netted export, one row per list, article, expiration date and damage code
+     * with the summed quantity. A {@link InventoryItem.Status#VOIDED} row and its {@link InventoryItem.Status#VOID}
+     * negation always sum to zero, so only {@link InventoryItem.Status#NON_VOIDED} rows are aggregated, which also
+     * keeps the notes of voided scans out of the result and leaves the history table out of the query.
+     * <p>
+     * Pages follow the group key, {@code null} and empty expiration dates and damage codes fall into the same group.
+     * </p>
+     *
+     * @param afterListId     List ID of the last exported group, {@code 0} for the first page.
+     * @param afterIdent      Article of the last exported group, empty for the first page.
+     * @param afterExpDate    Expiration date of the last exported group.
+     * @param afterDamageCode Damage code of the last exported group.
+     * @param limit           Maximum number of rows in the page.
+     */
+    @Query("SELECT " +
+            "MIN(i.id) AS id, " +
+            "MAX(i.change_seq) AS changeSeq, " +
+            "MAX(i.device_number) AS deviceNumber, " +
+            "i.ident AS ident, " +
+            "MIN(i.index_in_list) AS indexInList, " +
+            "i.inventory_list_id AS inventoryListId, " +
+            "SUM(i.quantity) AS quantity, " +
+            "MAX(i.store_code) AS storeCode, " +
+            "l.name AS listName, " +
+            "'NON_VOIDED' AS status, " +
+            "NULLIF(COALESCE(i.exp_date, ''), '') AS expDate, " +
+            "GROUP_CONCAT(DISTINCT NULLIF(i.note, '')) AS note, " +
+            "NULLIF(COALESCE(i.damage_code, ''), '') AS damageCode, " +
+            "d.description AS damageDesc " +
             "FROM inventory_items i " +
             "LEFT JOIN inventory_lists l ON i.inventory_list_id = l.id " +
-            "LEFT JOIN damage_info d ON i.damage_code = d.code")
-    List<InventoryExportItem> getAllInventoryData();
+            "LEFT JOIN damage_info d ON i.damage_code = d.code " +
+            "WHERE i.status = 2 " +
+            "AND (i.inventory_list_id, i.ident, COALESCE(i.exp_date, ''), COALESCE(i.damage_code, '')) > " +
+            "(:afterListId, :afterIdent, COALESCE(:afterExpDate, ''), COALESCE(:afterDamageCode, '')) " +
+            "GROUP BY i.inventory_list_id, i.ident, COALESCE(i.exp_date, ''), COALESCE(i.damage_code, '') " +
+            "HAVING SUM(i.quantity) != 0 " +
+            "ORDER BY i.inventory_list_id, i.ident, COALESCE(i.exp_date, ''), COALESCE(i.damage_code, '') " +
+            "LIMIT :limit")
+    List<InventoryExportItem> getNettedExportPage(int afterListId, @NonNull String afterIdent, @Nullable String afterExpDate,
+                                                  @Nullable String afterDamageCode, int limit);
+
+    /**
+     * Returns the next page of rows inserted or edited after the last incremental export, ordered by
+     * their change sequence. The upper bound is fixed when the export starts, so rows edited while it
+     * runs are left for the next export instead of moving the end of the range.
+     *
+     * @param afterSeq Change sequence of the last exported row, the export watermark for the first page.
+     * @param maxSeq   Change sequence at the start of the export.
+     * @param limit    Maximum number of rows in the page.
+     */
+    @Query("SELECT " +
+            "i.id AS id, " +
+            "i.change_seq AS changeSeq, " +
+            "i.device_number AS deviceNumber, " +
+            "i.ident AS ident, " +
+            "i.index_in_list AS indexInList, " +
+            "i.inventory_list_id AS inventoryListId, " +
+            "i.quantity AS quantity, " +
+            "i.store_code AS storeCode, " +
+            "l.name AS listName, " +
+            "CASE i.status " +
+            "   WHEN 0 THEN 'VOID' " +
+            "   WHEN 1 THEN 'VOIDED' " +
+            "   WHEN 2 THEN 'NON_VOIDED' " +
+            "   ELSE 'UNKNOWN' END AS status, " +
+            "i.exp_date AS expDate, " +
+            "i.note AS note, " +
+            "i.damage_code AS damageCode, " +
+            "d.description AS damageDesc " +
+            "FROM (" +
+            "   SELECT id, change_seq, device_number, store_code, inventory_list_id, ident, quantity, exp_date, damage_code, note, status, index_in_list " +
+            "   FROM inventory_items WHERE change_seq > :afterSeq AND change_seq <= :maxSeq " +
+            "   UNION ALL " +
+            "   SELECT id, change_seq, device_number, store_code, inventory_list_id, ident, quantity, exp_date, damage_code, note, status, index_in_list " +
+            "   FROM inventory_items_history WHERE change_seq > :afterSeq AND change_seq <= :maxSeq" +
+            ") i " +
+            "LEFT JOIN inventory_lists l ON i.inventory_list_id = l.id " +
+            "LEFT JOIN damage_info d ON i.damage_code = d.code " +
+            "ORDER BY i.change_seq " +
+            "LIMIT :limit")
+    List<InventoryExportItem> getInventoryChangesPage(long afterSeq, long maxSeq, int limit);
+
+    /**
+     * Returns the current value of the change sequence, the watermark of everything written so far.
+     */
+    @Query("SELECT COALESCE((SELECT value FROM change_sequence WHERE id = 0), 0)")
+    long getCurrentChangeSeq();
+
+    /**
+     * Returns the next page of a snapshot generation in the order of the netted export, read as a
+     * range scan of the primary key.
+     *
+     * @param generation      Snapshot generation to read.
+     * @param afterListId     List ID of the last read aggregate, {@code 0} for the first page.
+     * @param afterIdent      Article of the last read aggregate, empty for the first page.
+     * @param afterExpDate    Expiration date of the last read aggregate, empty if it has none.
+     * @param afterDamageCode Damage code of the last read aggregate, empty if it has none.
+     * @param limit           Maximum number of rows in the page.
+     */
+    @Query("SELECT * FROM export_snapshot " +
+            "WHERE generation = :generation " +
+            "AND (inventory_list_id, ident, exp_date, damage_code) > (:afterListId, :afterIdent, :afterExpDate, :afterDamageCode) " +
+            "ORDER BY inventory_list_id, ident, exp_date, damage_code " +
+            "LIMIT :limit")
+    List<ExportSnapshotItem> getExportSnapshotPage(long generation, int afterListId, @NonNull String afterIdent,
+                                                   @NonNull String afterExpDate, @NonNull String afterDamageCode, int limit);
+
+    /**
+     * Replaces rows that were already written before an interrupted export was resumed.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertExportSnapshotItems(@NonNull List<ExportSnapshotItem> items);
+
+    /**
+     * Removes every snapshot generation except the given one, i.e. replaced snapshots and
+     * rows of exports that were never published.
+     */
+    @Query("DELETE FROM export_snapshot WHERE generation != :generation")
+    void deleteExportSnapshotsExcept(long generation);
+
+    /**
+     * Stages imported rows for consolidation. Rows whose scan is already staged replace it,
+     * so the file imported last wins.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertConsolidationItems(@NonNull List<ConsolidationItem> items);
+
+    @Query("SELECT COUNT(*) FROM consolidation_items")
+    int getConsolidationItemCount();
 
+    @Query("DELETE FROM consolidation_items")
+    void deleteConsolidationItems();
 
-    @Query("SELECT EXISTS(SELECT 1 FROM inventory_items)")
+    /**
+     * Returns the next page of the combined export of all staged rows, ordered by their primary key.
+     *
+     * @param afterDeviceNumber Device of the last exported row, empty for the first page.
+     * @param afterListId       List ID of the last exported row, {@code 0} for the first page.
+     * @param afterIndexInList  Index of the last exported row, {@code 0} for the first page.
+     * @param limit             Maximum number of rows in the page.
+     */
+    @Query("SELECT " +
+            "device_number AS deviceNumber, " +
+            "ident AS ident, " +
+            "index_in_list AS indexInList, " +
+            "inventory_list_id AS inventoryListId, " +
+            "quantity AS quantity, " +
+            "store_code AS storeCode, " +
+            "list_name AS listName, " +
+            "status AS status, " +
+            "exp_date AS expDate, " +
+            "note AS note, " +
+            "damage_code AS damageCode, " +
+            "damage_desc AS damageDesc " +
+            "FROM consolidation_items " +
+            "WHERE (device_number, inventory_list_id, index_in_list) > (:afterDeviceNumber, :afterListId, :afterIndexInList) " +
+            "ORDER BY device_number, inventory_list_id, index_in_list " +
+            "LIMIT :limit")
+    List<InventoryExportItem> getConsolidationExportPage(@NonNull String afterDeviceNumber, int afterListId, int afterIndexInList, int limit);
+
+    /**
+     * Returns the next page of consolidated per-article totals of all staged rows, with the ERP quantity
+     * from the master data and the variance between them. Void pairs cancel out in the sum.
+     * The groups are read in the order of the {@code ident} index.
+     *
+     * @param afterIdent Article of the last returned total, empty for the first page.
+     * @param limit      Maximum number of rows in the page.
+     */
+    @Query("SELECT " +
+            "c.ident AS ident, " +
+            "MAX(m.name) AS name, " +
+            "SUM(c.quantity) AS quantity, " +
+            "COALESCE(MAX(m.quantity_erp), 0) AS quantityErp, " +
+            "SUM(c.quantity) - COALESCE(MAX(m.quantity_erp), 0) AS variance, " +
+            "COUNT(DISTINCT c.device_number) AS deviceCount, " +
+            "COUNT(*) AS rowCount " +
+            "FROM consolidation_items c " +
+            "LEFT JOIN master_items m ON c.ident = m.ident " +
+            "WHERE c.ident > :afterIdent " +
+            "GROUP BY c.ident " +
+            "ORDER BY c.ident " +
+            "LIMIT :limit")
+    List<ConsolidatedTotal> getConsolidatedTotalsPage(@NonNull String afterIdent, int limit);
+
+
+    @Query("SELECT EXISTS(SELECT 1 FROM inventory_items) OR EXISTS(SELECT 1 FROM inventory_items_history)")
     boolean checkIfAnyInventoryItemExists();
 
+    /**
+     * Moves all finished void pairs out of the live table into {@code inventory_items_history}.
+     * <p>
+     * A {@link InventoryItem.Status#VOIDED} row and its {@link InventoryItem.Status#VOID} negation are
+     * always written in the same transaction, so every VOID or VOIDED row belongs to a finished pair.
+     * The list counters don't change, because the history table has its own counter triggers.
+     * </p>
+     *
+     * @param archivedAt Time of the compaction in milliseconds.
+     * @return The number of rows moved to the history table.
+     */
+    @Transaction
+    default int compactVoidedItems(long archivedAt) {
+        archiveVoidedItems(archivedAt);
+        return deleteVoidedItems();
+    }
+
+    @Query("INSERT INTO inventory_items_history (" +
+            "id, device_number, store_code, inventory_list_id, ident, quantity, exp_date, damage_code, note, status, index_in_list, " +
+            "created_at, change_seq, archived_at" +
+            ") " +
+            "SELECT id, device_number, store_code, inventory_list_id, ident, quantity, exp_date, damage_code, note, status, index_in_list, " +
+            "created_at, change_seq, :archivedAt " +
+            "FROM inventory_items WHERE status IN (0, 1)")
+    void archiveVoidedItems(long archivedAt);
+
+    @Query("DELETE FROM inventory_items WHERE status IN (0, 1)")
+    int deleteVoidedItems();
+
+    @Query("SELECT COUNT(*) FROM inventory_items WHERE status IN (0, 1)")
+    int getVoidedItemCount();
+
     @Transaction
     default void voidItem(long id, int newIndex) {
         markAsVoided(id);
-        insertNegatedItemWithIndex(id, newIndex);
+        insertNegatedItemWithIndex(id, newIndex, System.currentTimeMillis());
+    }
+
+    /**
+     * Voids all given inventory items in a single transaction.
+     * <p>
+     * Every id must point to an existing {@link InventoryItem.Status#NON_VOIDED} item of the same
+     * inventory list, otherwise nothing is written. Negated rows get consecutive indexes
+     * allocated after the current maximum index of the list.
+     *
+     * @param ids The ids of the inventory items to void.
+     * @throws ScannerReaderError if an item is missing or already voided, or the items belong to different lists.
+     */
+    @Transaction
+    default void voidItems(@NonNull List<Long> ids) {
+        List<InventoryItem> items = getInventoryItemsByIds(ids);
+        validateNonVoidedItems(ids, items);
+
+        int newIndex = getMaxIndexInList(items.get(0).getInventoryListId());
+        long createdAt = System.currentTimeMillis();
+        for (InventoryItem item : items) {
+            markAsVoided(item.getId());
+            insertNegatedItemWithIndex(item.getId(), ++newIndex, createdAt);
+        }
+    }
+
+    /**
+     * Applies the same additional data to all given inventory items in a single transaction.
+     * <p>
+     * A field passed as {@code null} keeps the value every item already has, so a field left empty
+     * doesn't wipe different dates or notes of the selected items. Only with {@code clearEmptyFields}
+     * the {@code null} fields are cleared on all items.
+     * </p>
+     *
+     * @param ids              The ids of the inventory items to update.
+     * @param expDate          Expiration date to set, or {@code null} to keep or clear it.
+     * @param damageCode       Damage code to set, or {@code null} to keep or clear it.
+     * @param note             Note to set, or {@code null} to keep or clear it.
+     * @param clearEmptyFields {@code true} to clear the fields passed as {@code null}.
+     * @return The number of updated rows.
+     * @throws ScannerReaderError if an item is missing or already voided, or the items belong to different lists.
+     */
+    @Transaction
+    default int updateItemsAdditionalData(@NonNull List<Long> ids, @Nullable String expDate,
+                                          @Nullable String damageCode, @Nullable String note, boolean clearEmptyFields) {
+        validateNonVoidedItems(ids, getInventoryItemsByIds(ids));
+        return clearEmptyFields
+                ? updateAdditionalData(ids, expDate, damageCode, note)
+                : mergeAdditionalData(ids, expDate, damageCode, note);
+    }
+
+    /**
+     * Checks that every requested id was loaded, that none of the loaded items is voided
+     * and that all of them belong to the same inventory list.
+     */
+    private static void validateNonVoidedItems(@NonNull List<Long> ids, @NonNull List<InventoryItem> items) {
+        if (ids.isEmpty() || items.size() != new HashSet<>(ids).size()) {
+            throw new ScannerReaderError(ScannerReaderError.ITEM_NOT_FOUND);
+        }
+
+        int inventoryListId = items.get(0).getInventoryListId();
+        for (InventoryItem item : items) {
+            if (item.getStatus() != InventoryItem.Status.NON_VOIDED.getStatusVal()) {
+                throw new ScannerReaderError(ScannerReaderError.ALREADY_VOIDED);
+            }
+            if (item.getInventoryListId() != inventoryListId) {
+                throw new ScannerReaderError(ScannerReaderError.MIXED_INVENTORY_LISTS);
+            }
+        }
     }
 
     @Query("SELECT * FROM inventory_items WHERE id = :id")
     InventoryItem getInventoryItemById(long id);
 
+    @Query("SELECT * FROM inventory_items WHERE id IN (:ids) ORDER BY index_in_list ASC")
+    List<InventoryItem> getInventoryItemsByIds(List<Long> ids);
+
+    @Query("UPDATE inventory_items SET exp_date = :expDate, damage_code = :damageCode, note = :note " +
+            "WHERE id IN (:ids) AND status = 2")
+    int updateAdditionalData(List<Long> ids, @Nullable String expDate, @Nullable String damageCode, @Nullable String note);
+
+    @Query("UPDATE inventory_items SET exp_date = COALESCE(:expDate, exp_date), damage_code = COALESCE(:damageCode, damage_code), " +
+            "note = COALESCE(:note, note) WHERE id IN (:ids) AND status = 2")
+    int mergeAdditionalData(List<Long> ids, @Nullable String expDate, @Nullable String damageCode, @Nullable String note);
+
     @Query("UPDATE inventory_items SET status = 1 WHERE id = :id AND status = 2")
     void markAsVoided(long id);
 
     @Query(
             "INSERT INTO inventory_items (" +
-                    "    device_number, store_code, inventory_list_id, ident, quantity, exp_date, damage_code, note, status, index_in_list" +
+                    "    device_number, store_code, inventory_list_id, ident, quantity, exp_date, damage_code, note, status, index_in_list, created_at" +
                     ") " +
                     "SELECT " +
-                    "    device_number, store_code, inventory_list_id, ident, -quantity, exp_date, damage_code, note, 0, :newIndexInList " +
+                    "    device_number, store_code, inventory_list_id, ident, -quantity, exp_date, damage_code, note, 0, :newIndexInList, :createdAt " +
                     "FROM inventory_items WHERE id = :id"
     )
-    void insertNegatedItemWithIndex(long id, int newIndexInList);
+    void insertNegatedItemWithIndex(long id, int newIndexInList, long createdAt);
 
-    @Query("SELECT COALESCE(MAX(index_in_list), 0) FROM inventory_items WHERE inventory_list_id = :inventoryListId")
+    @Query("SELECT MAX(" +
+            "(SELECT COALESCE(MAX(index_in_list), 0) FROM inventory_items WHERE inventory_list_id = :inventoryListId), " +
+            "(SELECT COALESCE(MAX(index_in_list), 0) FROM inventory_items_history WHERE inventory_list_id = :inventoryListId))")
     int getMaxIndexInList(int inventoryListId);
 }
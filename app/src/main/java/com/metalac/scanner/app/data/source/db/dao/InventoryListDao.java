@@ -4,7 +4,6 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.Query;
 import androidx.room.Transaction;
-import androidx.room.Update;
 
 import com.metalac.scanner.app.models.InventoryList;
 import com.metalac.scanner.app.models.InventoryListWithCount;
@@ -17,10 +16,7 @@ public interface InventoryListDao {
     @Insert
     long insert(InventoryList item);
 
-    @Query("SELECT il.*, COUNT(ii.id) AS count " +
-            "FROM inventory_lists il " +
-            "LEFT JOIN inventory_items ii ON il.id = ii.inventory_list_id " +
-            "GROUP BY il.id")
+    @Query("SELECT il.*, il.item_count AS count FROM inventory_lists il")
     List<InventoryListWithCount> getAllInventoryListsWithItemCount();
 
     @Query("SELECT * FROM inventory_lists WHERE id = :inventoryListId")
@@ -29,12 +25,30 @@ public interface InventoryListDao {
     @Query("SELECT * FROM inventory_lists WHERE selected = 1")
     InventoryList getCurrentList();
 
-    @Update
-    int updateInventoryList(InventoryList inventoryList);
+    /**
+     * Makes the given list the only selected one. Only the {@code selected} column is written, so neither
+     * the name nor the item counters maintained by the database triggers are overwritten with stale values.
+     *
+     * @return The number of selected lists, {@code 0} if the list doesn't exist anymore.
+     */
+    @Transaction
+    default int selectInventoryList(int inventoryListId) {
+        clearSelection();
+        return updateSelection(inventoryListId, 1);
+    }
+
+    @Query("UPDATE inventory_lists SET selected = 0 WHERE selected = 1")
+    void clearSelection();
+
+    @Query("UPDATE inventory_lists SET selected = :selected WHERE id = :inventoryListId")
+    int updateSelection(int inventoryListId, int selected);
 
     @Query("DELETE FROM inventory_lists")
     void deleteAllInventoryListData();
 
+    @Query("DELETE FROM inventory_lists WHERE id = :inventoryListId")
+    int deleteInventoryList(int inventoryListId);
+
     @Query("DELETE FROM sqlite_sequence WHERE name = 'inventory_lists'")
     void resetInventoryListData();
 
@@ -1,16 +1,23 @@
 package com.metalac.scanner.app.data.source.db.dao;
 
-import androidx.annotation.Nullable;
-import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.RawQuery;
+import androidx.room.Transaction;
 import androidx.room.Update;
 import androidx.room.Upsert;
+import androidx.sqlite.db.SupportSQLiteQuery;
 
 import com.metalac.scanner.app.models.DamageInfo;
 import com.metalac.scanner.app.models.MasterItem;
+import com.metalac.scanner.app.models.MasterItemFacet;
+import com.metalac.scanner.app.models.MasterItemTrigram;
+import com.metalac.scanner.app.utils.Utils;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Dao
@@ -33,40 +40,66 @@ public interface MasterItemDao {
     @Upsert
     void upsertAll(List<MasterItem> masterItems);
 
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertCodeTrigrams(List<MasterItemTrigram> trigrams);
+
+    @Query("DELETE FROM master_item_trigrams")
+    void clearCodeTrigrams();
+
+    @Query("DELETE FROM master_item_facets")
+    void clearFacets();
+
+    @Query("INSERT INTO master_item_facets (unit_of_measure, active, accounting, price_band, item_count) " +
+            "SELECT IFNULL(unit_of_measure, ''), active, accounting, " + MasterItemFacet.PRICE_BAND_EXPRESSION + " AS band, COUNT(*) " +
+            "FROM master_items GROUP BY IFNULL(unit_of_measure, ''), active, accounting, band")
+    void insertFacetsOfCatalog();
+
+    /**
+     * Returns the number of master items per facet combination, from a query built by {@code SearchQueryBuilder}.
+     */
+    @RawQuery
+    List<MasterItemFacet> getFacets(SupportSQLiteQuery query);
+
+    @Query("SELECT * FROM master_items WHERE ident > :afterIdent ORDER BY ident LIMIT :limit")
+    List<MasterItem> getItemsPageAfter(String afterIdent, int limit);
+
+    @Query("SELECT * FROM master_items WHERE ident >= :fromIdent ORDER BY ident LIMIT :limit")
+    List<MasterItem> getItemsPageFrom(String fromIdent, int limit);
+
+    @Query("SELECT * FROM master_items WHERE ident < :beforeIdent ORDER BY ident DESC LIMIT :limit")
+    List<MasterItem> getItemsPageBefore(String beforeIdent, int limit);
+
+    /**
+     * Upserts the imported master items with the search keys of their names and rebuilds the trigram
+     * index of the codes of the whole catalog, page by page, and the facet summary in the same transaction.
+     */
+    @Transaction
+    default void importMasterItems(List<MasterItem> masterItems) {
+        for (MasterItem masterItem : masterItems) {
+            masterItem.setSearchName(Utils.toSearchKey(masterItem.getName()));
+        }
+        upsertAll(masterItems);
+        clearCodeTrigrams();
+
+        List<MasterItem> page = getItemsPageAfter("", Utils.EXPORT_PAGE_SIZE);
+        while (!page.isEmpty()) {
+            List<MasterItemTrigram> trigrams = new ArrayList<>();
+            for (MasterItem masterItem : page) {
+                trigrams.addAll(MasterItemTrigram.fromMasterItem(masterItem));
+            }
+            insertCodeTrigrams(trigrams);
+            page = getItemsPageAfter(page.get(page.size() - 1).getIdent(), Utils.EXPORT_PAGE_SIZE);
+        }
+
+        clearFacets();
+        insertFacetsOfCatalog();
+    }
+
     @Upsert
     void upsertDamageInfo(List<DamageInfo> damageInfo);
 
-    @Query("SELECT * FROM master_items " +
-            "WHERE (:ident IS NULL OR ident LIKE '%' || :ident || '%') " +
-            "AND (:barcode IS NULL OR barcode LIKE '%' || :barcode || '%') " +
-            "AND (:active IS NULL OR active = :active) " +
-            "AND (:accounting IS NULL OR accounting = :accounting) " +
-            "AND (:unitOfMeasure IS NULL OR unit_of_measure = :unitOfMeasure) " +
-            "AND (:price IS NULL OR price = :price) " +
-            "AND (:altCode1 IS NULL OR alt_code_1 LIKE '%' || :altCode1 || '%') " +
-            "AND (:altCode2 IS NULL OR alt_code_2 = :altCode2) " +
-            "AND (:salesProgram IS NULL OR sales_program LIKE '%' || :salesProgram || '%') " +
-            "AND (:purchaseProgram IS NULL OR purchase_program = :purchaseProgram) " +
-            "AND (:name IS NULL OR name LIKE '%' || :name || '%')" +
-            "AND (:filterText IS NULL OR name LIKE '%' || :filterText || '%') "
-    )
-    PagingSource<Integer, MasterItem> getFilteredItems(
-            @Nullable String ident,
-            @Nullable String barcode,
-            @Nullable String altCode1,
-            @Nullable String altCode2,
-            @Nullable String salesProgram,
-            @Nullable String purchaseProgram,
-            @Nullable String unitOfMeasure,
-            @Nullable String name,
-            @Nullable Integer active,
-            @Nullable Integer accounting,
-            @Nullable Double price,
-            @Nullable String filterText
-    );
-
-    @Query("SELECT * FROM master_items")
-    PagingSource<Integer, MasterItem> getAllPaged();
+    @Query("SELECT * FROM master_items WHERE ident IN (:idents)")
+    List<MasterItem> getItemsByIdents(List<String> idents);
 
     @Query("SELECT * FROM master_items WHERE ident = :ident")
     MasterItem getItemByIdent(String ident);
@@ -80,6 +113,13 @@ public interface MasterItemDao {
     @Query("SELECT description FROM damage_info WHERE code = :code")
     String getDamageNameByCode(String code);
 
+    @Query("SELECT ident FROM master_items")
+    List<String> getAllIdents();
+
+    @Query("SELECT alt_code_1 FROM master_items WHERE alt_code_1 IS NOT NULL " +
+            "UNION SELECT alt_code_2 FROM master_items WHERE alt_code_2 IS NOT NULL")
+    List<String> getAllAltCodes();
+
     @Query("SELECT * FROM master_items WHERE alt_code_1 = :altId1")
     MasterItem getItemByAltId1(String altId1);
 
@@ -0,0 +1,99 @@
+package com.metalac.scanner.app.data.source.export;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.metalac.scanner.app.models.InventoryExportItem;
+import com.metalac.scanner.app.utils.Utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the rows as UTF-8 CSV according to RFC 4180: a header line, comma separated fields,
+ * CRLF line endings and double quotes around fields that contain a separator, quote or line break.
+ * Quantities are written with a decimal point, exactly as stored.
+ */
+public class CsvExportSink implements ExportSink {
+    private static final char SEPARATOR = ',';
+    private static final String LINE_END = "\r\n";
+    private static final String[] HEADER = {
+            "deviceNumber", "storeCode", "inventoryListId", "listName", "indexInList", "ident",
+            "quantity", "status", "expDate", "damageCode", "damageDesc", "note"
+    };
+
+    private final Writer mWriter;
+
+    public CsvExportSink(@NonNull OutputStream out) {
+        mWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void begin() throws IOException {
+        writeRecord(HEADER);
+    }
+
+    @Override
+    public void write(@NonNull InventoryExportItem item) throws IOException {
+        writeRecord(new String[]{
+                item.getDeviceNumber(),
+                item.getStoreCode(),
+                String.valueOf(item.getInventoryListId()),
+                item.getListName(),
+                String.valueOf(item.getIndexInList()),
+                item.getIdent(),
+                Utils.getQuantityString(item.getQuantity()),
+                item.getStatus(),
+                item.getExpDate(),
+                item.getDamageCode(),
+                item.getDamageDesc(),
+                item.getNote()
+        });
+    }
+
+    @Override
+    public void resume() {
+        // The header was written before the file was interrupted
+    }
+
+    @Override
+    public void flush() throws IOException {
+        mWriter.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        mWriter.flush();
+    }
+
+    private void writeRecord(@NonNull String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                mWriter.write(SEPARATOR);
+            }
+            writeField(fields[i]);
+        }
+        mWriter.write(LINE_END);
+    }
+
+    private void writeField(@Nullable String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        boolean quote = value.indexOf(SEPARATOR) >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            mWriter.write(value);
+            return;
+        }
+
+        mWriter.write('"');
+        mWriter.write(value.replace("\"", "\"\""));
+        mWriter.write('"');
+    }
+}
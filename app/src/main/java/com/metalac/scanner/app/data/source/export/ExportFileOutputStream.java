@@ -0,0 +1,62 @@
+package com.metalac.scanner.app.data.source.export;
+
+import androidx.annotation.NonNull;
+
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+
+/**
+ * Stream into an export file that counts the written bytes and calculates their checksum,
+ * so the file can be verified after it is closed.
+ * <p>
+ * {@link #sync()} forces the written bytes to storage, which makes them a safe point to resume
+ * an interrupted export from.
+ * </p>
+ */
+public class ExportFileOutputStream extends FilterOutputStream {
+    private final FileOutputStream mFileOut;
+    private final MessageDigest mDigest;
+    private long mByteCount;
+
+    /**
+     * @param fileOut   Stream of the export file, positioned at {@code byteCount}.
+     * @param digest    Digest that already contains the first {@code byteCount} bytes of the file.
+     * @param byteCount Number of bytes already in the file.
+     */
+    public ExportFileOutputStream(@NonNull FileOutputStream fileOut, @NonNull MessageDigest digest, long byteCount) {
+        super(fileOut);
+        mFileOut = fileOut;
+        mDigest = digest;
+        mByteCount = byteCount;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        mDigest.update((byte) b);
+        mByteCount++;
+    }
+
+    @Override
+    public void write(@NonNull byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        mDigest.update(b, off, len);
+        mByteCount += len;
+    }
+
+    public long getByteCount() {
+        return mByteCount;
+    }
+
+    @NonNull
+    public byte[] getDigest() {
+        return mDigest.digest();
+    }
+
+    public void sync() throws IOException {
+        flush();
+        mFileOut.getFD().sync();
+    }
+}
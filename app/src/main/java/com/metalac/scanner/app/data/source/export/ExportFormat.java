@@ -0,0 +1,57 @@
+package com.metalac.scanner.app.data.source.export;
+
+import androidx.annotation.NonNull;
+
+import java.io.OutputStream;
+
+/**
+ * File formats the inventory data can be exported in, together with their file extension and MIME type.
+ */
+public enum ExportFormat {
+    JSON(".json", "application/json"),
+    CSV(".csv", "text/csv"),
+    FIXED_WIDTH(".txt", "text/plain");
+
+    private final String extension;
+    private final String mimeType;
+
+    ExportFormat(String extension, String mimeType) {
+        this.extension = extension;
+        this.mimeType = mimeType;
+    }
+
+    @NonNull
+    public String getExtension() {
+        return extension;
+    }
+
+    @NonNull
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * Creates a sink that writes rows in this format into the given stream.
+     */
+    @NonNull
+    public ExportSink createSink(@NonNull OutputStream out) {
+        switch (this) {
+            case CSV:
+                return new CsvExportSink(out);
+            case FIXED_WIDTH:
+                return new FixedWidthExportSink(out);
+            default:
+                return new JsonExportSink(out);
+        }
+    }
+
+    @NonNull
+    public static ExportFormat fromName(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equals(name)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,13 @@
+package com.metalac.scanner.app.data.source.export;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a background export when it stops at a checkpoint instead of writing the next rows.
+ * The pending file and the checkpoint are kept, so the export can be resumed later.
+ */
+public class ExportPausedException extends IOException {
+    public ExportPausedException() {
+        super("Export paused");
+    }
+}
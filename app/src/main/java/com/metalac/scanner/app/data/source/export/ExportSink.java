@@ -0,0 +1,41 @@
+package com.metalac.scanner.app.data.source.export;
+
+import androidx.annotation.NonNull;
+
+import com.metalac.scanner.app.models.InventoryExportItem;
+
+import java.io.IOException;
+
+/**
+ * Writes a stream of export rows into an export file in a specific format.
+ * <p>
+ * Rows are passed one at a time and written through a buffered writer, so a sink never holds
+ * more than a single row in memory. {@link #finish()} flushes the remaining output, but doesn't
+ * close the underlying stream, which belongs to the caller.
+ * </p>
+ */
+public interface ExportSink {
+
+    /**
+     * Writes everything that precedes the first row, e.g. a header or an opening bracket.
+     */
+    void begin() throws IOException;
+
+    /**
+     * Continues a partially written file instead of {@link #begin()}. The file already contains the
+     * output of {@code begin()} and at least one row, so the next row is written as a following row.
+     */
+    void resume() throws IOException;
+
+    void write(@NonNull InventoryExportItem item) throws IOException;
+
+    /**
+     * Flushes the rows written so far, so the file ends on a complete row and can be resumed from there.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Writes everything that follows the last row and flushes the output.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,148 @@
+package com.metalac.scanner.app.data.source.export;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.metalac.scanner.app.R;
+import com.metalac.scanner.app.ScannerReaderApplication;
+import com.metalac.scanner.app.models.InventoryExportItem;
+import com.metalac.scanner.app.utils.Utils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the rows as fixed-width records for the legacy back office import, one CRLF terminated
+ * line per row and no header.
+ * <p>
+ * The file is encoded in windows-1250, so every character of the Serbian Latin alphabet takes a single
+ * byte and the column positions are byte positions. Text columns are left aligned and padded with
+ * spaces, numeric columns are right aligned. Line breaks are replaced with spaces, so a record never
+ * spans more than one line.
+ * </p>
+ * <p>
+ * A value that is longer than its column or contains a character windows-1250 can't encode fails the
+ * export with an {@link IOException} naming the column and the article. Cutting or replacing it could
+ * turn two different articles into the same record, which the back office would accept.
+ * </p>
+ * <pre>
+ * column          width  alignment
+ * deviceNumber        5  left
+ * storeCode          12  left
+ * inventoryListId     6  right, zero padded
+ * indexInList         6  right, zero padded
+ * ident              20  left
+ * quantity           14  right, 3 decimal places
+ * status             10  left
+ * expDate            10  left
+ * damageCode         10  left
+ * listName           30  left
+ * note               60  left
+ * </pre>
+ */
+public class FixedWidthExportSink implements ExportSink {
+    private static final Charset CHARSET = Charset.forName("windows-1250");
+    private static final byte[] LINE_END = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream mOut;
+    private final CharsetEncoder mEncoder = CHARSET.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    /**
+     * Ident of the row being written, for the error messages.
+     */
+    private String mIdent;
+
+    public FixedWidthExportSink(@NonNull OutputStream out) {
+        mOut = new BufferedOutputStream(out);
+    }
+
+    @Override
+    public void begin() {
+        // Fixed-width records have no header
+    }
+
+    @Override
+    public void write(@NonNull InventoryExportItem item) throws IOException {
+        mIdent = item.getIdent();
+        writeText("deviceNumber", item.getDeviceNumber(), 5);
+        writeText("storeCode", item.getStoreCode(), 12);
+        writeNumber("inventoryListId", item.getInventoryListId(), 6);
+        writeNumber("indexInList", item.getIndexInList(), 6);
+        writeText("ident", item.getIdent(), 20);
+        writeRightAligned("quantity", BigDecimal.valueOf(item.getQuantity(), Utils.QUANTITY_DECIMAL_PLACES).toPlainString(), 14);
+        writeText("status", item.getStatus(), 10);
+        writeText("expDate", item.getExpDate(), 10);
+        writeText("damageCode", item.getDamageCode(), 10);
+        writeText("listName", item.getListName(), 30);
+        writeText("note", item.getNote(), 60);
+        mOut.write(LINE_END);
+    }
+
+    @Override
+    public void resume() {
+        // Records don't depend on each other, so writing just continues
+    }
+
+    @Override
+    public void flush() throws IOException {
+        mOut.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        mOut.flush();
+    }
+
+    private void writeText(@NonNull String column, @Nullable String value, int width) throws IOException {
+        ByteBuffer bytes = encode(column, value == null ? "" : value.replace('\r', ' ').replace('\n', ' '), width);
+        mOut.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        writePadding(' ', width - bytes.remaining());
+    }
+
+    private void writeNumber(@NonNull String column, int value, int width) throws IOException {
+        ByteBuffer bytes = encode(column, String.valueOf(value), width);
+        writePadding('0', width - bytes.remaining());
+        mOut.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+    }
+
+    private void writeRightAligned(@NonNull String column, @NonNull String text, int width) throws IOException {
+        ByteBuffer bytes = encode(column, text, width);
+        writePadding(' ', width - bytes.remaining());
+        mOut.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+    }
+
+    /**
+     * Encodes the value of a column, failing if it can't be encoded or doesn't fit into {@code width} bytes.
+     */
+    @NonNull
+    private ByteBuffer encode(@NonNull String column, @NonNull String text, int width) throws IOException {
+        ByteBuffer bytes;
+        try {
+            bytes = mEncoder.encode(CharBuffer.wrap(text));
+        } catch (CharacterCodingException e) {
+            throw new IOException(ScannerReaderApplication.getAppContext()
+                    .getString(R.string.fixed_width_unsupported_characters, column, mIdent), e);
+        }
+        if (bytes.remaining() > width) {
+            throw new IOException(ScannerReaderApplication.getAppContext()
+                    .getString(R.string.fixed_width_value_too_long, column, mIdent, width));
+        }
+        return bytes;
+    }
+
+    private void writePadding(char padding, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            mOut.write(padding);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.metalac.scanner.app.data.source.export;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.metalac.scanner.app.models.InventoryExportItem;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the rows as a JSON array of the {@link com.google.gson.annotations.Expose}d fields of
+ * {@link InventoryExportItem}, the format the ERP has always imported.
+ * <p>
+ * The array brackets and separators are written directly, so a partially written array can be
+ * continued after the last complete row.
+ * </p>
+ */
+public class JsonExportSink implements ExportSink {
+    private final Gson mGson;
+    private final Writer mWriter;
+    private boolean mHasRows;
+
+    public JsonExportSink(@NonNull OutputStream out) {
+        mGson = new GsonBuilder()
+                .excludeFieldsWithoutExposeAnnotation()
+                .create();
+        mWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void begin() throws IOException {
+        mWriter.write('[');
+    }
+
+    @Override
+    public void resume() {
+        mHasRows = true;
+    }
+
+    @Override
+    public void write(@NonNull InventoryExportItem item) throws IOException {
+        if (mHasRows) {
+            mWriter.write(',');
+        }
+        mGson.toJson(item, InventoryExportItem.class, mWriter);
+        mHasRows = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        mWriter.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        mWriter.write(']');
+        mWriter.flush();
+    }
+}
@@ -0,0 +1,96 @@
+package com.metalac.scanner.app.data.source.export;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.metalac.scanner.app.data.source.interfaces.InventoryItemDataSource;
+import com.metalac.scanner.app.models.InventoryExportItem;
+
+/**
+ * State of a single-file export that is written into a pending MediaStore file but not published yet.
+ * <p>
+ * It is saved in preferences whenever the written rows are synced to storage, so after a crash the
+ * export continues after {@link #getLastItem()} instead of starting over. Only uncompressed exports
+ * can be resumed, a gzip stream can't be continued from an arbitrary position.
+ * </p>
+ */
+public class PendingExport {
+    private final String uri;
+    private final InventoryItemDataSource.ExportMode exportMode;
+    private final ExportFormat format;
+    private final boolean compressed;
+    private final long maxChangeSeq;
+    private final long snapshotGeneration;
+    private long byteCount;
+    @Nullable
+    private InventoryExportItem lastItem;
+
+    public PendingExport(@NonNull String uri, @NonNull InventoryItemDataSource.ExportMode exportMode,
+                         @NonNull ExportFormat format, boolean compressed, long maxChangeSeq, long snapshotGeneration) {
+        this.uri = uri;
+        this.exportMode = exportMode;
+        this.format = format;
+        this.compressed = compressed;
+        this.maxChangeSeq = maxChangeSeq;
+        this.snapshotGeneration = snapshotGeneration;
+    }
+
+    /**
+     * Checks whether an export with the given settings can continue this pending file.
+     */
+    public boolean canResume(@NonNull InventoryItemDataSource.ExportMode exportMode, @NonNull ExportFormat format, boolean compressed) {
+        return this.exportMode == exportMode && this.format == format && !this.compressed && !compressed
+                && lastItem != null && byteCount > 0;
+    }
+
+    /**
+     * Records that the first {@code byteCount} bytes of the file are synced and end after {@code lastItem}.
+     */
+    public void setCheckpoint(long byteCount, @NonNull InventoryExportItem lastItem) {
+        this.byteCount = byteCount;
+        this.lastItem = lastItem;
+    }
+
+    @NonNull
+    public String getUri() {
+        return uri;
+    }
+
+    @NonNull
+    public InventoryItemDataSource.ExportMode getExportMode() {
+        return exportMode;
+    }
+
+    @NonNull
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Change sequence read when the export started, stored as the watermark once it is published.
+     */
+    public long getMaxChangeSeq() {
+        return maxChangeSeq;
+    }
+
+    /**
+     * Snapshot generation written by this export, which becomes the current snapshot once it is
+     * published, or {@code 0} if the export doesn't write a snapshot.
+     */
+    public long getSnapshotGeneration() {
+        return snapshotGeneration;
+    }
+
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    @Nullable
+    public InventoryExportItem getLastItem() {
+        return lastItem;
+    }
+}
@@ -0,0 +1,94 @@
+package com.metalac.scanner.app.data.source.export;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+
+import com.metalac.scanner.app.Injection;
+import com.metalac.scanner.app.data.source.PrefManager;
+import com.metalac.scanner.app.data.source.interfaces.InventoryItemDataSource;
+import com.metalac.scanner.app.data.source.repositories.InventoryItemRepository;
+import com.metalac.scanner.app.helpers.DateHelper;
+import com.metalac.scanner.app.view.ScannerReaderError;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic job that exports the rows changed since the last export in the background.
+ * <p>
+ * The job is persisted by the system, so it keeps running after a reboot, and only runs while the
+ * battery and storage aren't low. A paused export is rescheduled with the system backoff and continues
+ * from its checkpoint, see {@link InventoryItemDataSource#exportDataInBackground}.
+ * </p>
+ */
+public class ScheduledExportJobService extends JobService {
+    private static final int JOB_ID = 1001;
+    private static final long EXPORT_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+    private static final long PAUSE_BACKOFF_MS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * Schedules the periodic export, replacing an already scheduled one.
+     */
+    public static void schedule(@NonNull Context context) {
+        JobInfo.Builder builder = new JobInfo.Builder(JOB_ID, new ComponentName(context, ScheduledExportJobService.class))
+                .setPeriodic(EXPORT_INTERVAL_MS)
+                .setPersisted(true)
+                .setRequiresBatteryNotLow(true)
+                .setRequiresStorageNotLow(true)
+                .setBackoffCriteria(PAUSE_BACKOFF_MS, JobInfo.BACKOFF_POLICY_LINEAR);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            builder.setPriority(JobInfo.PRIORITY_LOW);
+        }
+        context.getSystemService(JobScheduler.class).schedule(builder.build());
+    }
+
+    public static void cancel(@NonNull Context context) {
+        context.getSystemService(JobScheduler.class).cancel(JOB_ID);
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        if (!PrefManager.isScheduledExportEnabled()) {
+            return false;
+        }
+
+        getRepository().exportDataInBackground(InventoryItemDataSource.ExportMode.CHANGES,
+                new InventoryItemDataSource.IOnBackgroundExportCallback() {
+                    @Override
+                    public void onItemsLoaded() {
+                        PrefManager.setLastDataExportDate(DateHelper.formatDateToString(new Date()));
+                        jobFinished(params, false);
+                    }
+
+                    @Override
+                    public void onFailToLoadItems(@NonNull ScannerReaderError scannerReaderError) {
+                        // Nothing changed or the export failed, the next period tries again
+                        jobFinished(params, false);
+                    }
+
+                    @Override
+                    public void onExportPaused() {
+                        jobFinished(params, true);
+                    }
+                });
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        getRepository().pauseBackgroundExport();
+        return true;
+    }
+
+    @NonNull
+    private InventoryItemRepository getRepository() {
+        return Injection.provideInventoryItemRepository(getApplicationContext());
+    }
+}
@@ -1,12 +1,17 @@
 package com.metalac.scanner.app.data.source.interfaces;
 
+import android.net.Uri;
+
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.metalac.scanner.app.models.ArticleListTotal;
 import com.metalac.scanner.app.models.InventoryItem;
 import com.metalac.scanner.app.models.ProductPreviewItem;
 import com.metalac.scanner.app.view.ScannerReaderError;
 
 import java.util.List;
+import java.util.Set;
 
 public interface InventoryItemDataSource {
 
@@ -18,14 +23,34 @@ public interface InventoryItemDataSource {
 
     void voidInventoryItem(long id, @NonNull IVoidItemCallback iVoidItemCallback);
 
+    void voidInventoryItems(@NonNull Set<Long> ids, @NonNull IVoidItemCallback iVoidItemCallback);
+
+    void updateInventoryItemsAdditionalData(@NonNull Set<Long> ids, @Nullable String expDate, @Nullable String damageCode,
+                                            @Nullable String note, boolean clearEmptyFields,
+                                            @NonNull IOnInventoryItemUpdatedCallback callback);
+
     void updateInventoryItem(@NonNull InventoryItem inventoryItem, @NonNull IOnInventoryItemUpdatedCallback callback);
 
     void deleteInventoryData(@NonNull IOnInventoryDataDeletedCallback callback);
 
-    void exportData(@NonNull IOnDataLoadedCallback callback);
+    void deleteInventoryListItems(int inventoryListId, @NonNull IOnInventoryDataDeletedCallback callback);
+
+    void exportData(@NonNull ExportMode exportMode, @NonNull IOnDataLoadedCallback callback);
+
+    void exportDataInBackground(@NonNull ExportMode exportMode, @NonNull IOnBackgroundExportCallback callback);
+
+    void pauseBackgroundExport();
+
+    void exportInventoryLists(@Nullable Integer inventoryListId, @NonNull IOnDataLoadedCallback callback);
 
     void checkIfAnyInventoryItemExists(@NonNull ICheckInventoryItemExistsCallback callback);
 
+    void compactVoidedItems(@NonNull IOnItemsCompactedCallback callback);
+
+    void consolidateExports(@NonNull List<Uri> uris, @NonNull IOnExportsConsolidatedCallback callback);
+
+    void getArticleListTotals(@NonNull String ident, @NonNull ILoadArticleListTotalsCallback callback);
+
     interface IAddInventoryItemCallback {
         void onSuccess(@NonNull ProductPreviewItem productPreviewItem);
 
@@ -39,6 +64,12 @@ public interface InventoryItemDataSource {
         void onFailure(@NonNull ScannerReaderError scannerReaderError);
     }
 
+    interface ILoadArticleListTotalsCallback {
+        void onArticleListTotalsLoaded(@NonNull String ident, @NonNull List<ArticleListTotal> articleListTotals);
+
+        void onFailure(@NonNull ScannerReaderError scannerReaderError);
+    }
+
     interface ILoadInventoryItemCallback {
         void onInventoryItemLoaded(@NonNull InventoryItem inventoryItem);
 
@@ -53,6 +84,8 @@ public interface InventoryItemDataSource {
     }
 
     interface IOnInventoryDataDeletedCallback {
+        void onDeleteProgress(int deletedRows, int totalRows);
+
         void onInventoryDataDeleted();
 
         void onDeleteInventoryDataFailed(@NonNull ScannerReaderError scannerReaderError);
@@ -64,6 +97,14 @@ public interface InventoryItemDataSource {
         void onFailToLoadItems(@NonNull ScannerReaderError scannerReaderError);
     }
 
+    interface IOnBackgroundExportCallback extends IOnDataLoadedCallback {
+        /**
+         * The export stopped at a checkpoint because of scan traffic, an export started by the user
+         * or a pause request. Running it again continues from the checkpoint.
+         */
+        void onExportPaused();
+    }
+
     interface ICheckInventoryItemExistsCallback {
         void onResult(boolean exists);
 
@@ -75,4 +116,67 @@ public interface InventoryItemDataSource {
 
         void onFailToVoidItem(@NonNull ScannerReaderError scannerReaderError);
     }
+
+    interface IOnItemsCompactedCallback {
+        void onItemsCompacted(int archivedRows);
+
+        void onFailToCompactItems(@NonNull ScannerReaderError scannerReaderError);
+    }
+
+    interface IOnExportsConsolidatedCallback {
+        void onExportsConsolidated(int importedRows, int duplicateRows);
+
+        void onFailToConsolidateExports(@NonNull ScannerReaderError scannerReaderError);
+    }
+
+    /**
+     * Determines which rows are written by {@link #exportData(ExportMode, IOnDataLoadedCallback)}.
+     */
+    enum ExportMode {
+        /**
+         * Every recorded row, including voided rows and their negations. Used for audits.
+         */
+        FULL("FULL", true),
+        /**
+         * Only the rows scanned or edited since the last successful export.
+         */
+        CHANGES("CHG", false),
+        /**
+         * One row per list, article, expiration date and damage code with the net quantity,
+         * so void pairs cancel out.
+         */
+        NETTED("NET", true),
+        /**
+         * Only the netted rows that were added, changed or removed since the last netted or differential
+         * export. Rows carry their new net quantity and the status {@code ADDED}, {@code CHANGED} or
+         * {@code REMOVED}, removed rows with a quantity of {@code 0}.
+         */
+        DIFF("DIFF", false);
+
+        private final String fileNameTag;
+        private final boolean replacesPreviousExport;
+
+        ExportMode(String fileNameTag, boolean replacesPreviousExport) {
+            this.fileNameTag = fileNameTag;
+            this.replacesPreviousExport = replacesPreviousExport;
+        }
+
+        /**
+         * Part of the file name that tells the export kinds apart, so the files of one kind are
+         * found without touching the others.
+         */
+        @NonNull
+        public String getFileNameTag() {
+            return fileNameTag;
+        }
+
+        /**
+         * Whether an export of this kind contains everything the previous one did, so the previous file can be deleted
+         * once it is published. Changes and differences only contain what happened since the previous export,
+         * so their files are kept until the ERP picked them up.
+         */
+        public boolean replacesPreviousExport() {
+            return replacesPreviousExport;
+        }
+    }
 }
@@ -22,6 +22,8 @@ public interface InventoryListDataSource {
 
     void deleteInventoryListData(@NonNull IOnInventoryListDataDeletedCallback callback);
 
+    void deleteInventoryList(int inventoryListId, @NonNull IOnInventoryListDataDeletedCallback callback);
+
     void checkIfAnyInventoryListExists(@NonNull ICheckInventoryListExistsCallback callback);
 
 
@@ -5,11 +5,14 @@ import android.net.Uri;
 import androidx.annotation.NonNull;
 
 import com.metalac.scanner.app.models.MasterItem;
+import com.metalac.scanner.app.models.QueryMasterItem;
+import com.metalac.scanner.app.models.SearchFacets;
 import com.metalac.scanner.app.view.ScannerReaderError;
 import com.metalac.scanner.app.view.inventory.interfaces.ILoadDamageDescriptionCallback;
 import com.metalac.scanner.app.view.inventory.interfaces.ILoadDamageInfoCallback;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public interface MasterItemDataSource {
 
@@ -31,6 +34,12 @@ public interface MasterItemDataSource {
 
     void changeStoreCode(@NonNull String storeCode, @NonNull StoreCodeChangeCallback storeCodeChangeCallback);
 
+    void getSearchFacets(@NonNull QueryMasterItem queryMasterItem, @NonNull ILoadSearchFacetsCallback callback);
+
+    void getIdentSuggestions(@NonNull String prefix, @NonNull ILoadCodeSuggestionsCallback callback);
+
+    void getAltIdSuggestions(@NonNull String prefix, @NonNull ILoadCodeSuggestionsCallback callback);
+
     interface ISyncMasterItemsCallback {
         void onSuccess(String formattedSyncDate);
 
@@ -50,6 +59,16 @@ public interface MasterItemDataSource {
         void onFailed(@NonNull ScannerReaderError scannerReaderError);
     }
 
+    interface ILoadSearchFacetsCallback {
+        void onSearchFacetsLoaded(@NonNull SearchFacets searchFacets);
+
+        void onFailed(@NonNull ScannerReaderError scannerReaderError);
+    }
+
+    interface ILoadCodeSuggestionsCallback {
+        void onCodeSuggestionsLoaded(@NonNull String prefix, @NonNull List<String> codes);
+    }
+
     interface StoreCodeChangeCallback {
         void onStoreCodeChanged();
 
@@ -1,18 +1,17 @@
 package com.metalac.scanner.app.data.source.repositories;
 
+import android.net.Uri;
+
 import androidx.annotation.NonNull;
-import androidx.lifecycle.LiveData;
-import androidx.paging.Pager;
-import androidx.paging.PagingConfig;
-import androidx.paging.PagingData;
-import androidx.paging.PagingLiveData;
+import androidx.annotation.Nullable;
 
-import com.metalac.scanner.app.utils.Utils;
 import com.metalac.scanner.app.data.source.db.InventoryItemLocalDataSource;
 import com.metalac.scanner.app.data.source.interfaces.InventoryItemDataSource;
 import com.metalac.scanner.app.models.InventoryItem;
 import com.metalac.scanner.app.models.ProductPreviewItem;
-import com.metalac.scanner.app.models.QueryMasterItem;
+
+import java.util.List;
+import java.util.Set;
 
 public class InventoryItemRepository implements InventoryItemDataSource {
 
@@ -50,12 +49,25 @@ public class InventoryItemRepository implements InventoryItemDataSource {
         inventoryItemLocalDataSource.voidInventoryItem(id, iVoidItemCallback);
     }
 
-    public LiveData<PagingData<ProductPreviewItem>> getInventoryData(int inventoryListId, @NonNull QueryMasterItem queryMasterItem) {
-        Pager<Integer, ProductPreviewItem> pager = new Pager<>(
-                new PagingConfig(Utils.PAGE_SIZE),
-                () -> inventoryItemLocalDataSource.getInventoryData(inventoryListId, queryMasterItem)
-        );
-        return PagingLiveData.getLiveData(pager);
+    @Override
+    public void voidInventoryItems(@NonNull Set<Long> ids, @NonNull IVoidItemCallback iVoidItemCallback) {
+        inventoryItemLocalDataSource.voidInventoryItems(ids, iVoidItemCallback);
+    }
+
+    @Override
+    public void updateInventoryItemsAdditionalData(@NonNull Set<Long> ids, @Nullable String expDate, @Nullable String damageCode,
+                                                   @Nullable String note, boolean clearEmptyFields,
+                                                   @NonNull IOnInventoryItemUpdatedCallback callback) {
+        inventoryItemLocalDataSource.updateInventoryItemsAdditionalData(ids, expDate, damageCode, note, clearEmptyFields, callback);
+    }
+
+    /**
+     * Creates the search pipeline of the rows of an inventory list, see {@link SearchPipeline}.
+     */
+    @NonNull
+    public SearchPipeline<ProductPreviewItem> createInventoryDataSearch(int inventoryListId) {
+        return new SearchPipeline<>(() -> inventoryItemLocalDataSource.getAllInventoryData(inventoryListId),
+                queryMasterItem -> inventoryItemLocalDataSource.getFilteredInventoryData(inventoryListId, queryMasterItem));
     }
 
     @Override
@@ -69,8 +81,28 @@ public class InventoryItemRepository implements InventoryItemDataSource {
     }
 
     @Override
-    public void exportData(@NonNull IOnDataLoadedCallback callback) {
-        inventoryItemLocalDataSource.exportData(callback);
+    public void deleteInventoryListItems(int inventoryListId, @NonNull IOnInventoryDataDeletedCallback callback) {
+        inventoryItemLocalDataSource.deleteInventoryListItems(inventoryListId, callback);
+    }
+
+    @Override
+    public void exportData(@NonNull ExportMode exportMode, @NonNull IOnDataLoadedCallback callback) {
+        inventoryItemLocalDataSource.exportData(exportMode, callback);
+    }
+
+    @Override
+    public void exportDataInBackground(@NonNull ExportMode exportMode, @NonNull IOnBackgroundExportCallback callback) {
+        inventoryItemLocalDataSource.exportDataInBackground(exportMode, callback);
+    }
+
+    @Override
+    public void pauseBackgroundExport() {
+        inventoryItemLocalDataSource.pauseBackgroundExport();
+    }
+
+    @Override
+    public void exportInventoryLists(@Nullable Integer inventoryListId, @NonNull IOnDataLoadedCallback callback) {
+        inventoryItemLocalDataSource.exportInventoryLists(inventoryListId, callback);
     }
 
     @Override
@@ -78,4 +110,19 @@ public class InventoryItemRepository implements InventoryItemDataSource {
         inventoryItemLocalDataSource.checkIfAnyInventoryItemExists(callback);
     }
 
+    @Override
+    public void compactVoidedItems(@NonNull IOnItemsCompactedCallback callback) {
+        inventoryItemLocalDataSource.compactVoidedItems(callback);
+    }
+
+    @Override
+    public void consolidateExports(@NonNull List<Uri> uris, @NonNull IOnExportsConsolidatedCallback callback) {
+        inventoryItemLocalDataSource.consolidateExports(uris, callback);
+    }
+
+    @Override
+    public void getArticleListTotals(@NonNull String ident, @NonNull ILoadArticleListTotalsCallback callback) {
+        inventoryItemLocalDataSource.getArticleListTotals(ident, callback);
+    }
+
 }
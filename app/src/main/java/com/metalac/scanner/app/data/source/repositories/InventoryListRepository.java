@@ -52,6 +52,11 @@ public class InventoryListRepository implements InventoryListDataSource {
         mInventoryListLocalDataSource.deleteInventoryListData(callback);
     }
 
+    @Override
+    public void deleteInventoryList(int inventoryListId, @NonNull IOnInventoryListDataDeletedCallback callback) {
+        mInventoryListLocalDataSource.deleteInventoryList(inventoryListId, callback);
+    }
+
     @Override
     public void checkIfAnyInventoryListExists(@NonNull ICheckInventoryListExistsCallback callback) {
         mInventoryListLocalDataSource.checkIfAnyInventoryListExists(callback);
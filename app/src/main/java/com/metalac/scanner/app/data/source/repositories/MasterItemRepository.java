@@ -3,13 +3,7 @@ package com.metalac.scanner.app.data.source.repositories;
 import android.net.Uri;
 
 import androidx.annotation.NonNull;
-import androidx.lifecycle.LiveData;
-import androidx.paging.Pager;
-import androidx.paging.PagingConfig;
-import androidx.paging.PagingData;
-import androidx.paging.PagingLiveData;
 
-import com.metalac.scanner.app.utils.Utils;
 import com.metalac.scanner.app.data.source.db.MasterItemLocalDataSource;
 import com.metalac.scanner.app.data.source.interfaces.MasterItemDataSource;
 import com.metalac.scanner.app.models.MasterItem;
@@ -88,11 +82,27 @@ public class MasterItemRepository implements MasterItemDataSource {
         mMasterItemLocalDataSource.changeStoreCode(storeCode, storeCodeChangeCallback);
     }
 
-    public LiveData<PagingData<MasterItem>> getMasterData(QueryMasterItem queryMasterItem) {
-        Pager<Integer, MasterItem> pager = new Pager<>(
-                new PagingConfig(Utils.PAGE_SIZE),
-                () -> mMasterItemLocalDataSource.getMasterData(queryMasterItem)
-        );
-        return PagingLiveData.getLiveData(pager);
+    @Override
+    public void getSearchFacets(@NonNull QueryMasterItem queryMasterItem, @NonNull ILoadSearchFacetsCallback callback) {
+        mMasterItemLocalDataSource.getSearchFacets(queryMasterItem, callback);
+    }
+
+    @Override
+    public void getIdentSuggestions(@NonNull String prefix, @NonNull ILoadCodeSuggestionsCallback callback) {
+        mMasterItemLocalDataSource.getIdentSuggestions(prefix, callback);
+    }
+
+    @Override
+    public void getAltIdSuggestions(@NonNull String prefix, @NonNull ILoadCodeSuggestionsCallback callback) {
+        mMasterItemLocalDataSource.getAltIdSuggestions(prefix, callback);
+    }
+
+    /**
+     * Creates the search pipeline of the master data screen, see {@link SearchPipeline}.
+     */
+    @NonNull
+    public SearchPipeline<MasterItem> createMasterDataSearch() {
+        return new SearchPipeline<>(mMasterItemLocalDataSource::getAllMasterData,
+                mMasterItemLocalDataSource::getFilteredMasterData);
     }
 }
@@ -0,0 +1,85 @@
+package com.metalac.scanner.app.data.source.repositories;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import androidx.paging.PagingSource;
+
+import com.metalac.scanner.app.data.source.db.SearchPagingSource;
+import com.metalac.scanner.app.models.QueryMasterItem;
+import com.metalac.scanner.app.utils.Utils;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Paged results of a search screen whose query changes while the user types.
+ * <p>
+ * The screen observes {@link #getResults()} once. A new query only invalidates the current search
+ * {@link PagingSource}, so the pager is reused and creates the source of the new query, which starts at the
+ * first result instead of the position the user scrolled to in the previous results. Paging cancels
+ * the loads of the invalidated source, which interrupts their SQLite statements, and drops the pages they
+ * still return, so results of a query the user has moved past are never shown. A new pager is created
+ * only when the search switches between the unfiltered list and filtered results, whose sources are
+ * paged by different keys; the results of the previous pager are no longer passed on from then on.
+ * </p>
+ *
+ * @param <V> Type of the listed rows.
+ */
+public class SearchPipeline<V> {
+    private final Supplier<PagingSource<V, V>> mAllItemsSourceFactory;
+    private final Function<QueryMasterItem, SearchPagingSource<?, V>> mSearchSourceFactory;
+    private final MediatorLiveData<PagingData<V>> mResults = new MediatorLiveData<>();
+    private LiveData<PagingData<V>> mPagerResults;
+    private boolean mIsFiltered;
+    private volatile QueryMasterItem mQueryMasterItem;
+    private volatile SearchPagingSource<?, V> mSearchSource;
+
+    SearchPipeline(@NonNull Supplier<PagingSource<V, V>> allItemsSourceFactory,
+                   @NonNull Function<QueryMasterItem, SearchPagingSource<?, V>> searchSourceFactory) {
+        this.mAllItemsSourceFactory = allItemsSourceFactory;
+        this.mSearchSourceFactory = searchSourceFactory;
+    }
+
+    @NonNull
+    public LiveData<PagingData<V>> getResults() {
+        return mResults;
+    }
+
+    /**
+     * Shows the results of {@code queryMasterItem} instead of the current ones.
+     */
+    @MainThread
+    public void setQuery(@NonNull QueryMasterItem queryMasterItem) {
+        mQueryMasterItem = queryMasterItem;
+        boolean isFiltered = !queryMasterItem.isNoFilterApplied();
+        if (mPagerResults != null && isFiltered == mIsFiltered) {
+            SearchPagingSource<?, V> searchSource = mSearchSource;
+            if (isFiltered && searchSource != null) {
+                searchSource.invalidateForNewQuery();
+            }
+            return;
+        }
+
+        if (mPagerResults != null) {
+            mResults.removeSource(mPagerResults);
+        }
+        mIsFiltered = isFiltered;
+        if (isFiltered) {
+            mPagerResults = PagingLiveData.getLiveData(new Pager<>(new PagingConfig(Utils.PAGE_SIZE), () -> {
+                SearchPagingSource<?, V> searchSource = mSearchSourceFactory.apply(mQueryMasterItem);
+                mSearchSource = searchSource;
+                return searchSource;
+            }));
+        } else {
+            mSearchSource = null;
+            mPagerResults = PagingLiveData.getLiveData(new Pager<>(new PagingConfig(Utils.PAGE_SIZE), mAllItemsSourceFactory::get));
+        }
+        mResults.addSource(mPagerResults, mResults::setValue);
+    }
+}
@@ -5,22 +5,29 @@ import java.util.concurrent.Executors;
 
 /**
  * Executor manager that provides different thread pools for disk IO,
- * local background execution, and main thread operations.
+ * local background execution, low priority background jobs, export file writing and main thread operations.
  * <p>
  * Helps centralize and standardize thread usage across the app.
  */
 public class AppExecutors {
     private static final int THREAD_COUNT = 3;
+    private static final int EXPORT_THREAD_COUNT = 2;
 
     private final Executor diskIO;
 
     private final Executor localExecution;
 
+    private final Executor backgroundIO;
+
+    private final Executor exportIO;
+
     private final Executor mainThread;
 
-    AppExecutors(Executor diskIO, Executor localExecution, Executor mainThread) {
+    AppExecutors(Executor diskIO, Executor localExecution, Executor backgroundIO, Executor exportIO, Executor mainThread) {
         this.diskIO = diskIO;
         this.localExecution = localExecution;
+        this.backgroundIO = backgroundIO;
+        this.exportIO = exportIO;
         this.mainThread = mainThread;
     }
 
@@ -28,11 +35,13 @@ public class AppExecutors {
      * Creates an instance with default executors:
      * - Disk IO: single-threaded
      * - Local execution: fixed thread pool
+     * - Background IO: single-threaded, low priority
+     * - Export IO: small fixed thread pool, low priority
      * - Main thread: handler-based main thread executor
      */
     public AppExecutors() {
         this(new DiskIOThreadExecutor(), Executors.newFixedThreadPool(THREAD_COUNT),
-                new MainThreadExecutor());
+                new BackgroundThreadExecutor(), new ExportThreadExecutor(EXPORT_THREAD_COUNT), new MainThreadExecutor());
     }
 
     public Executor diskIO() {
@@ -43,6 +52,14 @@ public class AppExecutors {
         return localExecution;
     }
 
+    public Executor backgroundIO() {
+        return backgroundIO;
+    }
+
+    public Executor exportIO() {
+        return exportIO;
+    }
+
     public Executor mainThread() {
         return mainThread;
     }
@@ -0,0 +1,35 @@
+package com.metalac.scanner.app.executors;
+
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor implementation that uses a single low priority thread for background jobs.
+ * Tasks run sequentially and yield the CPU to the disk IO and main threads, so they don't
+ * slow down scanning.
+ */
+public class BackgroundThreadExecutor implements Executor {
+
+    private final Executor mBackground;
+
+    public BackgroundThreadExecutor() {
+        mBackground = Executors.newSingleThreadExecutor(runnable -> new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            runnable.run();
+        }, "background-io"));
+    }
+
+    /**
+     * Executes the given command at some time in the future on the background thread.
+     *
+     * @param command The runnable task to execute; must not be null.
+     */
+    @Override
+    public void execute(@NonNull Runnable command) {
+        mBackground.execute(command);
+    }
+}
@@ -0,0 +1,37 @@
+package com.metalac.scanner.app.executors;
+
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor implementation that uses a small fixed pool of low priority threads for writing export files.
+ * Exports that write several files at once get their own threads, so they neither wait for nor hold up
+ * the paging loads on the local execution pool, and they yield the CPU to scanning.
+ */
+public class ExportThreadExecutor implements Executor {
+
+    private final Executor mExport;
+
+    public ExportThreadExecutor(int threadCount) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        mExport = Executors.newFixedThreadPool(threadCount, runnable -> new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            runnable.run();
+        }, "export-io-" + threadNumber.incrementAndGet()));
+    }
+
+    /**
+     * Executes the given command at some time in the future on one of the export threads.
+     *
+     * @param command The runnable task to execute; must not be null.
+     */
+    @Override
+    public void execute(@NonNull Runnable command) {
+        mExport.execute(command);
+    }
+}
@@ -2,6 +2,7 @@ package com.metalac.scanner.app.helpers;
 
 import android.content.Context;
 import android.content.DialogInterface;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.EditText;
@@ -16,8 +17,12 @@ import androidx.constraintlayout.widget.ConstraintLayout;
 import androidx.constraintlayout.widget.ConstraintSet;
 
 import com.metalac.scanner.app.R;
+import com.metalac.scanner.app.models.ArticleListTotal;
 import com.metalac.scanner.app.models.InventoryItem;
 
+import java.util.Date;
+import java.util.List;
+
 /**
  * Utility class for creating and managing dialogs with customizable content and actions.
  * <p>
@@ -43,6 +48,21 @@ public class DialogHelper {
         return alertDialog;
     }
 
+    /**
+     * Replaces the subtitle of a dialog created with {@link #createProgressDialog(DialogConfig)},
+     * e.g. to show how far a long running operation has progressed.
+     *
+     * @param progressDialog The progress dialog to update
+     * @param subtitle       The new subtitle
+     */
+    public static void updateProgressDialogSubtitle(@NonNull AlertDialog progressDialog, @NonNull String subtitle) {
+        TextView subtitleTextView = progressDialog.findViewById(R.id.tvSubtitle);
+        if (subtitleTextView != null) {
+            subtitleTextView.setText(subtitle);
+            subtitleTextView.setVisibility(View.VISIBLE);
+        }
+    }
+
     /**
      * Creates and returns an {@link AlertDialog} based on the provided {@link DialogConfig} object.
      * <p>
@@ -233,6 +253,45 @@ public class DialogHelper {
         return createAttentionDialog(dialogConfig);
     }
 
+    /**
+     * Creates an info dialog with the totals of an article in every inventory list it was scanned in,
+     * one line per list with the net quantity, the number of scans and the time of the last scan.
+     *
+     * @param dialogConfig      Configuration for the dialog, its title and subtitle are set from the totals
+     * @param ident             Ident of the article
+     * @param articleListTotals Totals of the article per list
+     * @return The created {@link AlertDialog}, or null if configuration invalid
+     */
+    @Nullable
+    public static AlertDialog createArticleListTotalsDialog(@NonNull DialogConfig dialogConfig, @NonNull String ident,
+                                                            @NonNull List<ArticleListTotal> articleListTotals) {
+        Context context = dialogConfig.getContext();
+        if (context == null) {
+            return null;
+        }
+
+        StringBuilder subtitle = new StringBuilder();
+        for (ArticleListTotal articleListTotal : articleListTotals) {
+            String lastScan = articleListTotal.getLastScannedAt() > 0
+                    ? DateHelper.formatDateToString(new Date(articleListTotal.getLastScannedAt()))
+                    : "-";
+            if (subtitle.length() > 0) {
+                subtitle.append('\n');
+            }
+            subtitle.append(context.getString(R.string.article_list_total_line, articleListTotal.getListName(),
+                    articleListTotal.getNetQuantityString(), articleListTotal.getScanCount(), lastScan));
+        }
+        if (articleListTotals.isEmpty()) {
+            subtitle.append(context.getString(R.string.article_list_totals_empty));
+        }
+
+        dialogConfig.setTitle(context.getString(R.string.article_list_totals_title, ident))
+                .setSubtitle(subtitle.toString())
+                .setPositiveButton(context.getString(R.string.ok));
+        dialogConfig.setIconResId(R.drawable.ic_info);
+        return createDialog(dialogConfig);
+    }
+
     public static AlertDialog createAdditionalInfoDialog(DialogConfig dialogConfig, InventoryItem inventoryItem) {
         AlertDialog alertDialog = new AlertDialog.Builder(dialogConfig.getContext(), R.style.DialogWithCorners).create();
         View dialogView = dialogConfig.getInflater().inflate(R.layout.dialog_additional_info, null);
@@ -267,6 +326,14 @@ public class DialogHelper {
         TextView tvSubtitle = dialogView.findViewById(R.id.tvSubtitle);
         tvSubtitle.setText(dialogConfig.getSubtitle());
 
+        // The options default to void and update, other screens can relabel them
+        if (!TextUtils.isEmpty(dialogConfig.getPositiveButton())) {
+            tvVoid.setText(dialogConfig.getPositiveButton());
+        }
+        if (!TextUtils.isEmpty(dialogConfig.getNegativeButton())) {
+            tvUpdate.setText(dialogConfig.getNegativeButton());
+        }
+
         tvCancel.setOnClickListener(v -> alertDialog.dismiss());
         tvVoid.setOnClickListener(v -> {
             dialogConfig.getClickListener().onClick(alertDialog, DialogInterface.BUTTON_POSITIVE);
@@ -306,6 +373,6 @@ public class DialogHelper {
     }
 
     public enum DialogMode {
-        SYNC, EXPORT, DELETE
+        SYNC, EXPORT, EXPORT_CHANGES, EXPORT_NETTED, EXPORT_DIFF, EXPORT_LISTS, CONSOLIDATE, DELETE
     }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.metalac.scanner.app.models;
+
+import androidx.annotation.NonNull;
+
+import com.metalac.scanner.app.utils.Utils;
+
+/**
+ * Totals of one article in one inventory list: the net quantity, the number of scans that are not voided
+ * and the time of the last scan. Voided scans and their negations cancel out in the net quantity.
+ */
+public class ArticleListTotal {
+    private final int inventoryListId;
+    private final String listName;
+
+    /**
+     * Net quantity in thousandths, see {@link Utils#QUANTITY_SCALE}.
+     */
+    private final long netQuantity;
+    private final int scanCount;
+
+    /**
+     * Time of the last scan in milliseconds, {@code 0} when only scans from before the scan time was stored exist.
+     */
+    private final long lastScannedAt;
+
+    public ArticleListTotal(int inventoryListId, String listName, long netQuantity, int scanCount, long lastScannedAt) {
+        this.inventoryListId = inventoryListId;
+        this.listName = listName;
+        this.netQuantity = netQuantity;
+        this.scanCount = scanCount;
+        this.lastScannedAt = lastScannedAt;
+    }
+
+    public int getInventoryListId() {
+        return inventoryListId;
+    }
+
+    public String getListName() {
+        return listName == null ? "" : listName.toUpperCase();
+    }
+
+    public long getNetQuantity() {
+        return netQuantity;
+    }
+
+    @NonNull
+    public String getNetQuantityString() {
+        return Utils.getQuantityString(netQuantity);
+    }
+
+    public int getScanCount() {
+        return scanCount;
+    }
+
+    public long getLastScannedAt() {
+        return lastScannedAt;
+    }
+}
@@ -0,0 +1,39 @@
+package com.metalac.scanner.app.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Single-row table (ID {@code 0}) holding the monotonic change sequence of the inventory tables.
+ * <p>
+ * Every insert or edit of an {@link InventoryItem} increments the sequence and stamps the row with it,
+ * so the incremental export can select everything changed after a watermark with one index range scan.
+ * Unlike {@code MAX(change_seq)}, the value never goes back when rows are deleted.
+ * </p>
+ */
+@Entity(tableName = "change_sequence")
+public class ChangeSequence {
+    @PrimaryKey
+    @ColumnInfo(name = "id")
+    private int id;
+
+    @ColumnInfo(name = "value")
+    private long value;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    public void setValue(long value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,101 @@
+package com.metalac.scanner.app.models;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
+import com.metalac.scanner.app.utils.ScaledQuantityTypeAdapter;
+
+/**
+ * Consolidated count of one article over all imported devices, compared with the ERP quantity.
+ * Quantities are in thousandths, see {@link com.metalac.scanner.app.utils.Utils#QUANTITY_SCALE}.
+ */
+public class ConsolidatedTotal {
+    @Expose
+    private String ident;
+    @Expose
+    private String name;
+    @Expose
+    @JsonAdapter(ScaledQuantityTypeAdapter.class)
+    private long quantity;
+    /**
+     * Quantity in the ERP, {@code 0} for articles missing from the master data.
+     */
+    @Expose
+    @JsonAdapter(ScaledQuantityTypeAdapter.class)
+    private long quantityErp;
+    /**
+     * Counted quantity minus the ERP quantity.
+     */
+    @Expose
+    @JsonAdapter(ScaledQuantityTypeAdapter.class)
+    private long variance;
+    @Expose
+    private int deviceCount;
+    @Expose
+    private int rowCount;
+
+    public ConsolidatedTotal(String ident, String name, long quantity, long quantityErp, long variance, int deviceCount, int rowCount) {
+        this.ident = ident;
+        this.name = name;
+        this.quantity = quantity;
+        this.quantityErp = quantityErp;
+        this.variance = variance;
+        this.deviceCount = deviceCount;
+        this.rowCount = rowCount;
+    }
+
+    public String getIdent() {
+        return ident;
+    }
+
+    public void setIdent(String ident) {
+        this.ident = ident;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getQuantityErp() {
+        return quantityErp;
+    }
+
+    public void setQuantityErp(long quantityErp) {
+        this.quantityErp = quantityErp;
+    }
+
+    public long getVariance() {
+        return variance;
+    }
+
+    public void setVariance(long variance) {
+        this.variance = variance;
+    }
+
+    public int getDeviceCount() {
+        return deviceCount;
+    }
+
+    public void setDeviceCount(int deviceCount) {
+        this.deviceCount = deviceCount;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+    }
+}
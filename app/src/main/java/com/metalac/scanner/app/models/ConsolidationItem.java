@@ -0,0 +1,194 @@
+package com.metalac.scanner.app.models;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Row of an export file imported from another device for consolidation.
+ * <p>
+ * The primary key is the scan's identity across devices: a scanner numbers the rows of every list
+ * by {@code index_in_list}, so the same scan imported twice, e.g. from two overlapping exports,
+ * is stored only once. The table is only a staging area and is emptied after every consolidation.
+ * </p>
+ */
+@Entity(
+        tableName = "consolidation_items",
+        primaryKeys = {"device_number", "inventory_list_id", "index_in_list"},
+        indices = {
+                @Index("ident")
+        }
+)
+public class ConsolidationItem {
+    @NonNull
+    @ColumnInfo(name = "device_number")
+    private String deviceNumber;
+
+    @ColumnInfo(name = "inventory_list_id")
+    private int inventoryListId;
+
+    @ColumnInfo(name = "index_in_list")
+    private int indexInList;
+
+    @Nullable
+    @ColumnInfo(name = "store_code")
+    private String storeCode;
+
+    @Nullable
+    private String ident;
+
+    private long quantity;
+
+    @Nullable
+    @ColumnInfo(name = "list_name")
+    private String listName;
+
+    @Nullable
+    private String status;
+
+    @Nullable
+    @ColumnInfo(name = "exp_date")
+    private String expDate;
+
+    @Nullable
+    @ColumnInfo(name = "damage_code")
+    private String damageCode;
+
+    @Nullable
+    @ColumnInfo(name = "damage_desc")
+    private String damageDesc;
+
+    @Nullable
+    private String note;
+
+    public ConsolidationItem(@NonNull String deviceNumber, int inventoryListId, int indexInList) {
+        this.deviceNumber = deviceNumber;
+        this.inventoryListId = inventoryListId;
+        this.indexInList = indexInList;
+    }
+
+    /**
+     * Creates the staging row of an imported export row.
+     */
+    @NonNull
+    public static ConsolidationItem fromExportItem(@NonNull InventoryExportItem item) {
+        ConsolidationItem consolidationItem = new ConsolidationItem(item.getDeviceNumber(), item.getInventoryListId(), item.getIndexInList());
+        consolidationItem.setStoreCode(item.getStoreCode());
+        consolidationItem.setIdent(item.getIdent());
+        consolidationItem.setQuantity(item.getQuantity());
+        consolidationItem.setListName(item.getListName());
+        consolidationItem.setStatus(item.getStatus());
+        consolidationItem.setExpDate(item.getExpDate());
+        consolidationItem.setDamageCode(item.getDamageCode());
+        consolidationItem.setDamageDesc(item.getDamageDesc());
+        consolidationItem.setNote(item.getNote());
+        return consolidationItem;
+    }
+
+    @NonNull
+    public String getDeviceNumber() {
+        return deviceNumber;
+    }
+
+    public void setDeviceNumber(@NonNull String deviceNumber) {
+        this.deviceNumber = deviceNumber;
+    }
+
+    public int getInventoryListId() {
+        return inventoryListId;
+    }
+
+    public void setInventoryListId(int inventoryListId) {
+        this.inventoryListId = inventoryListId;
+    }
+
+    public int getIndexInList() {
+        return indexInList;
+    }
+
+    public void setIndexInList(int indexInList) {
+        this.indexInList = indexInList;
+    }
+
+    @Nullable
+    public String getStoreCode() {
+        return storeCode;
+    }
+
+    public void setStoreCode(@Nullable String storeCode) {
+        this.storeCode = storeCode;
+    }
+
+    @Nullable
+    public String getIdent() {
+        return ident;
+    }
+
+    public void setIdent(@Nullable String ident) {
+        this.ident = ident;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    @Nullable
+    public String getListName() {
+        return listName;
+    }
+
+    public void setListName(@Nullable String listName) {
+        this.listName = listName;
+    }
+
+    @Nullable
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(@Nullable String status) {
+        this.status = status;
+    }
+
+    @Nullable
+    public String getExpDate() {
+        return expDate;
+    }
+
+    public void setExpDate(@Nullable String expDate) {
+        this.expDate = expDate;
+    }
+
+    @Nullable
+    public String getDamageCode() {
+        return damageCode;
+    }
+
+    public void setDamageCode(@Nullable String damageCode) {
+        this.damageCode = damageCode;
+    }
+
+    @Nullable
+    public String getDamageDesc() {
+        return damageDesc;
+    }
+
+    public void setDamageDesc(@Nullable String damageDesc) {
+        this.damageDesc = damageDesc;
+    }
+
+    @Nullable
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(@Nullable String note) {
+        this.note = note;
+    }
+}
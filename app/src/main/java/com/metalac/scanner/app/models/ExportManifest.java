@@ -0,0 +1,112 @@
+package com.metalac.scanner.app.models;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
+import com.metalac.scanner.app.utils.ScaledQuantityTypeAdapter;
+
+import java.util.List;
+
+/**
+ * Manifest written after a per-list export. It lists every export file with its row count,
+ * quantity total and SHA-256 checksum, so the ERP can verify the files and ingest them independently.
+ */
+public class ExportManifest {
+    @Expose
+    private final String storeCode;
+    @Expose
+    private final String deviceNumber;
+    @Expose
+    private final String exportDate;
+    @Expose
+    private final List<Entry> files;
+
+    public ExportManifest(String storeCode, String deviceNumber, String exportDate, @NonNull List<Entry> files) {
+        this.storeCode = storeCode;
+        this.deviceNumber = deviceNumber;
+        this.exportDate = exportDate;
+        this.files = files;
+    }
+
+    public String getStoreCode() {
+        return storeCode;
+    }
+
+    public String getDeviceNumber() {
+        return deviceNumber;
+    }
+
+    public String getExportDate() {
+        return exportDate;
+    }
+
+    @NonNull
+    public List<Entry> getFiles() {
+        return files;
+    }
+
+    /**
+     * Summary of a single export file, filled in while its rows are written.
+     */
+    public static class Entry {
+        @Expose
+        private final String fileName;
+        @Expose
+        private final int inventoryListId;
+        @Expose
+        private final String listName;
+        @Expose
+        private long rowCount;
+        @Expose
+        @JsonAdapter(ScaledQuantityTypeAdapter.class)
+        private long quantity;
+        /**
+         * SHA-256 of the file content. For compressed files it is calculated before compression.
+         */
+        @Expose
+        private String sha256;
+
+        public Entry(String fileName, int inventoryListId, String listName) {
+            this.fileName = fileName;
+            this.inventoryListId = inventoryListId;
+            this.listName = listName;
+        }
+
+        /**
+         * Counts a written row and adds its quantity (in thousandths) to the file total.
+         */
+        public void addRow(long quantity) {
+            this.rowCount++;
+            this.quantity += quantity;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public int getInventoryListId() {
+            return inventoryListId;
+        }
+
+        public String getListName() {
+            return listName;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public long getQuantity() {
+            return quantity;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        public void setSha256(String sha256) {
+            this.sha256 = sha256;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.metalac.scanner.app.models;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fingerprint of one netted aggregate (list, article, expiration date and damage code) as it was
+ * contained in an export, used by the differential export to find added, changed and removed aggregates.
+ * <p>
+ * Only the net quantity and a hash of the notes are kept, which is enough to tell whether an aggregate
+ * changed. Every export writes a new generation of rows, and the previous one is removed once the
+ * export is published. Missing expiration dates and damage codes are stored as empty strings, so the
+ * primary key orders the rows exactly like the netted export query orders its groups.
+ * </p>
+ */
+@Entity(
+        tableName = "export_snapshot",
+        primaryKeys = {"generation", "inventory_list_id", "ident", "exp_date", "damage_code"}
+)
+public class ExportSnapshotItem {
+    private long generation;
+
+    @ColumnInfo(name = "inventory_list_id")
+    private int inventoryListId;
+
+    @NonNull
+    private String ident;
+
+    @NonNull
+    @ColumnInfo(name = "exp_date")
+    private String expDate;
+
+    @NonNull
+    @ColumnInfo(name = "damage_code")
+    private String damageCode;
+
+    private long quantity;
+
+    @ColumnInfo(name = "note_hash")
+    private long noteHash;
+
+    public ExportSnapshotItem(long generation, int inventoryListId, @NonNull String ident, @NonNull String expDate,
+                              @NonNull String damageCode, long quantity, long noteHash) {
+        this.generation = generation;
+        this.inventoryListId = inventoryListId;
+        this.ident = ident;
+        this.expDate = expDate;
+        this.damageCode = damageCode;
+        this.quantity = quantity;
+        this.noteHash = noteHash;
+    }
+
+    /**
+     * Creates the fingerprint of a netted export row.
+     */
+    @NonNull
+    public static ExportSnapshotItem fromExportItem(long generation, @NonNull InventoryExportItem item) {
+        return new ExportSnapshotItem(generation, item.getInventoryListId(), toKey(item.getIdent()),
+                toKey(item.getExpDate()), toKey(item.getDamageCode()), item.getQuantity(), hashNote(item.getNote()));
+    }
+
+    /**
+     * Compares the aggregate keys in the order SQLite sorts them: the list ID numerically and the text
+     * columns with the default {@code BINARY} collation, which is the order of their Unicode code points.
+     */
+    public int compareKeyTo(@NonNull ExportSnapshotItem other) {
+        int comparison = Integer.compare(inventoryListId, other.inventoryListId);
+        if (comparison == 0) {
+            comparison = compareBinary(ident, other.ident);
+        }
+        if (comparison == 0) {
+            comparison = compareBinary(expDate, other.expDate);
+        }
+        if (comparison == 0) {
+            comparison = compareBinary(damageCode, other.damageCode);
+        }
+        return comparison;
+    }
+
+    /**
+     * @return {@code true} if both aggregates have the same net quantity and notes.
+     */
+    public boolean hasSameContent(@NonNull ExportSnapshotItem other) {
+        return quantity == other.quantity && noteHash == other.noteHash;
+    }
+
+    private static int compareBinary(@NonNull String first, @NonNull String second) {
+        int firstIndex = 0;
+        int secondIndex = 0;
+        while (firstIndex < first.length() && secondIndex < second.length()) {
+            int firstCodePoint = first.codePointAt(firstIndex);
+            int secondCodePoint = second.codePointAt(secondIndex);
+            if (firstCodePoint != secondCodePoint) {
+                return Integer.compare(firstCodePoint, secondCodePoint);
+            }
+            firstIndex += Character.charCount(firstCodePoint);
+            secondIndex += Character.charCount(secondCodePoint);
+        }
+        return Integer.compare(first.length() - firstIndex, second.length() - secondIndex);
+    }
+
+    @NonNull
+    private static String toKey(@Nullable String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-8 bytes of the note, {@code 0} for no note.
+     */
+    private static long hashNote(@Nullable String note) {
+        if (note == null || note.isEmpty()) {
+            return 0;
+        }
+
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : note.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(long generation) {
+        this.generation = generation;
+    }
+
+    public int getInventoryListId() {
+        return inventoryListId;
+    }
+
+    public void setInventoryListId(int inventoryListId) {
+        this.inventoryListId = inventoryListId;
+    }
+
+    @NonNull
+    public String getIdent() {
+        return ident;
+    }
+
+    public void setIdent(@NonNull String ident) {
+        this.ident = ident;
+    }
+
+    @NonNull
+    public String getExpDate() {
+        return expDate;
+    }
+
+    public void setExpDate(@NonNull String expDate) {
+        this.expDate = expDate;
+    }
+
+    @NonNull
+    public String getDamageCode() {
+        return damageCode;
+    }
+
+    public void setDamageCode(@NonNull String damageCode) {
+        this.damageCode = damageCode;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getNoteHash() {
+        return noteHash;
+    }
+
+    public void setNoteHash(long noteHash) {
+        this.noteHash = noteHash;
+    }
+}
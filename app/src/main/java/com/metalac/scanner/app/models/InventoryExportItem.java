@@ -3,8 +3,18 @@ package com.metalac.scanner.app.models;
 import androidx.annotation.NonNull;
 
 import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
+import com.metalac.scanner.app.utils.ScaledQuantityTypeAdapter;
 
 public class InventoryExportItem {
+    /**
+     * Row ID, only used to page through the export and never written to the file.
+     */
+    private long id;
+    /**
+     * Change sequence of the row, only used to page through an incremental export and never written to the file.
+     */
+    private long changeSeq;
     @Expose
     private String deviceNumber;
     @Expose
@@ -14,7 +24,8 @@ public class InventoryExportItem {
     @Expose
     private int inventoryListId;
     @Expose
-    private double quantity;
+    @JsonAdapter(ScaledQuantityTypeAdapter.class)
+    private long quantity;
     @Expose
     private String storeCode;
     @Expose
@@ -30,7 +41,7 @@ public class InventoryExportItem {
     @Expose
     private String note;
 
-    public InventoryExportItem(String deviceNumber, String ident, int indexInList, int inventoryListId, double quantity, String storeCode, String listName, String status, String expDate, String damageCode, String damageDesc, String note) {
+    public InventoryExportItem(String deviceNumber, String ident, int indexInList, int inventoryListId, long quantity, String storeCode, String listName, String status, String expDate, String damageCode, String damageDesc, String note) {
         this.deviceNumber = deviceNumber;
         this.ident = ident;
         this.indexInList = indexInList;
@@ -45,6 +56,22 @@ public class InventoryExportItem {
         this.note = note;
     }
 
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
     public String getDeviceNumber() {
         return deviceNumber;
     }
@@ -77,11 +104,11 @@ public class InventoryExportItem {
         this.inventoryListId = inventoryListId;
     }
 
-    public double getQuantity() {
+    public long getQuantity() {
         return quantity;
     }
 
-    public void setQuantity(double quantity) {
+    public void setQuantity(long quantity) {
         this.quantity = quantity;
     }
 
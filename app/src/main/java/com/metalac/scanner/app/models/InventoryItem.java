@@ -12,7 +12,9 @@ import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
 import com.metalac.scanner.app.data.source.PrefManager;
+import com.metalac.scanner.app.utils.ScaledQuantityTypeAdapter;
 import com.metalac.scanner.app.utils.Utils;
 
 @Entity(
@@ -37,11 +39,13 @@ import com.metalac.scanner.app.utils.Utils;
                 )
         },
         indices = {
-                @Index("inventory_list_id"),
+                @Index(value = {"inventory_list_id", "index_in_list", "id", "ident", "quantity", "status", "has_extra_info"}),
+                @Index(value = {"inventory_list_id", "id", "ident", "quantity", "status", "index_in_list", "has_extra_info"}),
                 @Index("ident"),
                 @Index("damage_code"),
-                @Index(value = {"ident", "inventory_list_id"}),
-                @Index(value = {"status"})
+                @Index(value = {"ident", "inventory_list_id", "quantity", "created_at", "status"}),
+                @Index(value = {"status"}),
+                @Index(value = {"change_seq"})
         }
 )
 public class InventoryItem {
@@ -65,8 +69,12 @@ public class InventoryItem {
     @Expose
     private final String ident;
 
+    /**
+     * Quantity in thousandths, see {@link Utils#QUANTITY_SCALE}.
+     */
     @Expose
-    private double quantity;
+    @JsonAdapter(ScaledQuantityTypeAdapter.class)
+    private long quantity;
 
     @Nullable
     @ColumnInfo(name = "exp_date")
@@ -93,12 +101,37 @@ public class InventoryItem {
     @Expose
     private int indexInList;
 
-    public InventoryItem(String ident, double quantity) {
+    /**
+     * Time of the scan in milliseconds, {@code 0} for rows scanned before the column existed.
+     */
+    @ColumnInfo(name = "created_at", defaultValue = "0")
+    @Expose(serialize = false, deserialize = false)
+    private long createdAt;
+
+    /**
+     * Value of the change sequence at the last insert or edit of this row.
+     * Maintained by the triggers declared in {@link com.metalac.scanner.app.data.source.db.ScannerDatabase}.
+     */
+    @ColumnInfo(name = "change_seq", defaultValue = "0")
+    @Expose(serialize = false, deserialize = false)
+    private long changeSeq;
+
+    /**
+     * Whether the row has an expiry date, damage code or note, so the list shows its extra info icon
+     * from the list index alone. Maintained by the triggers declared in
+     * {@link com.metalac.scanner.app.data.source.db.ScannerDatabase}.
+     */
+    @ColumnInfo(name = "has_extra_info", defaultValue = "0")
+    @Expose(serialize = false, deserialize = false)
+    private boolean hasExtraInfo;
+
+    public InventoryItem(String ident, long quantity) {
         this.deviceNumber = PrefManager.getDeviceName();
         this.storeCode = PrefManager.getDeviceStoreCode();
         this.ident = ident;
         this.quantity = quantity;
         this.status = Status.NON_VOIDED.getStatusVal();
+        this.createdAt = System.currentTimeMillis();
     }
 
     public InventoryItem(InventoryItem inventoryItem) {
@@ -114,6 +147,9 @@ public class InventoryItem {
         this.note = inventoryItem.note;
         this.status = inventoryItem.status;
         this.indexInList = inventoryItem.indexInList;
+        this.createdAt = inventoryItem.createdAt;
+        this.changeSeq = inventoryItem.changeSeq;
+        this.hasExtraInfo = inventoryItem.hasExtraInfo;
     }
 
     public InventoryItem(InventoryItemWithDamageDesc itemWithDesc) {
@@ -160,7 +196,7 @@ public class InventoryItem {
         return ident;
     }
 
-    public double getQuantity() {
+    public long getQuantity() {
         return quantity;
     }
 
@@ -207,7 +243,7 @@ public class InventoryItem {
         this.id = id;
     }
 
-    public void setQuantity(double quantity) {
+    public void setQuantity(long quantity) {
         this.quantity = quantity;
     }
 
@@ -257,6 +293,30 @@ public class InventoryItem {
         this.indexInList = indexInList;
     }
 
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public boolean getHasExtraInfo() {
+        return hasExtraInfo;
+    }
+
+    public void setHasExtraInfo(boolean hasExtraInfo) {
+        this.hasExtraInfo = hasExtraInfo;
+    }
+
     public enum Status {
         VOID(0), VOIDED(1), NON_VOIDED(2);
 
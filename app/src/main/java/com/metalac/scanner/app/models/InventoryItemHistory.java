@@ -0,0 +1,189 @@
+package com.metalac.scanner.app.models;
+
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Archived copy of an {@link InventoryItem} row that took part in a finished void pair
+ * ({@link InventoryItem.Status#VOIDED} original and its {@link InventoryItem.Status#VOID} negation).
+ * <p>
+ * Rows keep their original ID, index in list and status, so the audit trail and the export
+ * stay the same after they are moved out of {@code inventory_items}.
+ */
+@Entity(
+        tableName = "inventory_items_history",
+        foreignKeys = {
+                @ForeignKey(
+                        entity = InventoryList.class,
+                        parentColumns = "id",
+                        childColumns = "inventory_list_id",
+                        onDelete = ForeignKey.CASCADE
+                )
+        },
+        indices = {
+                @Index("inventory_list_id"),
+                @Index("change_seq")
+        }
+)
+public class InventoryItemHistory {
+    @PrimaryKey
+    @ColumnInfo(name = "id")
+    private long id;
+
+    @ColumnInfo(name = "device_number")
+    private String deviceNumber;
+
+    @ColumnInfo(name = "store_code")
+    private String storeCode;
+
+    @ColumnInfo(name = "inventory_list_id")
+    private int inventoryListId;
+
+    private String ident;
+
+    private long quantity;
+
+    @Nullable
+    @ColumnInfo(name = "exp_date")
+    private String expDate;
+
+    @Nullable
+    @ColumnInfo(name = "damage_code")
+    private String damageCode;
+
+    @Nullable
+    private String note;
+
+    private int status;
+
+    @ColumnInfo(name = "index_in_list")
+    private int indexInList;
+
+    @ColumnInfo(name = "created_at", defaultValue = "0")
+    private long createdAt;
+
+    @ColumnInfo(name = "change_seq", defaultValue = "0")
+    private long changeSeq;
+
+    @ColumnInfo(name = "archived_at")
+    private long archivedAt;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getDeviceNumber() {
+        return deviceNumber;
+    }
+
+    public void setDeviceNumber(String deviceNumber) {
+        this.deviceNumber = deviceNumber;
+    }
+
+    public String getStoreCode() {
+        return storeCode;
+    }
+
+    public void setStoreCode(String storeCode) {
+        this.storeCode = storeCode;
+    }
+
+    public int getInventoryListId() {
+        return inventoryListId;
+    }
+
+    public void setInventoryListId(int inventoryListId) {
+        this.inventoryListId = inventoryListId;
+    }
+
+    public String getIdent() {
+        return ident;
+    }
+
+    public void setIdent(String ident) {
+        this.ident = ident;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    @Nullable
+    public String getExpDate() {
+        return expDate;
+    }
+
+    public void setExpDate(@Nullable String expDate) {
+        this.expDate = expDate;
+    }
+
+    @Nullable
+    public String getDamageCode() {
+        return damageCode;
+    }
+
+    public void setDamageCode(@Nullable String damageCode) {
+        this.damageCode = damageCode;
+    }
+
+    @Nullable
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(@Nullable String note) {
+        this.note = note;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public int getIndexInList() {
+        return indexInList;
+    }
+
+    public void setIndexInList(int indexInList) {
+        this.indexInList = indexInList;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public long getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(long archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
@@ -18,6 +18,20 @@ public class InventoryList {
 
     private int selected;
 
+    /**
+     * Number of rows in {@code inventory_items} that belong to this list.
+     * Maintained by the triggers declared in {@link com.metalac.scanner.app.data.source.db.ScannerDatabase}.
+     */
+    @ColumnInfo(name = "item_count", defaultValue = "0")
+    private int itemCount;
+
+    /**
+     * Sum of all quantities in this list in thousandths, with voided rows cancelled out by their negations.
+     * Maintained by the triggers declared in {@link com.metalac.scanner.app.data.source.db.ScannerDatabase}.
+     */
+    @ColumnInfo(name = "net_quantity", defaultValue = "0")
+    private long netQuantity;
+
     public InventoryList(String name) {
         this.name = name;
         this.selected = 0;
@@ -46,4 +60,20 @@ public class InventoryList {
     public void setSelected(int selected) {
         this.selected = selected;
     }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public long getNetQuantity() {
+        return netQuantity;
+    }
+
+    public void setNetQuantity(long netQuantity) {
+        this.netQuantity = netQuantity;
+    }
 }
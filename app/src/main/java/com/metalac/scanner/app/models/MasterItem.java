@@ -5,15 +5,28 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.metalac.scanner.app.utils.ScaledQuantityTypeAdapter;
 import com.metalac.scanner.app.utils.Utils;
 
 import java.util.Objects;
 
 @Keep
-@Entity(tableName = "master_items")
+@Entity(
+        tableName = "master_items",
+        indices = {
+                @Index("barcode"),
+                @Index("alt_code_1"),
+                @Index("alt_code_2"),
+                @Index("unit_of_measure"),
+                @Index("purchase_program"),
+                @Index("price")
+        }
+)
 public class MasterItem {
 
     @PrimaryKey
@@ -59,6 +72,13 @@ public class MasterItem {
     @SerializedName("nazart")
     private String name;
 
+    /**
+     * {@link #name} normalized by {@link Utils#toSearchKey(String)} when the catalog is imported,
+     * so searches match it without folding the name of every row at query time.
+     */
+    @ColumnInfo(name = "search_name")
+    private String searchName;
+
     @SerializedName("maxkol")
     @ColumnInfo(name = "max_count_qty")
     private int maxCountQty;
@@ -72,9 +92,13 @@ public class MasterItem {
     @SerializedName("cena")
     private double price;
 
+    /**
+     * ERP quantity in thousandths, see {@link Utils#QUANTITY_SCALE}.
+     */
     @SerializedName("kolerp")
+    @JsonAdapter(ScaledQuantityTypeAdapter.class)
     @ColumnInfo(name = "quantity_erp")
-    private double quantityErp;
+    private long quantityErp;
 
     public MasterItem() {
         //Default constructor needed for JSON deserialization libraries like Gson.
@@ -170,6 +194,14 @@ public class MasterItem {
         this.name = name;
     }
 
+    public String getSearchName() {
+        return searchName;
+    }
+
+    public void setSearchName(String searchName) {
+        this.searchName = searchName;
+    }
+
     public int getMaxCountQty() {
         return maxCountQty;
     }
@@ -206,7 +238,7 @@ public class MasterItem {
         this.price = price;
     }
 
-    public double getQuantityErp() {
+    public long getQuantityErp() {
         return quantityErp;
     }
 
@@ -214,7 +246,7 @@ public class MasterItem {
         return Utils.getQuantityString(quantityErp);
     }
 
-    public void setQuantityErp(double quantityErp) {
+    public void setQuantityErp(long quantityErp) {
         this.quantityErp = quantityErp;
     }
 
@@ -230,7 +262,7 @@ public class MasterItem {
                 this.active == newMasterItem.active &&
                 this.accounting == newMasterItem.accounting &&
                 Double.compare(this.price, newMasterItem.price) == 0 &&
-                Double.compare(this.quantityErp, newMasterItem.quantityErp) == 0 &&
+                this.quantityErp == newMasterItem.quantityErp &&
                 Objects.equals(this.storeCode, newMasterItem.storeCode) &&
                 Objects.equals(this.importDate, newMasterItem.importDate) &&
                 Objects.equals(this.ident, newMasterItem.ident) &&
@@ -0,0 +1,96 @@
+package com.metalac.scanner.app.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * Number of {@link MasterItem}s per combination of the facet filters of the search: unit of measure,
+ * active and accounting flag and price band.
+ * <p>
+ * The table is the summary of the catalog, rebuilt when the catalog is imported. It has a row per
+ * combination that occurs, usually a few dozen, so facet counts of the filter form are summed from it
+ * instead of counting the catalog. Searches with other filters count the matching articles in the same shape.
+ * </p>
+ */
+@Entity(tableName = "master_item_facets", primaryKeys = {"unit_of_measure", "active", "accounting", "price_band"})
+public class MasterItemFacet {
+    /**
+     * Upper limits (exclusive) of the price bands in RSD. Prices from the last limit on are in the last band.
+     */
+    public static final int[] PRICE_BAND_LIMITS = {100, 500, 1000, 5000};
+
+    /**
+     * SQL expression of the price band of a {@code master_items} row, matching {@link #PRICE_BAND_LIMITS}.
+     */
+    public static final String PRICE_BAND_EXPRESSION = "CASE WHEN price < 100 THEN 0 WHEN price < 500 THEN 1 " +
+            "WHEN price < 1000 THEN 2 WHEN price < 5000 THEN 3 ELSE 4 END";
+
+    /**
+     * Unit of measure, or an empty string for articles without one.
+     */
+    @NonNull
+    @ColumnInfo(name = "unit_of_measure")
+    private String unitOfMeasure;
+
+    @ColumnInfo(name = "active")
+    private int active;
+
+    @ColumnInfo(name = "accounting")
+    private int accounting;
+
+    @ColumnInfo(name = "price_band")
+    private int priceBand;
+
+    @ColumnInfo(name = "item_count")
+    private int itemCount;
+
+    public MasterItemFacet(@NonNull String unitOfMeasure, int active, int accounting, int priceBand, int itemCount) {
+        this.unitOfMeasure = unitOfMeasure;
+        this.active = active;
+        this.accounting = accounting;
+        this.priceBand = priceBand;
+        this.itemCount = itemCount;
+    }
+
+    @NonNull
+    public String getUnitOfMeasure() {
+        return unitOfMeasure;
+    }
+
+    public void setUnitOfMeasure(@NonNull String unitOfMeasure) {
+        this.unitOfMeasure = unitOfMeasure;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public void setActive(int active) {
+        this.active = active;
+    }
+
+    public int getAccounting() {
+        return accounting;
+    }
+
+    public void setAccounting(int accounting) {
+        this.accounting = accounting;
+    }
+
+    public int getPriceBand() {
+        return priceBand;
+    }
+
+    public void setPriceBand(int priceBand) {
+        this.priceBand = priceBand;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+}
@@ -0,0 +1,89 @@
+package com.metalac.scanner.app.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+import androidx.room.PrimaryKey;
+
+/**
+ * Full-text search index over the names and codes of {@link MasterItem}s.
+ * <p>
+ * The index uses {@code master_items} as external content, so it stores only the tokens. Room keeps it
+ * in sync with triggers on {@code master_items}, so every import, update and delete of the catalog is
+ * indexed in the same transaction. Names are indexed by their search key ({@link MasterItem#getSearchName()}),
+ * letters are matched without diacritics and token prefixes of two and three characters are indexed,
+ * so type-ahead prefix queries don't have to scan the token list.
+ * </p>
+ */
+@Fts4(contentEntity = MasterItem.class,
+        tokenizer = FtsOptions.TOKENIZER_UNICODE61,
+        tokenizerArgs = {"remove_diacritics=2"},
+        prefix = {2, 3})
+@Entity(tableName = "master_items_fts")
+public class MasterItemFts {
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private int rowId;
+
+    private String ident;
+
+    @ColumnInfo(name = "search_name")
+    private String searchName;
+
+    private String barcode;
+
+    @ColumnInfo(name = "alt_code_1")
+    private String altCode1;
+
+    @ColumnInfo(name = "sales_program")
+    private String salesProgram;
+
+    public int getRowId() {
+        return rowId;
+    }
+
+    public void setRowId(int rowId) {
+        this.rowId = rowId;
+    }
+
+    public String getIdent() {
+        return ident;
+    }
+
+    public void setIdent(String ident) {
+        this.ident = ident;
+    }
+
+    public String getSearchName() {
+        return searchName;
+    }
+
+    public void setSearchName(String searchName) {
+        this.searchName = searchName;
+    }
+
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+
+    public String getAltCode1() {
+        return altCode1;
+    }
+
+    public void setAltCode1(String altCode1) {
+        this.altCode1 = altCode1;
+    }
+
+    public String getSalesProgram() {
+        return salesProgram;
+    }
+
+    public void setSalesProgram(String salesProgram) {
+        this.salesProgram = salesProgram;
+    }
+}
@@ -0,0 +1,73 @@
+package com.metalac.scanner.app.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+import com.metalac.scanner.app.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Substring index over the codes of the {@link MasterItem}s.
+ * <p>
+ * Every three consecutive characters of the ident, barcode and both alternative codes of an article are
+ * stored once per article, lowercased. A code containing a fragment contains all trigrams of the fragment,
+ * so the articles having all of them are the candidates for an infix search, which the {@code LIKE}
+ * filter then checks on the few remaining rows. Fragments shorter than three characters can't use the index.
+ * </p>
+ */
+@Entity(tableName = "master_item_trigrams", primaryKeys = {"trigram", "ident"})
+public class MasterItemTrigram {
+    @NonNull
+    @ColumnInfo(name = "trigram")
+    private String trigram;
+
+    @NonNull
+    @ColumnInfo(name = "ident")
+    private String ident;
+
+    public MasterItemTrigram(@NonNull String trigram, @NonNull String ident) {
+        this.trigram = trigram;
+        this.ident = ident;
+    }
+
+    /**
+     * Creates the index rows of all codes of the given article.
+     */
+    @NonNull
+    public static List<MasterItemTrigram> fromMasterItem(@NonNull MasterItem masterItem) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        Utils.addTrigrams(masterItem.getIdent(), trigrams);
+        Utils.addTrigrams(masterItem.getBarcode(), trigrams);
+        Utils.addTrigrams(masterItem.getAltCode1(), trigrams);
+        Utils.addTrigrams(masterItem.getAltCode2(), trigrams);
+
+        List<MasterItemTrigram> rows = new ArrayList<>(trigrams.size());
+        for (String trigram : trigrams) {
+            rows.add(new MasterItemTrigram(trigram, masterItem.getIdent()));
+        }
+        return rows;
+    }
+
+    @NonNull
+    public String getTrigram() {
+        return trigram;
+    }
+
+    public void setTrigram(@NonNull String trigram) {
+        this.trigram = trigram;
+    }
+
+    @NonNull
+    public String getIdent() {
+        return ident;
+    }
+
+    public void setIdent(@NonNull String ident) {
+        this.ident = ident;
+    }
+}
@@ -19,12 +19,12 @@ public class ProductPreviewItem {
     private final long inventoryId;
     private final String ident;
     private final String barcode;
-    private final double quantity;
+    private final long quantity;
     private int status;
     private int indexInInventoryList;
     private final boolean hasExtraInfo;
 
-    public ProductPreviewItem(String productName, double productPrice, String measureUnit, long inventoryId, String ident, String barcode, double quantity, int status, int indexInInventoryList, boolean hasExtraInfo) {
+    public ProductPreviewItem(String productName, double productPrice, String measureUnit, long inventoryId, String ident, String barcode, long quantity, int status, int indexInInventoryList, boolean hasExtraInfo) {
         this.productName = productName;
         this.productPrice = productPrice;
         this.measureUnit = measureUnit;
@@ -73,7 +73,7 @@ public class ProductPreviewItem {
         return Utils.getQuantityString(quantity) + " " + measureUnit;
     }
 
-    public double getQuantity() {
+    public long getQuantity() {
         return quantity;
     }
 
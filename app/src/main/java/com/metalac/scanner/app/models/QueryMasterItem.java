@@ -4,6 +4,7 @@ import android.os.Parcel;
 import android.os.Parcelable;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 public class QueryMasterItem implements Parcelable {
 
@@ -122,6 +123,17 @@ public class QueryMasterItem implements Parcelable {
         return filterText;
     }
 
+    /**
+     * Returns the text the results are ordered by relevance to: the filter text, otherwise the name.
+     */
+    @Nullable
+    public String getSearchText() {
+        if (filterText != null && !filterText.trim().isEmpty()) {
+            return filterText.trim();
+        }
+        return name != null && !name.trim().isEmpty() ? name.trim() : null;
+    }
+
     @Override
     public int describeContents() {
         return 0;
@@ -0,0 +1,106 @@
+package com.metalac.scanner.app.models;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Counts of the articles per value of the facet filters of the search form.
+ * <p>
+ * Each facet counts the articles matching all other filters of the query, so it shows how many results
+ * the query has for each value of that filter, e.g. how many articles of every unit of measure are active
+ * and in accounting. The price band counts and {@link #getMatchingCount()} match all filters.
+ * </p>
+ */
+public class SearchFacets {
+    private static final int FLAG_VALUES = 2;
+
+    private final Map<String, Integer> unitOfMeasureCounts = new TreeMap<>();
+    private final int[] activeCounts = new int[FLAG_VALUES];
+    private final int[] accountingCounts = new int[FLAG_VALUES];
+    private final int[] priceBandCounts = new int[MasterItemFacet.PRICE_BAND_LIMITS.length + 1];
+    private int matchingCount;
+
+    /**
+     * Sums the facet counts of the query from the article counts per facet combination.
+     *
+     * @param facets          Counts of the articles matching the filters of the query other than the facet filters.
+     * @param queryMasterItem The query whose facet filters are applied.
+     */
+    @NonNull
+    public static SearchFacets fromFacets(@NonNull List<MasterItemFacet> facets, @NonNull QueryMasterItem queryMasterItem) {
+        SearchFacets searchFacets = new SearchFacets();
+        String unitOfMeasure = queryMasterItem.getUnitOfMeasure();
+        for (MasterItemFacet facet : facets) {
+            boolean matchesUnit = unitOfMeasure == null || unitOfMeasure.equals(facet.getUnitOfMeasure());
+            boolean matchesActive = Objects.equals(queryMasterItem.getActive(), facet.getActive());
+            boolean matchesAccounting = Objects.equals(queryMasterItem.getAccounting(), facet.getAccounting());
+            int count = facet.getItemCount();
+
+            if (matchesActive && matchesAccounting && !facet.getUnitOfMeasure().isEmpty()) {
+                searchFacets.unitOfMeasureCounts.merge(facet.getUnitOfMeasure(), count, Integer::sum);
+            }
+            if (matchesUnit && matchesAccounting) {
+                addFlagCount(searchFacets.activeCounts, facet.getActive(), count);
+            }
+            if (matchesUnit && matchesActive) {
+                addFlagCount(searchFacets.accountingCounts, facet.getAccounting(), count);
+            }
+            if (matchesUnit && matchesActive && matchesAccounting) {
+                searchFacets.priceBandCounts[facet.getPriceBand()] += count;
+                searchFacets.matchingCount += count;
+            }
+        }
+        return searchFacets;
+    }
+
+    private static void addFlagCount(@NonNull int[] counts, int flag, int count) {
+        if (flag >= 0 && flag < counts.length) {
+            counts[flag] += count;
+        }
+    }
+
+    /**
+     * Returns the number of articles per unit of measure, ordered by unit.
+     */
+    @NonNull
+    public Map<String, Integer> getUnitOfMeasureCounts() {
+        return Collections.unmodifiableMap(unitOfMeasureCounts);
+    }
+
+    /**
+     * Returns the number of articles with the given active flag ({@code 0} or {@code 1}).
+     */
+    public int getActiveCount(int active) {
+        return activeCounts[active];
+    }
+
+    /**
+     * Returns the number of articles with the given accounting flag ({@code 0} or {@code 1}).
+     */
+    public int getAccountingCount(int accounting) {
+        return accountingCounts[accounting];
+    }
+
+    /**
+     * Returns the number of articles in the given price band, see {@link MasterItemFacet#PRICE_BAND_LIMITS}.
+     */
+    public int getPriceBandCount(int priceBand) {
+        return priceBandCounts[priceBand];
+    }
+
+    public int getPriceBands() {
+        return priceBandCounts.length;
+    }
+
+    /**
+     * Returns the number of articles matching all filters of the query.
+     */
+    public int getMatchingCount() {
+        return matchingCount;
+    }
+}
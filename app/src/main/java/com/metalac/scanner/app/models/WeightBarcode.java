@@ -22,11 +22,13 @@ public class WeightBarcode {
     private static final int ALT_CODE_LENGTH = 5;
     private static final int WEIGHT_START_INDEX = PREFIX_LENGTH + ALT_CODE_LENGTH;
     private static final int WEIGHT_END_INDEX = 12; // exclusive
-    private static final double GRAMS_DIVISOR = 1000;
 
     private final String barcode;
     private final int altCode;
-    private final double weightKg;
+    /**
+     * Weight in grams, which are the thousandths of a kilogram used for stored quantities.
+     */
+    private final long weight;
 
     /**
      * Constructs a {@code WeightBarcode} object by parsing an EAN-13 barcode string
@@ -40,7 +42,7 @@ public class WeightBarcode {
      * </ul>
      * Example barcode: {@code "2812345010000"} → altCode = 12345, weight = 10000g (10.0kg)
      * <p>
-     * The weight is converted to kilograms and stored as a decimal.
+     * The weight is kept in grams, i.e. as a kilogram quantity in thousandths (see {@link com.metalac.scanner.app.utils.Utils#QUANTITY_SCALE}).
      *
      * @param barcode the full EAN-13 barcode string to be parsed.
      * @throws ScannerReaderError if:
@@ -64,7 +66,7 @@ public class WeightBarcode {
         try {
             String weightPart = barcode.substring(WEIGHT_START_INDEX, WEIGHT_END_INDEX);
             int grams = Integer.parseInt(weightPart);
-            this.weightKg = grams / GRAMS_DIVISOR;
+            this.weight = grams;
         } catch (NumberFormatException e) {
             throw new ScannerReaderError(
                     getString(R.string.invalid_weight_value)
@@ -80,8 +82,8 @@ public class WeightBarcode {
         return altCode;
     }
 
-    public double getWeightKg() {
-        return weightKg;
+    public long getWeight() {
+        return weight;
     }
 
     private static String getString(int resId, Object... formatArgs) {
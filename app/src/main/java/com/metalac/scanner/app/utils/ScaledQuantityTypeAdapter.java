@@ -0,0 +1,41 @@
+package com.metalac.scanner.app.utils;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Maps decimal JSON quantities (e.g. {@code 1.25}) to quantities in thousandths (e.g. {@code 1250})
+ * and back, without going through {@code double}.
+ * <p>
+ * Used with {@link com.google.gson.annotations.JsonAdapter} on {@code long} quantity fields,
+ * see {@link Utils#QUANTITY_SCALE}.
+ */
+public class ScaledQuantityTypeAdapter extends TypeAdapter<Long> {
+
+    @Override
+    public void write(JsonWriter out, Long scaledQuantity) throws IOException {
+        if (scaledQuantity == null) {
+            out.nullValue();
+            return;
+        }
+        out.jsonValue(Utils.getQuantityString(scaledQuantity));
+    }
+
+    @Override
+    public Long read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0L;
+        }
+        return new BigDecimal(in.nextString())
+                .movePointRight(Utils.QUANTITY_DECIMAL_PLACES)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValue();
+    }
+}
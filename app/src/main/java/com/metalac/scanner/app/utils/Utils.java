@@ -12,12 +12,17 @@ import androidx.annotation.Nullable;
 
 import com.metalac.scanner.app.R;
 import com.metalac.scanner.app.data.source.PrefManager;
+import com.metalac.scanner.app.data.source.interfaces.InventoryItemDataSource;
 
+import java.math.BigDecimal;
+import java.text.Normalizer;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,18 +34,34 @@ public class Utils {
     private static final String CURRENCY_STRING = " RSD";
     private static final String EXPORT_PREF = "POP";
     private static final String EXPORT_DATE_FORMAT = "yyyyMMdd";
+    private static final String EXPORT_TIME_FORMAT = "HHmmss";
     public static final int DEVICE_NAME_NUM_OF_CHAR = 5;
     public static final int STORE_CODE_NUM_OF_CHAR = 9;
     public static final int STORE_CODE_PREFIX_CHAR_COUNT = 3;
     public static final int SHOW_KEYBOARD_DELAY = 150;
     private static final int STORE_CODE_LENGTH = 12;
     public static final int PAGE_SIZE = 30;
+    public static final int DELETE_CHUNK_SIZE = 500;
+    public static final int EXPORT_PAGE_SIZE = 500;
+    public static final int CODE_SUGGESTIONS_LIMIT = 8;
+
+    private static final int TRIGRAM_LENGTH = 3;
+    private static final Pattern FTS_WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Quantities are stored as whole numbers of thousandths (grams, milliliters, ...),
+     * so sums in SQLite are exact integer arithmetic.
+     */
+    public static final int QUANTITY_DECIMAL_PLACES = 3;
+    public static final int QUANTITY_SCALE = 1000;
 
     public static final String ITEM_ID = "itemId";
     public static final String MASTER_ID = "masterId";
     public static final String QUANTITY = "quantity";
     public static final String PRODUCT_NAME = "productName";
     public static final String INVENTORY_ITEM_ID = "inventoryItemId";
+    public static final String INVENTORY_ITEM_IDS = "inventoryItemIds";
     public static final String QUERY_MASTER_ITEM = "queryMasterItem";
     public static final String IS_UPDATE_ACTION = "isUpdateAction";
 
@@ -74,12 +95,26 @@ public class Utils {
         return String.format(Locale.ENGLISH, PRICE_FORMAT, price) + CURRENCY_STRING;
     }
 
-    public static String getQuantityString(double quantity) {
-        if (quantity % 1 == 0) {
-            return String.valueOf((long) quantity); // cast to long to remove ".0"
-        } else {
-            return String.valueOf(quantity);
-        }
+    /**
+     * Formats a scaled quantity (see {@link #QUANTITY_SCALE}) without trailing zeros, e.g. 1500 → "1.5", 2000 → "2".
+     *
+     * @param scaledQuantity The quantity in thousandths.
+     * @return The exact decimal representation of the quantity.
+     */
+    public static String getQuantityString(long scaledQuantity) {
+        return BigDecimal.valueOf(scaledQuantity, QUANTITY_DECIMAL_PLACES).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Converts a quantity entered by the user to thousandths (see {@link #QUANTITY_SCALE}).
+     * The input is limited to {@link #QUANTITY_DECIMAL_PLACES} decimals, so the rounding only removes
+     * the binary representation error of the {@code double}.
+     *
+     * @param quantity The quantity as entered by the user.
+     * @return The quantity in thousandths.
+     */
+    public static long toScaledQuantity(double quantity) {
+        return Math.round(quantity * QUANTITY_SCALE);
     }
 
     /**
@@ -204,7 +239,8 @@ public class Utils {
      * Configures the given EditText to accept numeric input with optional decimal places.
      * <p>
      * If {@code decimalPlaces} is greater than 0, the input will allow decimal numbers
-     * with the specified number of decimal digits, and a maximum input length of 10 characters.
+     * with the specified number of decimal digits (at most {@link #QUANTITY_DECIMAL_PLACES}, which is
+     * the precision quantities are stored with), and a maximum input length of 10 characters.
      * Otherwise, only integer input is allowed with a maximum input length of 10 characters.
      *
      * @param editText      the EditText to configure
@@ -213,7 +249,7 @@ public class Utils {
     public static void configureInput(EditText editText, int decimalPlaces) {
         if (decimalPlaces > 0) {
             editText.setInputType(InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_FLAG_DECIMAL);
-            editText.setFilters(new InputFilter[]{new DecimalDigitsInputFilter(decimalPlaces), new InputFilter.LengthFilter(10)});
+            editText.setFilters(new InputFilter[]{new DecimalDigitsInputFilter(Math.min(decimalPlaces, QUANTITY_DECIMAL_PLACES)), new InputFilter.LengthFilter(10)});
         } else {
             editText.setInputType(InputType.TYPE_CLASS_NUMBER);
             editText.setFilters(new InputFilter[]{new InputFilter.LengthFilter(10)});
@@ -221,15 +257,208 @@ public class Utils {
     }
 
     /**
-     * Generates a filename for exporting data based on the current date and device store code.
+     * Returns the common start of all export file names of the given kind, used to replace the previous
+     * export of that kind without touching the files of other kinds.
+     *
+     * @return A string in the format "<EXPORT_PREF><DeviceStoreCode>_<FileNameTag>_"
+     */
+    public static String getExportFilePrefix(@NonNull InventoryItemDataSource.ExportMode exportMode) {
+        return EXPORT_PREF + PrefManager.getDeviceStoreCode() + "_" + exportMode.getFileNameTag() + "_";
+    }
+
+    /**
+     * Generates a filename for exporting data based on the export kind, the current date and device store code.
+     * Kinds that don't replace their previous export also get the time, so every file keeps its own name.
      *
+     * @param extension Extension of the export format, including the dot, e.g. ".json".
      * @return A string representing the export file name in the format:
-     * "<EXPORT_PREF><DeviceStoreCode>_<EXPORT_DATE_FORMAT>"
+     * "<EXPORT_PREF><DeviceStoreCode>_<FileNameTag>_<EXPORT_DATE_FORMAT><extension>" or
+     * "<EXPORT_PREF><DeviceStoreCode>_<FileNameTag>_<EXPORT_DATE_FORMAT>_<EXPORT_TIME_FORMAT><extension>"
+     */
+    public static String getExportFileName(@NonNull InventoryItemDataSource.ExportMode exportMode, @NonNull String extension) {
+        String time = exportMode.replacesPreviousExport() ? ""
+                : "_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern(EXPORT_TIME_FORMAT));
+        return getExportFilePrefix(exportMode) + getExportDateString() + time + extension;
+    }
+
+    /**
+     * Returns the common start of the per-list export files and their manifests, of all lists.
+     *
+     * @return A string in the format "<EXPORT_PREF><DeviceStoreCode>_L"
+     */
+    public static String getListExportsFilePrefix() {
+        return EXPORT_PREF + PrefManager.getDeviceStoreCode() + "_L";
+    }
+
+    /**
+     * Returns the common start of all export file names of the given list, used to replace
+     * the previous export of a re-sent list without touching the files of other lists.
+     *
+     * @return A string in the format "<EXPORT_PREF><DeviceStoreCode>_L<inventoryListId>_"
+     */
+    public static String getListExportFilePrefix(int inventoryListId) {
+        return getListExportsFilePrefix() + inventoryListId + "_";
+    }
+
+    /**
+     * @return A string in the format "<EXPORT_PREF><DeviceStoreCode>_L<inventoryListId>_<EXPORT_DATE_FORMAT><extension>"
+     */
+    public static String getListExportFileName(int inventoryListId, @NonNull String extension) {
+        return getListExportFilePrefix(inventoryListId) + getExportDateString() + extension;
+    }
+
+    /**
+     * Generates the name of the manifest written next to per-list export files. It starts with
+     * {@link #getListExportsFilePrefix()}, so it is replaced together with the list files.
+     *
+     * @param inventoryListId ID of the only exported list, or {@code null} when all lists are exported.
+     * @return A string in the format "<EXPORT_PREF><DeviceStoreCode>_L<inventoryListId>_<EXPORT_DATE_FORMAT>_manifest.json"
+     * or "<EXPORT_PREF><DeviceStoreCode>_LISTS_<EXPORT_DATE_FORMAT>_manifest.json"
+     */
+    public static String getExportManifestFileName(@Nullable Integer inventoryListId) {
+        String prefix = inventoryListId == null
+                ? EXPORT_PREF + PrefManager.getDeviceStoreCode() + "_LISTS_"
+                : getListExportFilePrefix(inventoryListId);
+        return prefix + getExportDateString() + "_manifest.json";
+    }
+
+    /**
+     * Returns the common start of the consolidated export files, which combine the exports of all devices.
+     *
+     * @return A string in the format "<EXPORT_PREF><DeviceStoreCode>_ALL_"
+     */
+    public static String getConsolidatedExportFilePrefix() {
+        return EXPORT_PREF + PrefManager.getDeviceStoreCode() + "_ALL_";
+    }
+
+    /**
+     * @return A string in the format "<EXPORT_PREF><DeviceStoreCode>_ALL_<EXPORT_DATE_FORMAT><extension>"
+     */
+    public static String getConsolidatedExportFileName(@NonNull String extension) {
+        return getConsolidatedExportFilePrefix() + getExportDateString() + extension;
+    }
+
+    /**
+     * @return A string in the format "<EXPORT_PREF><DeviceStoreCode>_ALL_<EXPORT_DATE_FORMAT>_totals.json"
      */
-    public static String getExportFileName() {
+    public static String getConsolidatedTotalsFileName() {
+        return getConsolidatedExportFilePrefix() + getExportDateString() + "_totals.json";
+    }
+
+    private static String getExportDateString() {
         LocalDateTime currentTime = LocalDateTime.now();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern(EXPORT_DATE_FORMAT);
-        String currentTimeString = currentTime.format(formatter);
-        return EXPORT_PREF + PrefManager.getDeviceStoreCode() + "_" + currentTimeString + ".json";
+        return currentTime.format(formatter);
+    }
+
+    /**
+     * Normalizes {@code text} to the key it is searched by: diacritics are removed, {@code đ} is written
+     * as {@code dj} and letters are upper-cased, e.g. {@code "Čokolada Đurđevak"} becomes
+     * {@code "COKOLADA DJURDJEVAK"}. Operators typing without diacritics get the same key.
+     *
+     * @return The key, or {@code null} if {@code text} is null.
+     */
+    @Nullable
+    public static String toSearchKey(@Nullable String text) {
+        if (text == null) {
+            return null;
+        }
+
+        String folded = text.replace("đ", "dj").replace("Đ", "Dj");
+        folded = COMBINING_MARKS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+        return folded.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Builds a full-text search query that matches every word of {@code text} as a token prefix,
+     * e.g. {@code "mleko 1l"} becomes {@code "mleko* 1l*"}. Words are split like the {@code unicode61}
+     * tokenizer splits them, so FTS operators and quotes typed by the user are ignored. Words are
+     * normalized like the search keys, see {@link #toSearchKey(String)}, and lowercased so they are
+     * never read as the {@code AND}, {@code OR} and {@code NOT} operators.
+     *
+     * @param column Column to restrict the words to, or {@code null} to match them in any indexed column.
+     * @return The query, or {@code null} if {@code text} contains no words.
+     */
+    @Nullable
+    public static String toFtsPrefixQuery(@Nullable String text, @Nullable String column) {
+        if (text == null) {
+            return null;
+        }
+
+        StringBuilder query = new StringBuilder();
+        for (String word : FTS_WORD_SEPARATOR.split(toSearchKey(text).toLowerCase(Locale.ROOT))) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            if (column != null) {
+                query.append(column).append(':');
+            }
+            query.append(word).append('*');
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+
+    /**
+     * Adds every three consecutive characters of {@code code}, lowercased, to {@code trigrams}.
+     * Codes shorter than three characters add nothing.
+     */
+    public static void addTrigrams(@Nullable String code, @NonNull Set<String> trigrams) {
+        if (code == null) {
+            return;
+        }
+
+        String lowerCode = code.toLowerCase(Locale.ROOT);
+        for (int i = 0; i + TRIGRAM_LENGTH <= lowerCode.length(); i++) {
+            trigrams.add(lowerCode.substring(i, i + TRIGRAM_LENGTH));
+        }
+    }
+
+    /**
+     * Returns the trigrams all given code fragments have in common with a matching article,
+     * see {@link com.metalac.scanner.app.models.MasterItemTrigram}.
+     */
+    @NonNull
+    public static List<String> getTrigrams(@Nullable String... codeFragments) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String codeFragment : codeFragments) {
+            addTrigrams(codeFragment, trigrams);
+        }
+        return new ArrayList<>(trigrams);
+    }
+
+    /**
+     * Joins full-text search queries, so a row has to match all of them.
+     *
+     * @return The combined query, or {@code null} if all queries are {@code null}.
+     */
+    @Nullable
+    public static String joinFtsQueries(@Nullable String... queries) {
+        StringBuilder joined = new StringBuilder();
+        for (String query : queries) {
+            if (query == null) {
+                continue;
+            }
+            if (joined.length() > 0) {
+                joined.append(' ');
+            }
+            joined.append(query);
+        }
+        return joined.length() > 0 ? joined.toString() : null;
+    }
+
+    /**
+     * Formats the given bytes as a lowercase hexadecimal string, e.g. for checksums.
+     */
+    @NonNull
+    public static String toHexString(@NonNull byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16))
+                    .append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
     }
 }
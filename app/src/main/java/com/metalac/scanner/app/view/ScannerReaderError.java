@@ -10,6 +10,7 @@ public class ScannerReaderError extends RuntimeException {
     public static final int UNKNOWN = 0;
     public static final int ALREADY_VOIDED = 1;
     public static final int ITEM_NOT_FOUND = 2;
+    public static final int MIXED_INVENTORY_LISTS = 3;
 
     private final String title;
     private final String message;
@@ -25,6 +26,10 @@ public class ScannerReaderError extends RuntimeException {
                 this.title = context.getString(R.string.item_not_found_error_title);
                 this.message = context.getString(R.string.item_not_found_error_subtitle);
                 break;
+            case MIXED_INVENTORY_LISTS:
+                this.title = context.getString(R.string.mixed_inventory_lists_error_title);
+                this.message = context.getString(R.string.mixed_inventory_lists_error_subtitle);
+                break;
             case UNKNOWN:
             default:
                 this.title = context.getString(R.string.error_title);
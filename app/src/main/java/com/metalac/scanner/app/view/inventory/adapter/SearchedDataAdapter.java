@@ -10,6 +10,7 @@ import androidx.recyclerview.widget.DiffUtil;
 import com.metalac.scanner.app.models.MasterItem;
 import com.metalac.scanner.app.databinding.ProductItemViewHolderBinding;
 import com.metalac.scanner.app.view.inventory.interfaces.InventoryItemClick;
+import com.metalac.scanner.app.view.inventory.interfaces.InventoryItemLongClick;
 import com.metalac.scanner.app.view.inventory.viewholder.ProductItemViewHolder;
 
 import java.util.Objects;
@@ -17,10 +18,12 @@ import java.util.Objects;
 public class SearchedDataAdapter extends PagingDataAdapter<MasterItem, ProductItemViewHolder> {
 
     private final InventoryItemClick mCallback;
+    private final InventoryItemLongClick mLongClickCallback;
 
-    public SearchedDataAdapter(InventoryItemClick callback) {
+    public SearchedDataAdapter(InventoryItemClick callback, InventoryItemLongClick longClickCallback) {
         super(DIFF_CALLBACK);
         this.mCallback = callback;
+        this.mLongClickCallback = longClickCallback;
     }
 
     /**
@@ -58,7 +61,7 @@ public class SearchedDataAdapter extends PagingDataAdapter<MasterItem, ProductIt
     @NonNull
     @Override
     public ProductItemViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        return new ProductItemViewHolder(ProductItemViewHolderBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false), parent, mCallback);
+        return new ProductItemViewHolder(ProductItemViewHolderBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false), parent, mCallback, mLongClickCallback);
     }
 
     @Override
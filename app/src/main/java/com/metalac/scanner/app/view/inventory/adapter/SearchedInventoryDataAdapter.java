@@ -4,21 +4,35 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.paging.PagingDataAdapter;
 import androidx.recyclerview.widget.DiffUtil;
 
 import com.metalac.scanner.app.databinding.ProductItemViewHolderBinding;
+import com.metalac.scanner.app.models.InventoryItem;
 import com.metalac.scanner.app.models.ProductPreviewItem;
 import com.metalac.scanner.app.view.inventory.interfaces.InventoryItemClick;
+import com.metalac.scanner.app.view.inventory.interfaces.InventoryItemLongClick;
 import com.metalac.scanner.app.view.inventory.viewholder.ProductItemViewHolder;
 
+import java.util.HashSet;
+import java.util.Set;
+
 public class SearchedInventoryDataAdapter extends PagingDataAdapter<ProductPreviewItem, ProductItemViewHolder> {
 
     private final InventoryItemClick mCallback;
+    @Nullable
+    private final InventoryItemLongClick mLongClickCallback;
+    private final Set<Long> mSelectedIds = new HashSet<>();
 
     public SearchedInventoryDataAdapter(InventoryItemClick callback) {
+        this(callback, null);
+    }
+
+    public SearchedInventoryDataAdapter(InventoryItemClick callback, @Nullable InventoryItemLongClick longClickCallback) {
         super(DIFF_CALLBACK);
         this.mCallback = callback;
+        this.mLongClickCallback = longClickCallback;
     }
 
     static final DiffUtil.ItemCallback<ProductPreviewItem> DIFF_CALLBACK =
@@ -38,7 +52,7 @@ public class SearchedInventoryDataAdapter extends PagingDataAdapter<ProductPrevi
     @NonNull
     @Override
     public ProductItemViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        return new ProductItemViewHolder(ProductItemViewHolderBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false), parent, mCallback);
+        return new ProductItemViewHolder(ProductItemViewHolderBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false), parent, mCallback, mLongClickCallback);
     }
 
     @Override
@@ -46,6 +60,46 @@ public class SearchedInventoryDataAdapter extends PagingDataAdapter<ProductPrevi
         ProductPreviewItem productPreviewItem = getItem(position);
         if (productPreviewItem != null) {
             holder.bind(productPreviewItem);
+            holder.setSelected(mSelectedIds.contains(productPreviewItem.getInventoryId()));
+        }
+    }
+
+    /**
+     * Adds the item to the selection, or removes it if it is already selected.
+     * Voided items can't be selected.
+     *
+     * @param productPreviewItem The item to toggle.
+     */
+    public void toggleSelection(@NonNull ProductPreviewItem productPreviewItem) {
+        if (productPreviewItem.getStatus() != InventoryItem.Status.NON_VOIDED) {
+            return;
+        }
+
+        long inventoryId = productPreviewItem.getInventoryId();
+        if (!mSelectedIds.remove(inventoryId)) {
+            mSelectedIds.add(inventoryId);
+        }
+
+        int position = snapshot().indexOf(productPreviewItem);
+        if (position > -1) {
+            notifyItemChanged(position);
         }
     }
+
+    public void clearSelection() {
+        if (mSelectedIds.isEmpty()) {
+            return;
+        }
+        mSelectedIds.clear();
+        notifyItemRangeChanged(0, getItemCount());
+    }
+
+    public boolean isSelectionActive() {
+        return !mSelectedIds.isEmpty();
+    }
+
+    @NonNull
+    public Set<Long> getSelectedIds() {
+        return new HashSet<>(mSelectedIds);
+    }
 }
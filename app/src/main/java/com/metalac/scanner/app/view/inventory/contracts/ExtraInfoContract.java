@@ -36,11 +36,13 @@ public interface ExtraInfoContract {
     interface Presenter extends BasePresenter {
         void loadAllMasterData(long inventoryItemId, String masterIdent);
 
+        void loadBulkUpdateData(@NonNull long[] inventoryItemIds);
+
         void validateQuantity(double quantity, String expDate, String damageCode, String note);
 
         void addItem(@NonNull InventoryItem inventoryItem);
 
-        void updateItem(@Nullable String expDate, @Nullable String damageCode, @Nullable String note);
+        void updateItem(@Nullable String expDate, @Nullable String damageCode, @Nullable String note, boolean clearEmptyFields);
 
         void setResultArgs(ISetResultArgsCallback setResultArgsCallback);
 
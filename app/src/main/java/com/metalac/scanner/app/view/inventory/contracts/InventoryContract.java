@@ -2,6 +2,7 @@ package com.metalac.scanner.app.view.inventory.contracts;
 
 import androidx.annotation.NonNull;
 
+import com.metalac.scanner.app.models.ArticleListTotal;
 import com.metalac.scanner.app.models.InventoryItem;
 import com.metalac.scanner.app.models.MasterItem;
 import com.metalac.scanner.app.models.ProductPreviewItem;
@@ -15,7 +16,7 @@ public interface InventoryContract {
     interface View extends BaseView {
         void onMasterItemLoaded(@NonNull MasterItem masterItem, boolean restartQuantity);
 
-        void onMasterItemLoadedByWeightBarcode(@NonNull MasterItem masterItem, double weight);
+        void onMasterItemLoadedByWeightBarcode(@NonNull MasterItem masterItem, long weight);
 
         void onMasterItemLoadingFailed(@NonNull ScannerReaderError scannerReaderError);
 
@@ -36,6 +37,12 @@ public interface InventoryContract {
         void displayCurrentListData(String listName);
 
         void resetAlternativeSearch(boolean collapseView);
+
+        void onIdentSuggestionsLoaded(@NonNull String prefix, @NonNull List<String> idents);
+
+        void onAltIdSuggestionsLoaded(@NonNull String prefix, @NonNull List<String> altIds);
+
+        void showArticleListTotals(@NonNull String ident, @NonNull List<ArticleListTotal> articleListTotals);
     }
 
     interface Presenter extends BasePresenter {
@@ -62,5 +69,11 @@ public interface InventoryContract {
         void getItemByIdent(@NonNull String ident);
 
         void getItemByAltId(@NonNull String altId);
+
+        void loadIdentSuggestions(@NonNull String prefix);
+
+        void loadAltIdSuggestions(@NonNull String prefix);
+
+        void loadArticleListTotals();
     }
 }
@@ -1,5 +1,7 @@
 package com.metalac.scanner.app.view.inventory.contracts;
 
+import com.metalac.scanner.app.models.QueryMasterItem;
+import com.metalac.scanner.app.models.SearchFacets;
 import com.metalac.scanner.app.view.BasePresenter;
 import com.metalac.scanner.app.view.BaseView;
 
@@ -10,9 +12,11 @@ public interface SearchContract {
     interface View extends BaseView {
         void onUnitOfMeasureLoaded(ArrayList<String> unitOfMeasuresList);
         void onUnitOfMeasureFailed();
+        void onSearchFacetsLoaded(SearchFacets searchFacets);
     }
 
     interface Presenter extends BasePresenter {
         void getUnitOfMeasure();
+        void loadSearchFacets(QueryMasterItem queryMasterItem);
     }
 }
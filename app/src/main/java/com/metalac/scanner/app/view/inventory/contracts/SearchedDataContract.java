@@ -1,23 +1,34 @@
 package com.metalac.scanner.app.view.inventory.contracts;
 
+import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
 import androidx.paging.PagingData;
 
+import com.metalac.scanner.app.models.ArticleListTotal;
 import com.metalac.scanner.app.models.MasterItem;
 import com.metalac.scanner.app.models.QueryMasterItem;
 import com.metalac.scanner.app.view.BasePresenter;
 import com.metalac.scanner.app.view.BaseView;
+import com.metalac.scanner.app.view.ScannerReaderError;
+
+import java.util.List;
 
 public interface SearchedDataContract {
     interface View extends BaseView {
         void showMasterData(LiveData<PagingData<MasterItem>> masterItems);
 
         void showTryAgainDialog();
+
+        void showArticleListTotals(@NonNull String ident, @NonNull List<ArticleListTotal> articleListTotals);
+
+        void showErrorDialog(@NonNull ScannerReaderError scannerReaderError);
     }
 
     interface Presenter extends BasePresenter {
         void loadItems(QueryMasterItem queryMasterItem);
 
         void searchByName(String productName);
+
+        void loadArticleListTotals(@NonNull String ident);
     }
 }
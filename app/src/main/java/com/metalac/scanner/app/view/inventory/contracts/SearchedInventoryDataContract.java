@@ -1,5 +1,6 @@
 package com.metalac.scanner.app.view.inventory.contracts;
 
+import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
 import androidx.paging.PagingData;
 
@@ -9,11 +10,15 @@ import com.metalac.scanner.app.view.BasePresenter;
 import com.metalac.scanner.app.view.BaseView;
 import com.metalac.scanner.app.view.ScannerReaderError;
 
+import java.util.Set;
+
 public interface SearchedInventoryDataContract {
     interface View extends BaseView {
         void showInventoryData(LiveData<PagingData<ProductPreviewItem>> productPreviewItems);
 
         void showErrorDialog(ScannerReaderError scannerReaderError);
+
+        void onItemsVoided();
     }
 
     interface Presenter extends BasePresenter {
@@ -22,5 +27,7 @@ public interface SearchedInventoryDataContract {
         void searchByName(String productName);
 
         void voidItem(long inventoryItemId);
+
+        void voidItems(@NonNull Set<Long> inventoryItemIds);
     }
 }
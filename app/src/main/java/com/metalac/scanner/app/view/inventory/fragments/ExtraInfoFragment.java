@@ -100,6 +100,9 @@ public class ExtraInfoFragment extends BaseFragment implements ExtraInfoContract
 
         if (!masterIdent.isEmpty()) {
             mPresenter.loadAllMasterData(args.getInventoryItemId(), masterIdent);
+        } else if (args.getInventoryItemIds() != null) {
+            mBinding.cbClearEmptyFields.setVisibility(VISIBLE);
+            mPresenter.loadBulkUpdateData(args.getInventoryItemIds());
         }
     }
 
@@ -367,7 +370,8 @@ public class ExtraInfoFragment extends BaseFragment implements ExtraInfoContract
                     mPresenter.updateItem(
                             Utils.getStringOrNull(mBinding.etExpirationDate),
                             Utils.extractDamageCode(mBinding.actDamage),
-                            Utils.getStringOrNull(mBinding.etNote));
+                            Utils.getStringOrNull(mBinding.etNote),
+                            mBinding.cbClearEmptyFields.isChecked());
                 }
             });
         }
@@ -381,7 +385,7 @@ public class ExtraInfoFragment extends BaseFragment implements ExtraInfoContract
 
     @NonNull
     private InventoryItem createInventoryItem(@NonNull MasterItem masterItem, double quantity) {
-        InventoryItem inventoryItem = new InventoryItem(masterItem.getIdent(), quantity);
+        InventoryItem inventoryItem = new InventoryItem(masterItem.getIdent(), Utils.toScaledQuantity(quantity));
         String expDate = Utils.getStringOrNull(mBinding.etExpirationDate);
         String damageCode = Utils.extractDamageCode(mBinding.actDamage);
         String note = Utils.getStringOrNull(mBinding.etNote);
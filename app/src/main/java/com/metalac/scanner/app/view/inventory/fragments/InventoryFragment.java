@@ -14,6 +14,8 @@ import android.view.MenuInflater;
 import android.view.MenuItem;
 import android.view.View;
 import android.view.inputmethod.EditorInfo;
+import android.widget.ArrayAdapter;
+import android.widget.AutoCompleteTextView;
 import android.widget.EditText;
 import android.widget.TextView;
 
@@ -30,6 +32,7 @@ import com.metalac.scanner.app.data.source.PrefManager;
 import com.metalac.scanner.app.R;
 import com.metalac.scanner.app.utils.Utils;
 import com.metalac.scanner.app.utils.ViewAnimationUtils;
+import com.metalac.scanner.app.models.ArticleListTotal;
 import com.metalac.scanner.app.models.InventoryItem;
 import com.metalac.scanner.app.models.MasterItem;
 import com.metalac.scanner.app.helpers.SimpleTextWatcher;
@@ -47,9 +50,11 @@ import com.metalac.scanner.app.view.ScannerReaderError;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class InventoryFragment extends BaseFragment implements InventoryContract.View {
     private static final String INFO_PREFIX = " | ";
+    private static final int CODE_SUGGESTIONS_THRESHOLD = 2;
     private FragmentInventoryBinding mBinding;
     private InventoryPresenter mPresenter;
     private InventoryItemAdapter mInventoryItemAdapter;
@@ -190,6 +195,59 @@ public class InventoryFragment extends BaseFragment implements InventoryContract
         }
     }
 
+    /**
+     * Shows the idents starting with the typed prefix in any case under the ident field, unless the user has typed on.
+     *
+     * @param prefix The prefix the suggestions were loaded for.
+     * @param idents Idents starting with the prefix.
+     */
+    @Override
+    public void onIdentSuggestionsLoaded(@NonNull String prefix, @NonNull List<String> idents) {
+        if (mBinding != null) {
+            showCodeSuggestions(mBinding.iAlternativeSearch.etIdent, prefix, idents);
+        }
+    }
+
+    /**
+     * Shows the alternative codes starting with the typed prefix under the alternative ID field,
+     * unless the user has typed on.
+     *
+     * @param prefix The prefix the suggestions were loaded for.
+     * @param altIds Alternative codes starting with the prefix.
+     */
+    @Override
+    public void onAltIdSuggestionsLoaded(@NonNull String prefix, @NonNull List<String> altIds) {
+        if (mBinding != null) {
+            showCodeSuggestions(mBinding.iAlternativeSearch.etAltId, prefix, altIds);
+        }
+    }
+
+    private void showCodeSuggestions(@NonNull AutoCompleteTextView field, @NonNull String prefix, @NonNull List<String> codes) {
+        String text = Utils.getTextOrEmpty(field);
+        if (!field.hasFocus() || !text.equals(prefix) || codes.isEmpty()
+                || (codes.size() == 1 && codes.get(0).equalsIgnoreCase(text))) {
+            field.dismissDropDown();
+            return;
+        }
+        field.setAdapter(new ArrayAdapter<>(requireContext(), R.layout.dropdown_item_with_divider, R.id.dropdown_item_text, codes));
+        field.showDropDown();
+    }
+
+    /**
+     * Shows the totals of the loaded article in every inventory list it was scanned in.
+     *
+     * @param ident             Ident of the article.
+     * @param articleListTotals Totals of the article per list.
+     */
+    @Override
+    public void showArticleListTotals(@NonNull String ident, @NonNull List<ArticleListTotal> articleListTotals) {
+        AlertDialog dialog = DialogHelper.createArticleListTotalsDialog(new DialogConfig(getContext(), getLayoutInflater()),
+                ident, articleListTotals);
+        if (dialog != null) {
+            dialog.show();
+        }
+    }
+
     /**
      * Callback invoked when the {@link MasterItem} is successfully loaded from a weight barcode.
      * <p>
@@ -202,12 +260,12 @@ public class InventoryFragment extends BaseFragment implements InventoryContract
      * @param weight     the parsed weight in kilograms extracted from the barcode; must be a positive decimal
      */
     @Override
-    public void onMasterItemLoadedByWeightBarcode(@NonNull MasterItem masterItem, double weight) {
+    public void onMasterItemLoadedByWeightBarcode(@NonNull MasterItem masterItem, long weight) {
         if (mBinding == null) {
             return;
         }
         onMasterItemLoaded(masterItem, true);
-        mBinding.etQuantity.setText(String.valueOf(weight));
+        mBinding.etQuantity.setText(Utils.getQuantityString(weight));
         mBinding.etQuantity.clearFocus();
     }
 
@@ -403,6 +461,7 @@ public class InventoryFragment extends BaseFragment implements InventoryContract
             public void onCreateMenu(@NonNull Menu menu, @NonNull MenuInflater inflater) {
                 inflater.inflate(R.menu.toolbar_inventory, menu);
                 menu.findItem(R.id.extraInfo).setEnabled(mEnableExtraInfo);
+                menu.findItem(R.id.articleListTotals).setEnabled(mEnableExtraInfo);
             }
 
             @Override
@@ -416,6 +475,11 @@ public class InventoryFragment extends BaseFragment implements InventoryContract
                 } else if (id == R.id.search) {
                     handleSearchNavigation();
                     return true;
+                } else if (id == R.id.articleListTotals) {
+                    if (mPresenter != null) {
+                        mPresenter.loadArticleListTotals();
+                    }
+                    return true;
                 }
                 return false;
             }
@@ -720,7 +784,7 @@ public class InventoryFragment extends BaseFragment implements InventoryContract
      */
     private void addInventoryItem(MasterItem masterItem, double quantity) {
         if (mPresenter != null) {
-            mPresenter.addInventoryItem(new InventoryItem(masterItem.getIdent(), quantity));
+            mPresenter.addInventoryItem(new InventoryItem(masterItem.getIdent(), Utils.toScaledQuantity(quantity)));
         }
     }
 
@@ -789,6 +853,37 @@ public class InventoryFragment extends BaseFragment implements InventoryContract
 
         mBinding.iAlternativeSearch.etIdent.addTextChangedListener(watcher);
         mBinding.iAlternativeSearch.etAltId.addTextChangedListener(watcher);
+
+        setUpCodeSuggestions(mBinding.iAlternativeSearch.etIdent, prefix -> mPresenter.loadIdentSuggestions(prefix),
+                this::findItemByIdent);
+        setUpCodeSuggestions(mBinding.iAlternativeSearch.etAltId, prefix -> mPresenter.loadAltIdSuggestions(prefix),
+                this::findItemAltId);
+    }
+
+    /**
+     * Requests code suggestions while the user types into an alternative search field.
+     * <p>
+     * From {@link #CODE_SUGGESTIONS_THRESHOLD} characters on, every change requests the codes starting with
+     * the typed text. Picking a suggestion fills the field and searches for it right away.
+     * </p>
+     *
+     * @param field              The ident or alternative ID field.
+     * @param loadSuggestions    Requests the suggestions for the typed prefix.
+     * @param onSuggestionPicked The search to run when a suggestion is picked.
+     */
+    private void setUpCodeSuggestions(@NonNull AutoCompleteTextView field, @NonNull Consumer<String> loadSuggestions,
+                                      @NonNull Runnable onSuggestionPicked) {
+        field.setThreshold(CODE_SUGGESTIONS_THRESHOLD);
+        field.addTextChangedListener(new SimpleTextWatcher() {
+            @Override
+            public void afterTextChanged(Editable s) {
+                if (mPresenter != null && field.hasFocus() && !field.isPerformingCompletion()
+                        && s.length() >= CODE_SUGGESTIONS_THRESHOLD) {
+                    loadSuggestions.accept(s.toString());
+                }
+            }
+        });
+        field.setOnItemClickListener((parent, view, position, id) -> onSuggestionPicked.run());
     }
 
     /**
@@ -3,16 +3,23 @@ package com.metalac.scanner.app.view.inventory.fragments;
 import static com.google.android.material.textfield.TextInputLayout.END_ICON_NONE;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
 import android.text.InputType;
 import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.EditText;
 
 import androidx.annotation.NonNull;
 import androidx.viewbinding.ViewBinding;
 
 import com.metalac.scanner.app.Injection;
 import com.metalac.scanner.app.R;
+import com.metalac.scanner.app.helpers.SimpleTextWatcher;
 import com.metalac.scanner.app.utils.Utils;
 import com.metalac.scanner.app.models.QueryMasterItem;
+import com.metalac.scanner.app.models.SearchFacets;
 import com.metalac.scanner.app.databinding.FragmentSearchBinding;
 import com.metalac.scanner.app.view.BaseFragment;
 import com.metalac.scanner.app.view.BasePresenter;
@@ -24,13 +31,18 @@ import com.metalac.scanner.app.view.inventory.presenters.SearchPresenter;
 import java.util.ArrayList;
 
 public class SearchFragment extends BaseFragment implements SearchContract.View {
+    private static final int FACETS_DELAY = 300;
+
     private FragmentSearchBinding mBinding;
+    private SearchPresenter mPresenter;
+    private final Handler mFacetsHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mLoadFacets = this::loadSearchFacets;
 
     @Override
     protected void onCreateView(ViewBinding viewBinding, BasePresenter basePresenter) {
         mBinding = (FragmentSearchBinding) viewBinding;
         MainActivity activity = (MainActivity) getActivity();
-        SearchPresenter mPresenter = (SearchPresenter) basePresenter;
+        mPresenter = (SearchPresenter) basePresenter;
 
         if (activity != null) {
             activity.setupToolbar(R.id.SearchFragment, getString(R.string.search));
@@ -40,6 +52,41 @@ public class SearchFragment extends BaseFragment implements SearchContract.View
         mBinding.btDataList.setOnClickListener(v -> openInventoryData());
 
         mPresenter.getUnitOfMeasure();
+        setupSearchFacets();
+    }
+
+    /**
+     * Refreshes the facet counts whenever a filter of the form changes.
+     * - Text changes are delayed with a {@link Handler} so the counts are loaded once the user stops typing.
+     * - The counts of the initial filters are loaded right away.
+     */
+    private void setupSearchFacets() {
+        SimpleTextWatcher facetsWatcher = new SimpleTextWatcher() {
+            @Override
+            public void afterTextChanged(Editable s) {
+                scheduleSearchFacets();
+            }
+        };
+        for (EditText field : new EditText[]{mBinding.etIdEnt, mBinding.etProductName, mBinding.etMeasureUnit,
+                mBinding.etProductPrice, mBinding.etAltId1, mBinding.etAltId2, mBinding.etBarcode,
+                mBinding.etSalesProgram, mBinding.etProcurementProgram}) {
+            field.addTextChangedListener(facetsWatcher);
+        }
+        mBinding.cbActive.setOnCheckedChangeListener((buttonView, isChecked) -> scheduleSearchFacets());
+        mBinding.cbBookkeeping.setOnCheckedChangeListener((buttonView, isChecked) -> scheduleSearchFacets());
+
+        loadSearchFacets();
+    }
+
+    private void scheduleSearchFacets() {
+        mFacetsHandler.removeCallbacks(mLoadFacets);
+        mFacetsHandler.postDelayed(mLoadFacets, FACETS_DELAY);
+    }
+
+    private void loadSearchFacets() {
+        if (mBinding != null && mPresenter != null) {
+            mPresenter.loadSearchFacets(buildQueryMasterItem());
+        }
     }
 
     private void openInventoryData() {
@@ -62,13 +109,21 @@ public class SearchFragment extends BaseFragment implements SearchContract.View
     }
 
     /**
-     * Collects data from input fields and adds a {@link QueryMasterItem} to the given {@link Bundle}.
-     * This includes values like product ID, name, unit, price, barcodes, and program info.
-     * The created item is stored in the bundle using the {@link Utils#QUERY_MASTER_ITEM} key.
+     * Adds the {@link QueryMasterItem} of the input fields to the given {@link Bundle}
+     * using the {@link Utils#QUERY_MASTER_ITEM} key.
      *
      * @param bundle The bundle where the item data will be stored.
      */
     private void populateBundle(@NonNull Bundle bundle) {
+        bundle.putParcelable(Utils.QUERY_MASTER_ITEM, buildQueryMasterItem());
+    }
+
+    /**
+     * Collects data from input fields into a {@link QueryMasterItem}.
+     * This includes values like product ID, name, unit, price, barcodes, and program info.
+     */
+    @NonNull
+    private QueryMasterItem buildQueryMasterItem() {
         String ident = Utils.getStringOrNull(mBinding.etIdEnt);
 
         String productName = Utils.getStringOrNull(mBinding.etProductName);
@@ -94,7 +149,7 @@ public class SearchFragment extends BaseFragment implements SearchContract.View
             price = 0.0;
         }
 
-        QueryMasterItem queryMasterItem = new QueryMasterItem.QueryMasterBuilder()
+        return new QueryMasterItem.QueryMasterBuilder()
                 .setIdent(ident)
                 .setName(productName)
                 .setUnitOfMeasure(measureUnit)
@@ -108,8 +163,6 @@ public class SearchFragment extends BaseFragment implements SearchContract.View
                 .setAccounting(mBinding.cbBookkeeping.isChecked() ? 1 : 0)
                 .setFilterText("")
                 .build();
-
-        bundle.putParcelable(Utils.QUERY_MASTER_ITEM, queryMasterItem);
     }
 
     @Override
@@ -159,6 +212,21 @@ public class SearchFragment extends BaseFragment implements SearchContract.View
         mBinding.tillMeasureUnit.setEndIconMode(END_ICON_NONE);
     }
 
+    /**
+     * Shows the number of articles matching the filters and the number of active and bookkeeping
+     * articles next to the checkboxes.
+     *
+     * @param searchFacets Facet counts of the current filters.
+     */
+    @Override
+    public void onSearchFacetsLoaded(SearchFacets searchFacets) {
+        if (mBinding == null) return;
+        mBinding.tvMatchingItems.setText(getString(R.string.matching_articles, searchFacets.getMatchingCount()));
+        mBinding.tvMatchingItems.setVisibility(View.VISIBLE);
+        mBinding.cbActive.setText(getString(R.string.facet_label, getString(R.string.active), searchFacets.getActiveCount(1)));
+        mBinding.cbBookkeeping.setText(getString(R.string.facet_label, getString(R.string.bookkeeping_id), searchFacets.getAccountingCount(1)));
+    }
+
     @Override
     public void showProgress() {
         //not in use
@@ -172,6 +240,7 @@ public class SearchFragment extends BaseFragment implements SearchContract.View
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        mFacetsHandler.removeCallbacks(mLoadFacets);
         mBinding = null;
     }
 }
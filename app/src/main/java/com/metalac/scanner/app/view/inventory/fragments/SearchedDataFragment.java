@@ -9,6 +9,7 @@ import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.lifecycle.LiveData;
 import androidx.navigation.Navigation;
@@ -18,11 +19,13 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.viewbinding.ViewBinding;
 
+import com.metalac.scanner.app.helpers.DialogConfig;
 import com.metalac.scanner.app.helpers.DialogHelper;
 import com.metalac.scanner.app.Injection;
 import com.metalac.scanner.app.R;
 import com.metalac.scanner.app.helpers.SimpleTextWatcher;
 import com.metalac.scanner.app.utils.Utils;
+import com.metalac.scanner.app.models.ArticleListTotal;
 import com.metalac.scanner.app.models.MasterItem;
 import com.metalac.scanner.app.models.QueryMasterItem;
 import com.metalac.scanner.app.databinding.FragmentSearchedDataBinding;
@@ -30,10 +33,13 @@ import com.metalac.scanner.app.view.BaseFragment;
 import com.metalac.scanner.app.view.BasePresenter;
 import com.metalac.scanner.app.view.BaseView;
 import com.metalac.scanner.app.view.MainActivity;
+import com.metalac.scanner.app.view.ScannerReaderError;
 import com.metalac.scanner.app.view.inventory.contracts.SearchedDataContract;
 import com.metalac.scanner.app.view.inventory.presenters.SearchedDataPresenter;
 import com.metalac.scanner.app.view.inventory.adapter.SearchedDataAdapter;
 
+import java.util.List;
+
 import kotlin.Unit;
 
 public class SearchedDataFragment extends BaseFragment implements SearchedDataContract.View {
@@ -68,7 +74,8 @@ public class SearchedDataFragment extends BaseFragment implements SearchedDataCo
 
     /**
      * Sets up the {@link RecyclerView} and its adapter to show searched data.
-     * - Initializes the {@link SearchedDataAdapter} with a click listener to navigate to InventoryFragment.
+     * - Initializes the {@link SearchedDataAdapter} with a click listener to navigate to InventoryFragment
+     * and a long click listener to show the totals of the article in all inventory lists.
      * - Sets a {@link LinearLayoutManager} for the RecyclerView.
      * - Shows or hides the "No Data Found" message based on whether data is available.
      * - Scrolls to the top if a filter action was recently applied.
@@ -81,6 +88,10 @@ public class SearchedDataFragment extends BaseFragment implements SearchedDataCo
             Bundle bundle = new Bundle();
             bundle.putString(Utils.ITEM_ID, productPreviewItem.getIdent());
             navigate(mBinding.getRoot(), R.id.SearchedDataFragment, R.id.action_SearchedDataFragment_to_InventoryFragment, bundle);
+        }, productPreviewItem -> {
+            if (mPresenter != null) {
+                mPresenter.loadArticleListTotals(productPreviewItem.getIdent());
+            }
         });
         mBinding.rvSearchedData.setLayoutManager(new LinearLayoutManager(getContext()));
         mBinding.rvSearchedData.setAdapter(mSearchedDataAdapter);
@@ -128,7 +139,8 @@ public class SearchedDataFragment extends BaseFragment implements SearchedDataCo
 
     @Override
     protected BasePresenter onBindPresenter() {
-        return new SearchedDataPresenter(Injection.provideMasterItemRepository(requireContext()));
+        return new SearchedDataPresenter(Injection.provideMasterItemRepository(requireContext()),
+                Injection.provideInventoryItemRepository(requireContext()));
     }
 
     /**
@@ -165,6 +177,26 @@ public class SearchedDataFragment extends BaseFragment implements SearchedDataCo
         }
     }
 
+    /**
+     * Shows the totals of the long clicked article in every inventory list it was scanned in.
+     *
+     * @param ident             Ident of the article.
+     * @param articleListTotals Totals of the article per list.
+     */
+    @Override
+    public void showArticleListTotals(@NonNull String ident, @NonNull List<ArticleListTotal> articleListTotals) {
+        AlertDialog dialog = DialogHelper.createArticleListTotalsDialog(new DialogConfig(getContext(), getLayoutInflater()),
+                ident, articleListTotals);
+        if (dialog != null) {
+            dialog.show();
+        }
+    }
+
+    @Override
+    public void showErrorDialog(@NonNull ScannerReaderError scannerReaderError) {
+        DialogHelper.showErrorDialog(new DialogConfig(getContext(), getLayoutInflater(), scannerReaderError));
+    }
+
     private void goBack() {
         Navigation.findNavController(mBinding.getRoot()).navigateUp();
     }
@@ -38,6 +38,8 @@ import com.metalac.scanner.app.view.inventory.adapter.SearchedInventoryDataAdapt
 import com.metalac.scanner.app.view.inventory.contracts.SearchedInventoryDataContract;
 import com.metalac.scanner.app.view.inventory.presenters.SearchedInventoryDataPresenter;
 
+import java.util.Set;
+
 import kotlin.Unit;
 
 public class SearchedInventoryDataFragment extends BaseFragment implements SearchedInventoryDataContract.View {
@@ -123,6 +125,11 @@ public class SearchedInventoryDataFragment extends BaseFragment implements Searc
         DialogHelper.showErrorDialog(new DialogConfig(getContext(), getLayoutInflater(), scannerReaderError));
     }
 
+    @Override
+    public void onItemsVoided() {
+        clearSelection();
+    }
+
     protected MenuProvider provideMenuProvider() {
         return new MenuProvider() {
             @Override
@@ -130,12 +137,26 @@ public class SearchedInventoryDataFragment extends BaseFragment implements Searc
                 inflater.inflate(R.menu.toolbar_searched_inventory_data, menu);
             }
 
+            @Override
+            public void onPrepareMenu(@NonNull Menu menu) {
+                boolean isSelectionActive = mSearchedInventoryDataAdapter != null && mSearchedInventoryDataAdapter.isSelectionActive();
+                menu.findItem(R.id.voidSelected).setVisible(isSelectionActive);
+                menu.findItem(R.id.updateSelected).setVisible(isSelectionActive);
+                menu.findItem(R.id.inventory).setVisible(!isSelectionActive);
+            }
+
             @Override
             public boolean onMenuItemSelected(@NonNull MenuItem item) {
                 if (item.getItemId() == R.id.inventory) {
                     navigate(mBinding.getRoot(), R.id.SearchedInventoryDataFragment,
                             R.id.action_SearchedInventoryDataFragment_to_InventoryFragment, null);
                     return true;
+                } else if (item.getItemId() == R.id.voidSelected) {
+                    showVoidSelectedConfirmationDialog();
+                    return true;
+                } else if (item.getItemId() == R.id.updateSelected) {
+                    launchBulkUpdateFlow();
+                    return true;
                 }
                 return false;
             }
@@ -166,7 +187,7 @@ public class SearchedInventoryDataFragment extends BaseFragment implements Searc
     }
 
     private void setupRecyclerView() {
-        mSearchedInventoryDataAdapter = new SearchedInventoryDataAdapter(this::onItemClicked);
+        mSearchedInventoryDataAdapter = new SearchedInventoryDataAdapter(this::onItemClicked, this::onItemLongClicked);
         mBinding.rvSearchedData.setLayoutManager(new LinearLayoutManager(getContext()));
         mBinding.rvSearchedData.setAdapter(mSearchedInventoryDataAdapter);
     }
@@ -231,6 +252,11 @@ public class SearchedInventoryDataFragment extends BaseFragment implements Searc
     }
 
     private void onItemClicked(ProductPreviewItem productPreviewItem) {
+        if (mSearchedInventoryDataAdapter != null && mSearchedInventoryDataAdapter.isSelectionActive()) {
+            toggleSelection(productPreviewItem);
+            return;
+        }
+
         dismissItemOptionsDialog();
 
         mItemOptionsDialog = DialogHelper.createItemOptionsDialog(
@@ -268,6 +294,60 @@ public class SearchedInventoryDataFragment extends BaseFragment implements Searc
                 }));
     }
 
+    /**
+     * Starts (or extends) multi-selection with the long-pressed item.
+     */
+    private void onItemLongClicked(ProductPreviewItem productPreviewItem) {
+        toggleSelection(productPreviewItem);
+    }
+
+    private void toggleSelection(ProductPreviewItem productPreviewItem) {
+        if (mSearchedInventoryDataAdapter == null) return;
+
+        mSearchedInventoryDataAdapter.toggleSelection(productPreviewItem);
+        requireActivity().invalidateMenu();
+    }
+
+    private void clearSelection() {
+        if (mSearchedInventoryDataAdapter == null) return;
+
+        mSearchedInventoryDataAdapter.clearSelection();
+        requireActivity().invalidateMenu();
+    }
+
+    private void showVoidSelectedConfirmationDialog() {
+        if (mSearchedInventoryDataAdapter == null) return;
+
+        Set<Long> selectedIds = mSearchedInventoryDataAdapter.getSelectedIds();
+        DialogHelper.showVoidItemDialog(new DialogConfig(getContext(), getLayoutInflater())
+                .setSubtitle(getString(R.string.selected_items_count, selectedIds.size()))
+                .setClickListener((dialog, which) -> {
+                    if (which == DialogInterface.BUTTON_POSITIVE && mPresenter != null) {
+                        mPresenter.voidItems(selectedIds);
+                    }
+                }));
+    }
+
+    /**
+     * Opens {@link ExtraInfoFragment} in update mode for all selected items at once.
+     */
+    private void launchBulkUpdateFlow() {
+        if (mBinding == null || mSearchedInventoryDataAdapter == null) return;
+
+        long[] inventoryItemIds = mSearchedInventoryDataAdapter.getSelectedIds().stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+
+        Bundle bundle = new Bundle();
+        bundle.putLongArray(Utils.INVENTORY_ITEM_IDS, inventoryItemIds);
+        bundle.putBoolean(Utils.IS_UPDATE_ACTION, true);
+        bundle.putString(Utils.PRODUCT_NAME, getString(R.string.selected_items_count, inventoryItemIds.length));
+
+        clearSelection();
+        navigate(mBinding.getRoot(), R.id.SearchedInventoryDataFragment,
+                R.id.action_SearchedInventoryDataFragment_to_ExtraInfoFragment, bundle);
+    }
+
     private void launchItemUpdateFlow(long inventoryItemId, String itemIdent, String itemName) {
         if (mBinding == null) return;
 
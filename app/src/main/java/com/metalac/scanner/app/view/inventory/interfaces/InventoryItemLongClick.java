@@ -0,0 +1,7 @@
+package com.metalac.scanner.app.view.inventory.interfaces;
+
+import com.metalac.scanner.app.models.ProductPreviewItem;
+
+public interface InventoryItemLongClick {
+    void onItemLongClicked(ProductPreviewItem productPreviewItem);
+}
@@ -14,6 +14,7 @@ import com.metalac.scanner.app.models.InventoryItem;
 import com.metalac.scanner.app.models.InventoryList;
 import com.metalac.scanner.app.models.MasterItem;
 import com.metalac.scanner.app.models.ProductPreviewItem;
+import com.metalac.scanner.app.utils.Utils;
 import com.metalac.scanner.app.view.BaseView;
 import com.metalac.scanner.app.view.ScannerReaderError;
 import com.metalac.scanner.app.view.inventory.contracts.ExtraInfoContract;
@@ -22,6 +23,8 @@ import com.metalac.scanner.app.view.inventory.interfaces.ILoadDamageInfoCallback
 import com.metalac.scanner.app.view.inventory.interfaces.ISetResultArgsCallback;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
 
 public class ExtraInfoPresenter implements ExtraInfoContract.Presenter {
 
@@ -37,6 +40,8 @@ public class ExtraInfoPresenter implements ExtraInfoContract.Presenter {
     private MasterItem mMasterItem;
     private String mMasterIdent;
     private long mInventoryItemId;
+    @Nullable
+    private Set<Long> mInventoryItemIds;
     private boolean mExtraInfoItemAdded;
 
     public ExtraInfoPresenter(@Nullable MasterItemRepository masterItemRepository,
@@ -66,6 +71,22 @@ public class ExtraInfoPresenter implements ExtraInfoContract.Presenter {
         loadInventoryItem(inventoryItemId);
     }
 
+    /**
+     * Prepares the screen for updating the additional data of several inventory items at once.
+     * Only the damage codes are loaded, since the selected items can belong to different master items.
+     *
+     * @param inventoryItemIds The IDs of the inventory items to update.
+     */
+    @Override
+    public void loadBulkUpdateData(@NonNull long[] inventoryItemIds) {
+        mInventoryItemIds = new HashSet<>();
+        for (long inventoryItemId : inventoryItemIds) {
+            mInventoryItemIds.add(inventoryItemId);
+        }
+
+        loadDamageInfo();
+    }
+
     /**
      * Loads the master item with the given ID from the repository.
      * On success, stores the loaded item internally.
@@ -209,7 +230,7 @@ public class ExtraInfoPresenter implements ExtraInfoContract.Presenter {
         } else if (quantity > mMasterItem.getMaxCountQty()) {
             mView.showQuantityWarningDialog(mMasterItem, quantity);
         } else {
-            InventoryItem inventoryItem = new InventoryItem(mMasterItem.getIdent(), quantity);
+            InventoryItem inventoryItem = new InventoryItem(mMasterItem.getIdent(), Utils.toScaledQuantity(quantity));
             inventoryItem.addAdditionallyData(expDate, damageCode, note);
             addItem(inventoryItem);
         }
@@ -239,15 +260,20 @@ public class ExtraInfoPresenter implements ExtraInfoContract.Presenter {
     }
 
     @Override
-    public void updateItem(@Nullable String expDate, @Nullable String damageCode, @Nullable String note) {
+    public void updateItem(@Nullable String expDate, @Nullable String damageCode, @Nullable String note, boolean clearEmptyFields) {
         if (mView == null || mInventoryItemRepository == null) return;
 
         // No update needed, just navigate back
-        if (expDate == null && damageCode == null && note == null) {
+        if (expDate == null && damageCode == null && note == null && !(mInventoryItemIds != null && clearEmptyFields)) {
             mView.goBack();
             return;
         }
 
+        if (mInventoryItemIds != null) {
+            updateItems(mInventoryItemIds, expDate, damageCode, note, clearEmptyFields);
+            return;
+        }
+
         mInventoryItemRepository.getInventoryItemById(mInventoryItemId, new InventoryItemDataSource.ILoadInventoryItemCallback() {
             @Override
             public void onInventoryItemLoaded(@NonNull InventoryItem inventoryItem) {
@@ -279,6 +305,32 @@ public class ExtraInfoPresenter implements ExtraInfoContract.Presenter {
         });
     }
 
+    /**
+     * Applies the additional data to all selected inventory items in a single transaction.
+     * Fields left empty keep the values of the items, unless {@code clearEmptyFields} is set.
+     */
+    private void updateItems(@NonNull Set<Long> inventoryItemIds, @Nullable String expDate, @Nullable String damageCode,
+                             @Nullable String note, boolean clearEmptyFields) {
+        if (mInventoryItemRepository == null) return;
+
+        mInventoryItemRepository.updateInventoryItemsAdditionalData(inventoryItemIds, expDate, damageCode, note, clearEmptyFields,
+                new InventoryItemDataSource.IOnInventoryItemUpdatedCallback() {
+                    @Override
+                    public void onSuccess() {
+                        if (mView != null) {
+                            mView.goBack();
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(@NonNull ScannerReaderError error) {
+                        if (mView != null) {
+                            mView.showErrorDialog(error);
+                        }
+                    }
+                });
+    }
+
     @Override
     public void setResultArgs(@NonNull ISetResultArgsCallback setResultArgsCallback) {
         setResultArgsCallback.setResultArgs(mMasterIdent, mExtraInfoItemAdded);
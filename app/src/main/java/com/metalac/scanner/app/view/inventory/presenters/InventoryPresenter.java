@@ -9,12 +9,14 @@ import com.metalac.scanner.app.data.source.interfaces.InventoryListDataSource;
 import com.metalac.scanner.app.data.source.interfaces.MasterItemDataSource;
 import com.metalac.scanner.app.data.source.repositories.InventoryItemRepository;
 import com.metalac.scanner.app.data.source.repositories.InventoryListRepository;
+import com.metalac.scanner.app.models.ArticleListTotal;
 import com.metalac.scanner.app.models.InventoryItem;
 import com.metalac.scanner.app.models.InventoryList;
 import com.metalac.scanner.app.models.MasterItem;
 import com.metalac.scanner.app.data.source.repositories.MasterItemRepository;
 import com.metalac.scanner.app.models.ProductPreviewItem;
 import com.metalac.scanner.app.models.WeightBarcode;
+import com.metalac.scanner.app.utils.Utils;
 import com.metalac.scanner.app.view.BaseView;
 import com.metalac.scanner.app.view.ScannerReaderError;
 import com.metalac.scanner.app.view.inventory.contracts.InventoryContract;
@@ -67,7 +69,7 @@ public class InventoryPresenter implements InventoryContract.Presenter, MasterIt
      * <ol>
      *     <li>Validates that the repository and view are initialized.</li>
      *     <li>Shows a loading progress indicator on the view.</li>
-     *     <li>Parses the barcode using {@link WeightBarcode}, extracting the alternative code and weight in kilograms.</li>
+     *     <li>Parses the barcode using {@link WeightBarcode}, extracting the alternative code and weight in grams.</li>
      *     <li>Attempts to load the {@link MasterItem} by the extracted alternative code via the repository.</li>
      *     <li>If the item is found:
      *         <ul>
@@ -110,7 +112,7 @@ public class InventoryPresenter implements InventoryContract.Presenter, MasterIt
                 if (mView != null) {
                     mView.hideProgress();
                     mView.resetAlternativeSearch(true);
-                    mView.onMasterItemLoadedByWeightBarcode(masterItem, weightBarcode.getWeightKg());
+                    mView.onMasterItemLoadedByWeightBarcode(masterItem, weightBarcode.getWeight());
                 }
             }
 
@@ -143,7 +145,7 @@ public class InventoryPresenter implements InventoryContract.Presenter, MasterIt
         } else if (quantity > mMasterItem.getMaxCountQty()) {
             mView.showQuantityWarningDialog(mMasterItem, quantity);
         } else {
-            addInventoryItem(new InventoryItem(mMasterItem.getIdent(), quantity));
+            addInventoryItem(new InventoryItem(mMasterItem.getIdent(), Utils.toScaledQuantity(quantity)));
         }
     }
 
@@ -331,6 +333,64 @@ public class InventoryPresenter implements InventoryContract.Presenter, MasterIt
         }
     }
 
+    /**
+     * Loads the idents starting with the typed prefix and passes them to the view as suggestions.
+     *
+     * @param prefix Typed part of the ident.
+     */
+    @Override
+    public void loadIdentSuggestions(@NonNull String prefix) {
+        if (mMasterItemRepository != null) {
+            mMasterItemRepository.getIdentSuggestions(prefix, (loadedPrefix, codes) -> {
+                if (mView != null) {
+                    mView.onIdentSuggestionsLoaded(loadedPrefix, codes);
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads the alternative codes starting with the typed prefix and passes them to the view as suggestions.
+     *
+     * @param prefix Typed part of the alternative code.
+     */
+    @Override
+    public void loadAltIdSuggestions(@NonNull String prefix) {
+        if (mMasterItemRepository != null) {
+            mMasterItemRepository.getAltIdSuggestions(prefix, (loadedPrefix, codes) -> {
+                if (mView != null) {
+                    mView.onAltIdSuggestionsLoaded(loadedPrefix, codes);
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads the totals of the current article in every inventory list and shows them in the view.
+     * Does nothing if no article is loaded.
+     */
+    @Override
+    public void loadArticleListTotals() {
+        if (mInventoryItemRepository == null || mItemIdent.isEmpty()) {
+            return;
+        }
+        mInventoryItemRepository.getArticleListTotals(mItemIdent, new InventoryItemDataSource.ILoadArticleListTotalsCallback() {
+            @Override
+            public void onArticleListTotalsLoaded(@NonNull String ident, @NonNull List<ArticleListTotal> articleListTotals) {
+                if (mView != null) {
+                    mView.showArticleListTotals(ident, articleListTotals);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull ScannerReaderError scannerReaderError) {
+                if (mView != null) {
+                    mView.showErrorDialog(scannerReaderError);
+                }
+            }
+        });
+    }
+
     /**
      * Loads a {@link MasterItem} asynchronously by the current {@code mItemIdent}.
      * <p>
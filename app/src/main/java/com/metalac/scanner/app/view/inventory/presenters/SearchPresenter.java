@@ -4,6 +4,8 @@ import androidx.annotation.NonNull;
 
 import com.metalac.scanner.app.data.source.interfaces.MasterItemDataSource;
 import com.metalac.scanner.app.data.source.repositories.MasterItemRepository;
+import com.metalac.scanner.app.models.QueryMasterItem;
+import com.metalac.scanner.app.models.SearchFacets;
 import com.metalac.scanner.app.view.BaseView;
 import com.metalac.scanner.app.view.ScannerReaderError;
 import com.metalac.scanner.app.view.inventory.contracts.SearchContract;
@@ -15,6 +17,7 @@ public class SearchPresenter implements SearchContract.Presenter {
 
     private SearchContract.View mView;
     private final MasterItemRepository mMasterItemRepository;
+    private int mFacetsRequest;
 
     public SearchPresenter(@NonNull MasterItemRepository mMasterItemRepository) {
         this.mMasterItemRepository = mMasterItemRepository;
@@ -45,6 +48,32 @@ public class SearchPresenter implements SearchContract.Presenter {
         });
     }
 
+    /**
+     * Loads the facet counts of the filters of the search form.
+     * - Only the counts of the latest request are passed to the view, counts of filters the user has
+     * changed since are dropped.
+     * - A failure keeps the previous counts on screen.
+     *
+     * @param queryMasterItem Current filters of the search form.
+     */
+    @Override
+    public void loadSearchFacets(QueryMasterItem queryMasterItem) {
+        int request = ++mFacetsRequest;
+        mMasterItemRepository.getSearchFacets(queryMasterItem, new MasterItemDataSource.ILoadSearchFacetsCallback() {
+            @Override
+            public void onSearchFacetsLoaded(@NonNull SearchFacets searchFacets) {
+                if (mView != null && request == mFacetsRequest) {
+                    mView.onSearchFacetsLoaded(searchFacets);
+                }
+            }
+
+            @Override
+            public void onFailed(@NonNull ScannerReaderError scannerReaderError) {
+                // The previous counts stay on screen
+            }
+        });
+    }
+
     @Override
     public void onAttach(BaseView view) {
         this.mView = (SearchFragment) view;
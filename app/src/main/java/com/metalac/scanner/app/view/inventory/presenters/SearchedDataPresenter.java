@@ -2,18 +2,30 @@ package com.metalac.scanner.app.view.inventory.presenters;
 
 import androidx.annotation.NonNull;
 
+import com.metalac.scanner.app.data.source.interfaces.InventoryItemDataSource;
+import com.metalac.scanner.app.data.source.repositories.InventoryItemRepository;
+import com.metalac.scanner.app.data.source.repositories.SearchPipeline;
+import com.metalac.scanner.app.models.ArticleListTotal;
+import com.metalac.scanner.app.models.MasterItem;
 import com.metalac.scanner.app.models.QueryMasterItem;
 import com.metalac.scanner.app.data.source.repositories.MasterItemRepository;
 import com.metalac.scanner.app.view.BaseView;
+import com.metalac.scanner.app.view.ScannerReaderError;
 import com.metalac.scanner.app.view.inventory.contracts.SearchedDataContract;
 
+import java.util.List;
+
 public class SearchedDataPresenter implements SearchedDataContract.Presenter {
     private SearchedDataContract.View mView;
     private final MasterItemRepository mMasterItemRepository;
+    private final InventoryItemRepository mInventoryItemRepository;
     private QueryMasterItem mQueryMasterItem;
+    private SearchPipeline<MasterItem> mSearchPipeline;
 
-    public SearchedDataPresenter(@NonNull MasterItemRepository mMasterItemRepository) {
+    public SearchedDataPresenter(@NonNull MasterItemRepository mMasterItemRepository,
+                                 @NonNull InventoryItemRepository inventoryItemRepository) {
         this.mMasterItemRepository = mMasterItemRepository;
+        this.mInventoryItemRepository = inventoryItemRepository;
     }
 
     @Override
@@ -29,9 +41,9 @@ public class SearchedDataPresenter implements SearchedDataContract.Presenter {
     /**
      * Loads a filtered list of master items based on the provided {@link QueryMasterItem}.
      * <p>
-     * If no previous query exists, the given query is saved. If the view is available,
-     * it triggers data loading via {@link MasterItemRepository#getMasterData}, and the
-     * results are passed to the view for display.
+     * If no previous query exists, the given query is saved. If the view is available, the results of
+     * the search pipeline created by {@link MasterItemRepository#createMasterDataSearch()} are passed to
+     * the view once, and the pipeline loads the current query.
      *
      * @param queryMasterItem The filtering criteria used to load the master items.
      */
@@ -41,14 +53,18 @@ public class SearchedDataPresenter implements SearchedDataContract.Presenter {
             mQueryMasterItem = queryMasterItem;
         }
         if (mView == null) return;
-        mView.showMasterData(mMasterItemRepository.getMasterData(mQueryMasterItem));
+        if (mSearchPipeline == null) {
+            mSearchPipeline = mMasterItemRepository.createMasterDataSearch();
+            mView.showMasterData(mSearchPipeline.getResults());
+        }
+        mSearchPipeline.setQuery(mQueryMasterItem);
     }
 
     /**
      * Filters master items by name using the current {@link QueryMasterItem}.
      * <p>
      * If no query exists, shows a retry dialog. Otherwise, updates the query with the new
-     * name filter and reloads the data.
+     * name filter and hands it to the search pipeline, which drops the results of the previous one.
      *
      * @param nameFilter The text used to filter items by name.
      */
@@ -63,4 +79,28 @@ public class SearchedDataPresenter implements SearchedDataContract.Presenter {
                 .build();
         loadItems(mQueryMasterItem);
     }
+
+    /**
+     * Loads the totals of the given article in every inventory list and shows them in the view.
+     *
+     * @param ident Ident of the article.
+     */
+    @Override
+    public void loadArticleListTotals(@NonNull String ident) {
+        mInventoryItemRepository.getArticleListTotals(ident, new InventoryItemDataSource.ILoadArticleListTotalsCallback() {
+            @Override
+            public void onArticleListTotalsLoaded(@NonNull String ident, @NonNull List<ArticleListTotal> articleListTotals) {
+                if (mView != null) {
+                    mView.showArticleListTotals(ident, articleListTotals);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull ScannerReaderError scannerReaderError) {
+                if (mView != null) {
+                    mView.showErrorDialog(scannerReaderError);
+                }
+            }
+        });
+    }
 }
@@ -9,12 +9,16 @@ import com.metalac.scanner.app.data.source.interfaces.InventoryItemDataSource;
 import com.metalac.scanner.app.data.source.interfaces.InventoryListDataSource;
 import com.metalac.scanner.app.data.source.repositories.InventoryItemRepository;
 import com.metalac.scanner.app.data.source.repositories.InventoryListRepository;
+import com.metalac.scanner.app.data.source.repositories.SearchPipeline;
 import com.metalac.scanner.app.models.InventoryList;
+import com.metalac.scanner.app.models.ProductPreviewItem;
 import com.metalac.scanner.app.models.QueryMasterItem;
 import com.metalac.scanner.app.view.BaseView;
 import com.metalac.scanner.app.view.ScannerReaderError;
 import com.metalac.scanner.app.view.inventory.contracts.SearchedInventoryDataContract;
 
+import java.util.Set;
+
 public class SearchedInventoryDataPresenter implements SearchedInventoryDataContract.Presenter {
     private InventoryList mInventoryList;
     private SearchedInventoryDataContract.View mView;
@@ -23,6 +27,7 @@ public class SearchedInventoryDataPresenter implements SearchedInventoryDataCont
     @Nullable
     private final InventoryListRepository mInventoryListRepository;
     private QueryMasterItem mQueryMasterItem;
+    private SearchPipeline<ProductPreviewItem> mSearchPipeline;
 
     public SearchedInventoryDataPresenter(@Nullable InventoryItemRepository inventoryItemRepository,
                                           @Nullable InventoryListRepository inventoryListRepository) {
@@ -51,7 +56,11 @@ public class SearchedInventoryDataPresenter implements SearchedInventoryDataCont
                 public void onInventoryListLoaded(@NonNull InventoryList inventoryList) {
                     mInventoryList = inventoryList;
                     if (mView != null && mInventoryItemRepository != null) {
-                        mView.showInventoryData(mInventoryItemRepository.getInventoryData(mInventoryList.getId(), mQueryMasterItem));
+                        if (mSearchPipeline == null) {
+                            mSearchPipeline = mInventoryItemRepository.createInventoryDataSearch(mInventoryList.getId());
+                            mView.showInventoryData(mSearchPipeline.getResults());
+                        }
+                        mSearchPipeline.setQuery(mQueryMasterItem);
                     }
                 }
 
@@ -78,7 +87,11 @@ public class SearchedInventoryDataPresenter implements SearchedInventoryDataCont
         mQueryMasterItem = mQueryMasterItem.toBuilder()
                 .setFilterText(nameFilter.trim())
                 .build();
-        loadItems(mQueryMasterItem);
+        if (mSearchPipeline != null) {
+            mSearchPipeline.setQuery(mQueryMasterItem);
+        } else {
+            loadItems(mQueryMasterItem);
+        }
     }
 
     @Override
@@ -99,4 +112,33 @@ public class SearchedInventoryDataPresenter implements SearchedInventoryDataCont
             });
         }
     }
+
+    @Override
+    public void voidItems(@NonNull Set<Long> inventoryItemIds) {
+        if (mInventoryItemRepository == null || inventoryItemIds.isEmpty()) {
+            return;
+        }
+
+        if (mView != null) {
+            mView.showProgress();
+        }
+
+        mInventoryItemRepository.voidInventoryItems(inventoryItemIds, new InventoryItemDataSource.IVoidItemCallback() {
+            @Override
+            public void onItemVoided() {
+                if (mView != null) {
+                    mView.hideProgress();
+                    mView.onItemsVoided();
+                }
+            }
+
+            @Override
+            public void onFailToVoidItem(@NonNull ScannerReaderError scannerReaderError) {
+                if (mView != null) {
+                    mView.hideProgress();
+                    mView.showErrorDialog(scannerReaderError);
+                }
+            }
+        });
+    }
 }
@@ -15,6 +15,7 @@ import com.metalac.scanner.app.models.MasterItem;
 import com.metalac.scanner.app.models.ProductPreviewItem;
 import com.metalac.scanner.app.view.BaseViewHolder;
 import com.metalac.scanner.app.view.inventory.interfaces.InventoryItemClick;
+import com.metalac.scanner.app.view.inventory.interfaces.InventoryItemLongClick;
 
 public class ProductItemViewHolder extends BaseViewHolder {
 
@@ -23,6 +24,8 @@ public class ProductItemViewHolder extends BaseViewHolder {
      */
     private final ProductItemViewHolderBinding mBinding;
     private final InventoryItemClick mCallback;
+    @Nullable
+    private final InventoryItemLongClick mLongClickCallback;
 
     /**
      * Constructs a new ProductItemViewHolder.
@@ -31,9 +34,23 @@ public class ProductItemViewHolder extends BaseViewHolder {
      * @param parent  The parent ViewGroup containing this item.
      */
     public ProductItemViewHolder(ProductItemViewHolderBinding binding, @NonNull ViewGroup parent, @Nullable InventoryItemClick callback) {
+        this(binding, parent, callback, null);
+    }
+
+    /**
+     * Constructs a new ProductItemViewHolder that also reports long clicks, used to start multi-selection.
+     *
+     * @param binding           The generated view binding for this item layout.
+     * @param parent            The parent ViewGroup containing this item.
+     * @param callback          Click callback.
+     * @param longClickCallback Long click callback.
+     */
+    public ProductItemViewHolder(ProductItemViewHolderBinding binding, @NonNull ViewGroup parent,
+                                 @Nullable InventoryItemClick callback, @Nullable InventoryItemLongClick longClickCallback) {
         super(binding, parent);
         mBinding = binding;
         mCallback = callback;
+        mLongClickCallback = longClickCallback;
     }
 
     /**
@@ -73,6 +90,12 @@ public class ProductItemViewHolder extends BaseViewHolder {
         if (mCallback != null) {
             mBinding.getRoot().setOnClickListener(v -> mCallback.onItemClicked(productPreviewItem));
         }
+        if (mLongClickCallback != null) {
+            mBinding.getRoot().setOnLongClickListener(v -> {
+                mLongClickCallback.onItemLongClicked(productPreviewItem);
+                return true;
+            });
+        }
 
         int indexInInventoryList = productPreviewItem.getIndexInInventoryList();
         if (indexInInventoryList > 0) {
@@ -86,6 +109,20 @@ public class ProductItemViewHolder extends BaseViewHolder {
         mBinding.tvProductQuantity.setText(String.valueOf(productPreviewItem.getQuantityString()));
     }
 
+    /**
+     * Highlights the item when it is part of the current multi-selection.
+     * Must be called after {@link #bind(Object)} so it overrides the status background.
+     *
+     * @param selected true if the item is selected
+     */
+    public void setSelected(boolean selected) {
+        if (selected) {
+            mBinding.clContainer.setBackgroundColor(
+                    ContextCompat.getColor(mBinding.clContainer.getContext(), R.color.inventory_selected_item_bg));
+        }
+        mBinding.getRoot().setActivated(selected);
+    }
+
     /**
      * Updates the UI state using the given values.
      *
@@ -1,9 +1,11 @@
 package com.metalac.scanner.app.view.inventorylist;
 
+import android.content.DialogInterface;
 import android.view.LayoutInflater;
 import android.view.View;
 
 import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.viewbinding.ViewBinding;
 
@@ -14,6 +16,7 @@ import com.metalac.scanner.app.helpers.DialogHelper;
 import com.metalac.scanner.app.Injection;
 import com.metalac.scanner.app.R;
 import com.metalac.scanner.app.databinding.FragmentInventoryListsBinding;
+import com.metalac.scanner.app.models.InventoryList;
 import com.metalac.scanner.app.view.BaseFragment;
 import com.metalac.scanner.app.view.BasePresenter;
 import com.metalac.scanner.app.view.BaseView;
@@ -29,12 +32,14 @@ public class InventoryListsFragment extends BaseFragment implements InventoryLis
     private FragmentInventoryListsBinding mBinding;
     private InventoryListAdapter mInventoryListAdapter;
     private BottomSheetDialog mAddNewListDialog;
+    private InventoryListPresenter mPresenter;
 
     @Override
     protected void onCreateView(ViewBinding viewBinding, BasePresenter basePresenter) {
         InventoryListPresenter presenter;
         mBinding = (FragmentInventoryListsBinding) viewBinding;
         presenter = (InventoryListPresenter) basePresenter;
+        mPresenter = presenter;
         MainActivity activity = (MainActivity) getActivity();
 
         if (activity != null) {
@@ -74,7 +79,7 @@ public class InventoryListsFragment extends BaseFragment implements InventoryLis
             if (presenter != null) {
                 presenter.setCurrentList(inventoryList);
             }
-        });
+        }, this::showListOptionsDialog);
         mBinding.rvInventoryList.setLayoutManager(new LinearLayoutManager(getContext()));
         mBinding.rvInventoryList.setAdapter(mInventoryListAdapter);
     }
@@ -91,7 +96,8 @@ public class InventoryListsFragment extends BaseFragment implements InventoryLis
 
     @Override
     protected BasePresenter onBindPresenter() {
-        return new InventoryListPresenter(Injection.provideInventoryListRepository(requireContext()));
+        return new InventoryListPresenter(Injection.provideInventoryListRepository(requireContext()),
+                Injection.provideInventoryItemRepository(requireContext()));
     }
 
     @Override
@@ -125,6 +131,61 @@ public class InventoryListsFragment extends BaseFragment implements InventoryLis
         navigate(mBinding.getRoot(), R.id.InventoryListsFragment, R.id.action_InventoryListsFragment_to_InventoryFragment, null);
     }
 
+    @Override
+    public void showExportSuccessDialog() {
+        AlertDialog successDialog = DialogHelper.createSuccessDialog(new DialogConfig(getContext(), getLayoutInflater())
+                .setTitle(getString(R.string.export_data_success_title))
+                .setSubtitle(getString(R.string.export_data_success_subtitle))
+                .setPositiveButton(R.string.ok));
+        if (successDialog != null) {
+            successDialog.show();
+        }
+    }
+
+    /**
+     * Offers to export or delete the list selected with a long press.
+     *
+     * @param inventoryList the list selected with a long press
+     */
+    private void showListOptionsDialog(@NonNull InventoryList inventoryList) {
+        DialogHelper.createItemOptionsDialog(new DialogConfig(getContext(), getLayoutInflater())
+                .setSubtitle(inventoryList.getName())
+                .setPositiveButton(R.string.export_data)
+                .setNegativeButton(R.string.delete_list)
+                .setClickListener((dialog, which) -> {
+                    if (which == DialogInterface.BUTTON_POSITIVE) {
+                        if (mPresenter != null) {
+                            mPresenter.exportInventoryList(inventoryList);
+                        }
+                    } else {
+                        showDeleteListDialog(inventoryList);
+                    }
+                })).show();
+    }
+
+    /**
+     * Asks the user to confirm deleting the given list together with all of its items.
+     *
+     * @param inventoryList the list selected with a long press
+     */
+    private void showDeleteListDialog(@NonNull InventoryList inventoryList) {
+        AlertDialog deleteListDialog = DialogHelper.createAttentionDialog(new DialogConfig(getContext(), getLayoutInflater())
+                .setTitle(getString(R.string.delete_list_dialog_title))
+                .setSubtitle(getString(R.string.delete_list_dialog_subtitle, inventoryList.getName()))
+                .setNegativeButton(R.string.cancel)
+                .setPositiveButton(R.string.clear)
+                .setClickListener((dialog, which) -> {
+                    if (which == DialogInterface.BUTTON_POSITIVE && mPresenter != null) {
+                        mPresenter.deleteInventoryList(inventoryList);
+                    } else {
+                        dialog.dismiss();
+                    }
+                }));
+        if (deleteListDialog != null) {
+            deleteListDialog.show();
+        }
+    }
+
     @Override
     public void showProgress() {
         if (mBinding != null) {
@@ -145,5 +206,6 @@ public class InventoryListsFragment extends BaseFragment implements InventoryLis
         mBinding = null;
         mInventoryListAdapter = null;
         mAddNewListDialog = null;
+        mPresenter = null;
     }
 }
@@ -4,23 +4,33 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.metalac.scanner.app.databinding.RvInventoryListItemBinding;
 import com.metalac.scanner.app.view.BaseAdapter;
 import com.metalac.scanner.app.view.BaseViewHolder;
 import com.metalac.scanner.app.view.inventorylist.interfaces.IOnInventoryListClickCallback;
+import com.metalac.scanner.app.view.inventorylist.interfaces.IOnInventoryListLongClickCallback;
 import com.metalac.scanner.app.view.inventorylist.viewholder.InventoryListItemViewHolder;
 
 public class InventoryListAdapter extends BaseAdapter {
     private final IOnInventoryListClickCallback onInventoryListClickCallback;
+    @Nullable
+    private final IOnInventoryListLongClickCallback onInventoryListLongClickCallback;
 
     public InventoryListAdapter(IOnInventoryListClickCallback onInventoryListClickCallback) {
+        this(onInventoryListClickCallback, null);
+    }
+
+    public InventoryListAdapter(IOnInventoryListClickCallback onInventoryListClickCallback,
+                                @Nullable IOnInventoryListLongClickCallback onInventoryListLongClickCallback) {
         this.onInventoryListClickCallback = onInventoryListClickCallback;
+        this.onInventoryListLongClickCallback = onInventoryListLongClickCallback;
     }
 
     @NonNull
     @Override
     public BaseViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        return new InventoryListItemViewHolder(RvInventoryListItemBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false), parent, onInventoryListClickCallback);
+        return new InventoryListItemViewHolder(RvInventoryListItemBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false), parent, onInventoryListClickCallback, onInventoryListLongClickCallback);
     }
 }
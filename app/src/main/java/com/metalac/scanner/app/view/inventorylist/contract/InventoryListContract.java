@@ -19,6 +19,8 @@ public interface InventoryListContract {
         void showErrorDialog(@NonNull ScannerReaderError scannerReaderError);
 
         void gotoInventory();
+
+        void showExportSuccessDialog();
     }
 
     interface Presenter extends BasePresenter {
@@ -27,5 +29,9 @@ public interface InventoryListContract {
         void addInventoryList(String listName);
 
         void setCurrentList(InventoryList inventoryList);
+
+        void deleteInventoryList(@NonNull InventoryList inventoryList);
+
+        void exportInventoryList(@NonNull InventoryList inventoryList);
     }
 }
@@ -0,0 +1,7 @@
+package com.metalac.scanner.app.view.inventorylist.interfaces;
+
+import com.metalac.scanner.app.models.InventoryList;
+
+public interface IOnInventoryListLongClickCallback {
+    void onLongClick(InventoryList inventoryList);
+}
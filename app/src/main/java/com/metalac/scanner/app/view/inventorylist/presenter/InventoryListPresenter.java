@@ -1,9 +1,15 @@
 package com.metalac.scanner.app.view.inventorylist.presenter;
 
+import android.content.Context;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.metalac.scanner.app.R;
+import com.metalac.scanner.app.ScannerReaderApplication;
+import com.metalac.scanner.app.data.source.interfaces.InventoryItemDataSource;
 import com.metalac.scanner.app.data.source.interfaces.InventoryListDataSource;
+import com.metalac.scanner.app.data.source.repositories.InventoryItemRepository;
 import com.metalac.scanner.app.data.source.repositories.InventoryListRepository;
 import com.metalac.scanner.app.models.InventoryList;
 import com.metalac.scanner.app.models.InventoryListWithCount;
@@ -18,10 +24,14 @@ public class InventoryListPresenter implements InventoryListContract.Presenter {
     @Nullable
     private InventoryListContract.View mView;
     private final InventoryListRepository mInventoryListRepository;
+    @Nullable
+    private final InventoryItemRepository mInventoryItemRepository;
     private final ArrayList<InventoryListWithCount> mInventoryLists = new ArrayList<>();
 
-    public InventoryListPresenter(@Nullable InventoryListRepository mInventoryListRepository) {
+    public InventoryListPresenter(@Nullable InventoryListRepository mInventoryListRepository,
+                                  @Nullable InventoryItemRepository inventoryItemRepository) {
         this.mInventoryListRepository = mInventoryListRepository;
+        this.mInventoryItemRepository = inventoryItemRepository;
     }
 
     @Override
@@ -94,6 +104,105 @@ public class InventoryListPresenter implements InventoryListContract.Presenter {
         }
     }
 
+    /**
+     * Deletes the given list. Its items are deleted first in small chunks, so the database stays
+     * responsive, and only then the list itself is removed. The current list can't be deleted, because
+     * scanning and exporting expect a selected list.
+     *
+     * @param inventoryList The list to delete.
+     */
+    @Override
+    public void deleteInventoryList(@NonNull InventoryList inventoryList) {
+        if (mInventoryItemRepository == null || mInventoryListRepository == null) return;
+
+        if (inventoryList.getSelected() == 1) {
+            if (mView != null) {
+                Context context = ScannerReaderApplication.getAppContext();
+                mView.showErrorDialog(new ScannerReaderError(context.getString(R.string.delete_selected_list_error_title),
+                        context.getString(R.string.delete_selected_list_error_subtitle, inventoryList.getName())));
+            }
+            return;
+        }
+
+        if (mView != null) {
+            mView.showProgress();
+        }
+        mInventoryItemRepository.deleteInventoryListItems(inventoryList.getId(), new InventoryItemDataSource.IOnInventoryDataDeletedCallback() {
+            @Override
+            public void onDeleteProgress(int deletedRows, int totalRows) {
+                //Not in use
+            }
+
+            @Override
+            public void onInventoryDataDeleted() {
+                mInventoryListRepository.deleteInventoryList(inventoryList.getId(), new InventoryListDataSource.IOnInventoryListDataDeletedCallback() {
+                    @Override
+                    public void onInventoryListDataDeleted() {
+                        mInventoryLists.removeIf(item -> item.getInventoryList().getId() == inventoryList.getId());
+                        if (mView != null) {
+                            mView.hideProgress();
+                            if (mInventoryLists.isEmpty()) {
+                                mView.showInventoryLists(new ArrayList<>(), false);
+                                mView.showNoData();
+                            } else {
+                                mView.showInventoryLists(new ArrayList<>(mInventoryLists), false);
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void onDeleteInventoryListDataFailed(@NonNull ScannerReaderError scannerReaderError) {
+                        onDeleteFailed(scannerReaderError);
+                    }
+                });
+            }
+
+            @Override
+            public void onDeleteInventoryDataFailed(@NonNull ScannerReaderError scannerReaderError) {
+                onDeleteFailed(scannerReaderError);
+            }
+        });
+    }
+
+    /**
+     * Exports the given list into its own file with a manifest, replacing only the previous
+     * export of this list, so a re-counted list can be re-sent alone.
+     *
+     * @param inventoryList The list to export.
+     */
+    @Override
+    public void exportInventoryList(@NonNull InventoryList inventoryList) {
+        if (mInventoryItemRepository == null) return;
+
+        if (mView != null) {
+            mView.showProgress();
+        }
+        mInventoryItemRepository.exportInventoryLists(inventoryList.getId(), new InventoryItemDataSource.IOnDataLoadedCallback() {
+            @Override
+            public void onItemsLoaded() {
+                if (mView != null) {
+                    mView.hideProgress();
+                    mView.showExportSuccessDialog();
+                }
+            }
+
+            @Override
+            public void onFailToLoadItems(@NonNull ScannerReaderError scannerReaderError) {
+                if (mView != null) {
+                    mView.hideProgress();
+                    mView.showErrorDialog(scannerReaderError);
+                }
+            }
+        });
+    }
+
+    private void onDeleteFailed(@NonNull ScannerReaderError scannerReaderError) {
+        if (mView != null) {
+            mView.hideProgress();
+            mView.showErrorDialog(scannerReaderError);
+        }
+    }
+
     @Override
     public void onAttach(BaseView view) {
         this.mView = (InventoryListContract.View) view;
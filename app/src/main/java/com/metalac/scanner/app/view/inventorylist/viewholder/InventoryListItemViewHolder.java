@@ -3,22 +3,32 @@ package com.metalac.scanner.app.view.inventorylist.viewholder;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.metalac.scanner.app.databinding.RvInventoryListItemBinding;
 import com.metalac.scanner.app.models.InventoryList;
 import com.metalac.scanner.app.models.InventoryListWithCount;
 import com.metalac.scanner.app.view.BaseViewHolder;
 import com.metalac.scanner.app.view.inventorylist.interfaces.IOnInventoryListClickCallback;
+import com.metalac.scanner.app.view.inventorylist.interfaces.IOnInventoryListLongClickCallback;
 
 public class InventoryListItemViewHolder extends BaseViewHolder {
 
     private final RvInventoryListItemBinding mBinding;
     private final IOnInventoryListClickCallback mCallback;
+    @Nullable
+    private final IOnInventoryListLongClickCallback mLongClickCallback;
 
     public InventoryListItemViewHolder(RvInventoryListItemBinding binding, @NonNull ViewGroup parent, IOnInventoryListClickCallback mCallback) {
+        this(binding, parent, mCallback, null);
+    }
+
+    public InventoryListItemViewHolder(RvInventoryListItemBinding binding, @NonNull ViewGroup parent, IOnInventoryListClickCallback mCallback,
+                                       @Nullable IOnInventoryListLongClickCallback longClickCallback) {
         super(binding, parent);
         this.mBinding = binding;
         this.mCallback = mCallback;
+        this.mLongClickCallback = longClickCallback;
     }
 
     @Override
@@ -31,5 +41,11 @@ public class InventoryListItemViewHolder extends BaseViewHolder {
         mBinding.tvCount.setText(String.valueOf(inventoryListWithCount.getCount()));
 
         mBinding.getRoot().setOnClickListener(v -> mCallback.onClick(inventoryList));
+        if (mLongClickCallback != null) {
+            mBinding.getRoot().setOnLongClickListener(v -> {
+                mLongClickCallback.onLongClick(inventoryList);
+                return true;
+            });
+        }
     }
 }
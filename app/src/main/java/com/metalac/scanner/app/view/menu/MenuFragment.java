@@ -41,6 +41,7 @@ public class MenuFragment extends BaseFragment implements MenuContract.View {
         setupToolbar(activity);
         setupConfigInfo();
         setupButtons();
+        mPresenter.compactInventoryData();
     }
 
     @Override
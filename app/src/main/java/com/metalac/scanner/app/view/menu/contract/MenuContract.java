@@ -15,5 +15,7 @@ public interface MenuContract {
 
     interface Presenter extends BasePresenter {
         void onChangeStoreCodeRequested();
+
+        void compactInventoryData();
     }
 }
@@ -40,6 +40,28 @@ public class MenuPresenter implements MenuContract.Presenter {
         }
     }
 
+    /**
+     * Archives finished void pairs in the background, so the inventory screens only page through active rows.
+     * Nothing is written until enough voided rows have piled up, so opening the menu usually costs one count.
+     * The result isn't shown to the user, on failure the rows simply stay in the live table until the next run.
+     */
+    @Override
+    public void compactInventoryData() {
+        if (mInventoryItemRepository != null) {
+            mInventoryItemRepository.compactVoidedItems(new InventoryItemDataSource.IOnItemsCompactedCallback() {
+                @Override
+                public void onItemsCompacted(int archivedRows) {
+                    //Not in use
+                }
+
+                @Override
+                public void onFailToCompactItems(@NonNull ScannerReaderError scannerReaderError) {
+                    //Not in use
+                }
+            });
+        }
+    }
+
     @Override
     public void onAttach(BaseView view) {
         this.mView = (MenuContract.View) view;
@@ -4,11 +4,14 @@ import android.net.Uri;
 
 import androidx.annotation.NonNull;
 
+import com.metalac.scanner.app.data.source.interfaces.InventoryItemDataSource;
 import com.metalac.scanner.app.helpers.DialogHelper;
 import com.metalac.scanner.app.view.BasePresenter;
 import com.metalac.scanner.app.view.BaseView;
 import com.metalac.scanner.app.view.ScannerReaderError;
 
+import java.util.List;
+
 public interface SynchronizationContract {
     interface View extends BaseView {
         void onSuccessfulSync(String lastSyncDate);
@@ -23,15 +26,23 @@ public interface SynchronizationContract {
 
         void createProgressDialog(DialogHelper.DialogMode dialogMode);
 
+        void showDeleteProgress(int deletedRows, int totalRows);
+
         void createSuccessfulDialog(DialogHelper.DialogMode dialogMode);
 
         void displayLastExportDate(String lastExportDate);
+
+        void onExportsConsolidated(int importedRows, int duplicateRows);
     }
 
     interface Presenter extends BasePresenter {
         void loadMasterItems(Uri uri);
 
-        void exportData();
+        void exportData(InventoryItemDataSource.ExportMode exportMode);
+
+        void exportInventoryLists();
+
+        void consolidateExports(@NonNull List<Uri> uris);
 
         void deleteInventoryData();
 
@@ -3,6 +3,7 @@ package com.metalac.scanner.app.view.synchronization;
 import static android.view.View.GONE;
 
 import android.app.Activity;
+import android.content.ClipData;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.net.Uri;
@@ -21,14 +22,22 @@ import com.metalac.scanner.app.helpers.DialogConfig;
 import com.metalac.scanner.app.helpers.DialogHelper;
 import com.metalac.scanner.app.Injection;
 import com.metalac.scanner.app.data.source.PrefManager;
+import com.metalac.scanner.app.data.source.export.ExportFormat;
+import com.metalac.scanner.app.data.source.export.ScheduledExportJobService;
+import com.metalac.scanner.app.data.source.interfaces.InventoryItemDataSource;
 import com.metalac.scanner.app.R;
 import com.metalac.scanner.app.databinding.FragmentSynchronizationBinding;
+import com.metalac.scanner.app.utils.Utils;
 import com.metalac.scanner.app.view.BaseFragment;
 import com.metalac.scanner.app.view.BasePresenter;
 import com.metalac.scanner.app.view.BaseView;
 import com.metalac.scanner.app.view.MainActivity;
 import com.metalac.scanner.app.view.ScannerReaderError;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class SynchronizationFragment extends BaseFragment implements SynchronizationContract.View {
 
     private FragmentSynchronizationBinding mBinding;
@@ -54,6 +63,31 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
             }
     );
 
+    /**
+     * Handles the result of the export file picker used for consolidation.
+     * Collects every selected URI and passes them to the presenter.
+     */
+    private final ActivityResultLauncher<Intent> exportFilesPickerLauncher = registerForActivityResult(
+            new ActivityResultContracts.StartActivityForResult(),
+            result -> {
+                if (result.getResultCode() == Activity.RESULT_OK && result.getData() != null) {
+                    List<Uri> uris = new ArrayList<>();
+                    ClipData clipData = result.getData().getClipData();
+                    if (clipData != null) {
+                        for (int i = 0; i < clipData.getItemCount(); i++) {
+                            uris.add(clipData.getItemAt(i).getUri());
+                        }
+                    } else if (result.getData().getData() != null) {
+                        uris.add(result.getData().getData());
+                    }
+
+                    if (!uris.isEmpty() && mPresenter != null) {
+                        mPresenter.consolidateExports(uris);
+                    }
+                }
+            }
+    );
+
     @Override
     protected void onCreateView(ViewBinding viewBinding, BasePresenter basePresenter) {
         mBinding = (FragmentSynchronizationBinding) viewBinding;
@@ -73,6 +107,23 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
 
 
         mBinding.btGetMaster.setOnClickListener(view -> openJsonFilePicker());
+        mBinding.btConsolidateExports.setOnClickListener(view -> openExportFilesPicker());
+
+        setupExportFormatDropdown();
+
+        mBinding.cbCompressExport.setChecked(PrefManager.isExportCompressionEnabled());
+        mBinding.cbCompressExport.setOnCheckedChangeListener((buttonView, isChecked) ->
+                PrefManager.setExportCompressionEnabled(isChecked));
+
+        mBinding.cbScheduledExport.setChecked(PrefManager.isScheduledExportEnabled());
+        mBinding.cbScheduledExport.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            PrefManager.setScheduledExportEnabled(isChecked);
+            if (isChecked) {
+                ScheduledExportJobService.schedule(requireContext());
+            } else {
+                ScheduledExportJobService.cancel(requireContext());
+            }
+        });
 
         mPresenter.checkInventoryData();
         mPresenter.checkInventoryListData();
@@ -115,10 +166,32 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
     }
 
 
+    /**
+     * Fills the export format dropdown with all {@link ExportFormat}s in declaration order,
+     * selects the saved format and saves every new selection.
+     */
+    private void setupExportFormatDropdown() {
+        String[] formatNames = {
+                getString(R.string.export_format_json),
+                getString(R.string.export_format_csv),
+                getString(R.string.export_format_fixed_width)
+        };
+
+        Utils.setupDropdown(requireContext(), mBinding.etExportFormat,
+                Arrays.asList(formatNames).subList(1, formatNames.length), formatNames[0]);
+        mBinding.etExportFormat.setText(formatNames[PrefManager.getExportFormat().ordinal()], false);
+        mBinding.etExportFormat.setOnItemClickListener((parent, view, position, id) ->
+                PrefManager.setExportFormat(ExportFormat.values()[position]));
+    }
+
     /**
      * Sets up click listeners for inventory list buttons.
      * <p>
      * - "Send Inventory Lists" button triggers an export dialog.
+     * - "Send Changes" button triggers an export dialog for the rows changed since the last export.
+     * - "Send Totals" button triggers an export dialog for the netted quantities.
+     * - "Send Corrections" button triggers an export dialog for the netted quantities changed since the last totals.
+     * - "Send Lists Separately" button triggers an export dialog for one file per list.
      * - "Delete Inventories" button triggers a delete confirmation dialog.
      * </p>
      * Does nothing if the binding is null.
@@ -127,6 +200,14 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
         if (mBinding != null) {
             mBinding.btSendInventoryLists.setOnClickListener(v ->
                     createAttentionDialog(DialogHelper.DialogMode.EXPORT));
+            mBinding.btSendInventoryChanges.setOnClickListener(v ->
+                    createAttentionDialog(DialogHelper.DialogMode.EXPORT_CHANGES));
+            mBinding.btSendInventoryTotals.setOnClickListener(v ->
+                    createAttentionDialog(DialogHelper.DialogMode.EXPORT_NETTED));
+            mBinding.btSendInventoryCorrections.setOnClickListener(v ->
+                    createAttentionDialog(DialogHelper.DialogMode.EXPORT_DIFF));
+            mBinding.btSendInventoryListsSeparately.setOnClickListener(v ->
+                    createAttentionDialog(DialogHelper.DialogMode.EXPORT_LISTS));
             mBinding.btDeleteInventories.setOnClickListener(v ->
                     createAttentionDialog(DialogHelper.DialogMode.DELETE));
         }
@@ -167,6 +248,10 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
     public void enableExport(boolean enable) {
         if (mBinding != null) {
             mBinding.btSendInventoryLists.setEnabled(enable);
+            mBinding.btSendInventoryChanges.setEnabled(enable);
+            mBinding.btSendInventoryTotals.setEnabled(enable);
+            mBinding.btSendInventoryCorrections.setEnabled(enable);
+            mBinding.btSendInventoryListsSeparately.setEnabled(enable);
         }
     }
 
@@ -202,6 +287,10 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
         String subtitle = "";
         switch (dialogMode) {
             case EXPORT:
+            case EXPORT_CHANGES:
+            case EXPORT_NETTED:
+            case EXPORT_DIFF:
+            case EXPORT_LISTS:
                 title = getString(R.string.export_data_success_title);
                 subtitle = getString(R.string.export_data_success_subtitle);
                 break;
@@ -223,6 +312,21 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
         showSuccessfulDialog();
     }
 
+    @Override
+    public void onExportsConsolidated(int importedRows, int duplicateRows) {
+        if (mSuccessDialog != null) {
+            mSuccessDialog.dismiss();
+            mSuccessDialog = null;
+        }
+
+        mSuccessDialog = DialogHelper.createSuccessDialog(
+                new DialogConfig(getContext(), getLayoutInflater())
+                        .setTitle(getString(R.string.consolidation_success_title))
+                        .setSubtitle(getString(R.string.consolidation_success_subtitle, importedRows, duplicateRows))
+                        .setPositiveButton(R.string.ok));
+        showSuccessfulDialog();
+    }
+
     @Override
     public void displayLastExportDate(String lastExportDate) {
         updateDateField(lastExportDate, mBinding.tilLastExport, mBinding.etLastExport);
@@ -274,7 +378,33 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
             title = getString(R.string.export_data_dialog_title);
             subtitle = getString(R.string.export_data_dialog_subtitle);
             buttonPositive = getString(R.string.export_data);
-            clickListener = createExportClickListener();
+            clickListener = createExportClickListener(InventoryItemDataSource.ExportMode.FULL);
+        } else if (dialogMode == DialogHelper.DialogMode.EXPORT_CHANGES) {
+            title = getString(R.string.export_data_dialog_title);
+            subtitle = getString(R.string.export_changes_dialog_subtitle);
+            buttonPositive = getString(R.string.export_data);
+            clickListener = createExportClickListener(InventoryItemDataSource.ExportMode.CHANGES);
+        } else if (dialogMode == DialogHelper.DialogMode.EXPORT_NETTED) {
+            title = getString(R.string.export_data_dialog_title);
+            subtitle = getString(R.string.export_totals_dialog_subtitle);
+            buttonPositive = getString(R.string.export_data);
+            clickListener = createExportClickListener(InventoryItemDataSource.ExportMode.NETTED);
+        } else if (dialogMode == DialogHelper.DialogMode.EXPORT_DIFF) {
+            title = getString(R.string.export_data_dialog_title);
+            subtitle = getString(R.string.export_corrections_dialog_subtitle);
+            buttonPositive = getString(R.string.export_data);
+            clickListener = createExportClickListener(InventoryItemDataSource.ExportMode.DIFF);
+        } else if (dialogMode == DialogHelper.DialogMode.EXPORT_LISTS) {
+            title = getString(R.string.export_data_dialog_title);
+            subtitle = getString(R.string.export_lists_dialog_subtitle);
+            buttonPositive = getString(R.string.export_data);
+            clickListener = (dialog, which) -> {
+                if (which == DialogInterface.BUTTON_POSITIVE && mPresenter != null) {
+                    mPresenter.exportInventoryLists();
+                } else {
+                    dialog.dismiss();
+                }
+            };
         } else if (dialogMode == DialogHelper.DialogMode.DELETE) {
             title = getString(R.string.delete_data_dialog_title);
             subtitle = getString(R.string.delete_data_dialog_subtitle);
@@ -299,12 +429,13 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
      * On any other click, dismisses the dialog.
      * </p>
      *
+     * @param exportMode Which rows to export.
      * @return A {@link DialogInterface.OnClickListener} for the export dialog.
      */
-    private DialogInterface.OnClickListener createExportClickListener() {
+    private DialogInterface.OnClickListener createExportClickListener(InventoryItemDataSource.ExportMode exportMode) {
         return (dialog, which) -> {
             if (which == DialogInterface.BUTTON_POSITIVE && mPresenter != null) {
-                mPresenter.exportData();
+                mPresenter.exportData(exportMode);
             } else {
                 dialog.dismiss();
             }
@@ -355,6 +486,10 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
         String subtitle = "";
         switch (dialogMode) {
             case EXPORT:
+            case EXPORT_CHANGES:
+            case EXPORT_NETTED:
+            case EXPORT_DIFF:
+            case EXPORT_LISTS:
                 title = getString(R.string.exporting);
                 subtitle = getString(R.string.exporting_inventory_data_subtitle);
                 break;
@@ -362,6 +497,10 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
                 title = getString(R.string.loading);
                 subtitle = getString(R.string.loading_master_data_subtitle);
                 break;
+            case CONSOLIDATE:
+                title = getString(R.string.consolidating);
+                subtitle = getString(R.string.consolidating_subtitle);
+                break;
             case DELETE:
                 title = getString(R.string.deleting);
                 subtitle = getString(R.string.deleting_data_subtitle);
@@ -374,6 +513,13 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
         showProgress();
     }
 
+    @Override
+    public void showDeleteProgress(int deletedRows, int totalRows) {
+        if (mProgressDialog != null) {
+            DialogHelper.updateProgressDialogSubtitle(mProgressDialog, getString(R.string.deleting_data_progress, deletedRows, totalRows));
+        }
+    }
+
     @Override
     public void showProgress() {
         if (mProgressDialog != null) {
@@ -400,6 +546,19 @@ public class SynchronizationFragment extends BaseFragment implements Synchroniza
         jsonPickerLauncher.launch(intent);
     }
 
+    /**
+     * Opens a file picker allowing the user to select export files of other devices,
+     * plain or gzip compressed.
+     */
+    public void openExportFilesPicker() {
+        Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+        intent.addCategory(Intent.CATEGORY_OPENABLE);
+        intent.setType("*/*");
+        intent.putExtra(Intent.EXTRA_MIME_TYPES, new String[]{"application/json", "application/gzip", "application/octet-stream"});
+        intent.putExtra(Intent.EXTRA_ALLOW_MULTIPLE, true);
+        exportFilesPickerLauncher.launch(intent);
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
@@ -18,6 +18,7 @@ import com.metalac.scanner.app.view.BaseView;
 import com.metalac.scanner.app.view.ScannerReaderError;
 
 import java.util.Date;
+import java.util.List;
 
 public class SynchronizationPresenter implements SynchronizationContract.Presenter {
     @Nullable
@@ -88,27 +89,59 @@ public class SynchronizationPresenter implements SynchronizationContract.Present
         }
     }
 
+    /**
+     * Exports the inventory data and, on success, stores and displays the date of the export.
+     *
+     * @param exportMode Which rows to export, see {@link InventoryItemDataSource.ExportMode}.
+     */
+    @Override
+    public void exportData(@NonNull InventoryItemDataSource.ExportMode exportMode) {
+        if (mView != null) {
+            mView.createProgressDialog(DialogHelper.DialogMode.EXPORT);
+        }
+
+        if (mInventoryItemRepository != null) {
+            mInventoryItemRepository.exportData(exportMode, createExportCallback());
+        }
+    }
+
+    /**
+     * Exports every inventory list into its own file, together with a manifest of all files.
+     */
     @Override
-    public void exportData() {
+    public void exportInventoryLists() {
         if (mView != null) {
             mView.createProgressDialog(DialogHelper.DialogMode.EXPORT);
         }
 
         if (mInventoryItemRepository != null) {
-            mInventoryItemRepository.exportData(new InventoryItemDataSource.IOnDataLoadedCallback() {
+            mInventoryItemRepository.exportInventoryLists(null, createExportCallback());
+        }
+    }
+
+    /**
+     * Consolidates the export files of other devices into one combined export with per-article totals.
+     *
+     * @param uris The selected export files.
+     */
+    @Override
+    public void consolidateExports(@NonNull List<Uri> uris) {
+        if (mView != null) {
+            mView.createProgressDialog(DialogHelper.DialogMode.CONSOLIDATE);
+        }
+
+        if (mInventoryItemRepository != null) {
+            mInventoryItemRepository.consolidateExports(uris, new InventoryItemDataSource.IOnExportsConsolidatedCallback() {
                 @Override
-                public void onItemsLoaded() {
+                public void onExportsConsolidated(int importedRows, int duplicateRows) {
                     if (mView != null) {
                         mView.hideProgress();
-                        mView.createSuccessfulDialog(DialogHelper.DialogMode.EXPORT);
-                        String lastExportDate = DateHelper.formatDateToString(new Date());
-                        PrefManager.setLastDataExportDate(lastExportDate);
-                        mView.displayLastExportDate(lastExportDate);
+                        mView.onExportsConsolidated(importedRows, duplicateRows);
                     }
                 }
 
                 @Override
-                public void onFailToLoadItems(@NonNull ScannerReaderError scannerReaderError) {
+                public void onFailToConsolidateExports(@NonNull ScannerReaderError scannerReaderError) {
                     if (mView != null) {
                         mView.hideProgress();
                         mView.showErrorDialog(scannerReaderError);
@@ -118,6 +151,29 @@ public class SynchronizationPresenter implements SynchronizationContract.Present
         }
     }
 
+    private InventoryItemDataSource.IOnDataLoadedCallback createExportCallback() {
+        return new InventoryItemDataSource.IOnDataLoadedCallback() {
+            @Override
+            public void onItemsLoaded() {
+                String lastExportDate = DateHelper.formatDateToString(new Date());
+                PrefManager.setLastDataExportDate(lastExportDate);
+                if (mView != null) {
+                    mView.hideProgress();
+                    mView.createSuccessfulDialog(DialogHelper.DialogMode.EXPORT);
+                    mView.displayLastExportDate(lastExportDate);
+                }
+            }
+
+            @Override
+            public void onFailToLoadItems(@NonNull ScannerReaderError scannerReaderError) {
+                if (mView != null) {
+                    mView.hideProgress();
+                    mView.showErrorDialog(scannerReaderError);
+                }
+            }
+        };
+    }
+
     @Override
     public void deleteInventoryData() {
         if (mView != null) {
@@ -125,6 +181,13 @@ public class SynchronizationPresenter implements SynchronizationContract.Present
         }
         if (mInventoryItemRepository != null) {
             mInventoryItemRepository.deleteInventoryData(new InventoryItemDataSource.IOnInventoryDataDeletedCallback() {
+                @Override
+                public void onDeleteProgress(int deletedRows, int totalRows) {
+                    if (mView != null) {
+                        mView.showDeleteProgress(deletedRows, totalRows);
+                    }
+                }
+
                 @Override
                 public void onInventoryDataDeleted() {
                     deleteInventoryListData();